@@ -0,0 +1,152 @@
+package com.br.elohostel.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Controle de admissão das operações administrativas pesadas (reprocessamentos,
+ * resets, syncs manuais de todos os canais). Poucas rodam ao mesmo tempo, a
+ * mesma operação não roda duas vezes em paralelo (duplo clique), e elas
+ * esperam pouco na fila: o excesso recebe 429 com Retry-After. Enquanto a
+ * recepção está com muitas requisições em andamento, operações pesadas novas
+ * são recusadas, de forma que o atendimento sempre mantém capacidade reservada.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Logger logger = Logger.getLogger(AdmissionControlFilter.class.getName());
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final List<String> HEAVY_POST_PATHS = List.of(
+        "/financial/process",
+        "/financial/process/now",
+        "/financial/process/all-reservations",
+        "/financial/process/year/*",
+        "/financial/forecast/period",
+        "/financial/reset-flags",
+        "/financial/mark-all-processed",
+        "/financial/reprocess",
+        "/financial/backfill/**",
+        "/financial/jobs/*/run",
+        "/financial/archive",
+        "/api/backups",
+        "/api/backups/*/verify",
+        "/api/airbnb/sync-now/**",
+        "/api/airbnb/sync/sync-now",
+        "/api/booking/sync-now/**");
+
+    private final Semaphore heavyPermits;
+    private final AtomicInteger heavyWaiting = new AtomicInteger();
+    private final AtomicInteger interactiveInFlight = new AtomicInteger();
+    private final Set<String> heavyInFlight = ConcurrentHashMap.newKeySet();
+    private final int maxQueued;
+    private final long maxWaitMillis;
+    private final int interactiveBusyThreshold;
+    private final long retryAfterSeconds;
+
+    public AdmissionControlFilter(@Value("${app.admission.heavy.max-concurrent:1}") int maxConcurrent,
+                                  @Value("${app.admission.heavy.max-queued:2}") int maxQueued,
+                                  @Value("${app.admission.heavy.max-wait-ms:3000}") long maxWaitMillis,
+                                  @Value("${app.admission.interactive-busy-threshold:8}") int interactiveBusyThreshold,
+                                  @Value("${app.admission.retry-after-seconds:30}") long retryAfterSeconds) {
+        this.heavyPermits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.interactiveBusyThreshold = interactiveBusyThreshold;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isHeavy(request)) {
+            interactiveInFlight.incrementAndGet();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                interactiveInFlight.decrementAndGet();
+            }
+            return;
+        }
+
+        String operation = request.getMethod() + " " + request.getRequestURI();
+        if (interactiveInFlight.get() >= interactiveBusyThreshold) {
+            reject(response, operation, "recepção ocupada");
+            return;
+        }
+        if (!heavyInFlight.add(operation)) {
+            reject(response, operation, "operação já em andamento");
+            return;
+        }
+        try {
+            if (!acquire()) {
+                reject(response, operation, "limite de operações pesadas atingido");
+                return;
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                heavyPermits.release();
+            }
+        } finally {
+            heavyInFlight.remove(operation);
+        }
+    }
+
+    private boolean acquire() {
+        if (heavyPermits.tryAcquire()) {
+            return true;
+        }
+        if (heavyWaiting.incrementAndGet() > maxQueued) {
+            heavyWaiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return heavyPermits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            heavyWaiting.decrementAndGet();
+        }
+    }
+
+    private boolean isHeavy(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : HEAVY_POST_PATHS) {
+            if (PATHS.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, String operation, String reason) throws IOException {
+        logger.warning("🚦 Operação pesada recusada (" + reason + "): " + operation);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Operação pesada recusada: " + reason + ". Tente novamente em " + retryAfterSeconds + " segundos.");
+    }
+}
@@ -12,11 +12,12 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 @EnableAsync
 public class SchedulingConfig {
     
+    // Só dispara as tarefas; o trabalho roda nos executores de WorkloadConfig
     @Bean
     public TaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(5);
-        scheduler.setThreadNamePrefix("bed-occupation-scheduler-");
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("scheduler-");
         return scheduler;
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.br.elohostel.config;
+
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Classes de carga com executores próprios e limitados: sincronização de
+ * canais, lote financeiro, reprocessamento, exportações e cópias de segurança. O agendador só
+ * dispara as tarefas; quem executa é o executor da classe, então um sync lento
+ * não atrasa o fechamento diário. Cada thread em segundo plano segura no máximo uma conexão,
+ * e o que sobra do pool fica reservado para as requisições da recepção.
+ */
+@Configuration
+public class WorkloadConfig implements WebMvcConfigurer {
+    private static final Logger logger = Logger.getLogger(WorkloadConfig.class.getName());
+
+    public static final String CHANNEL_SYNC_EXECUTOR = "channelSyncExecutor";
+    public static final String FINANCIAL_BATCH_EXECUTOR = "financialBatchExecutor";
+    public static final String BACKFILL_EXECUTOR = "backfillExecutor";
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+    public static final String BACKUP_EXECUTOR = "backupExecutor";
+
+    private final int channelSyncThreads;
+    private final int financialBatchThreads;
+    private final int exportThreads;
+    private final int exportQueue;
+    private final int backfillParallelism;
+    private final int poolSize;
+    private final int frontDeskConnections;
+
+    public WorkloadConfig(@Value("${app.workload.channel-sync.threads:1}") int channelSyncThreads,
+                          @Value("${app.workload.financial-batch.threads:1}") int financialBatchThreads,
+                          @Value("${app.workload.export.threads:2}") int exportThreads,
+                          @Value("${app.workload.export.queue:8}") int exportQueue,
+                          @Value("${app.financial.backfill.parallelism:4}") int backfillParallelism,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                          @Value("${app.workload.front-desk.min-connections:4}") int frontDeskConnections) {
+        this.channelSyncThreads = Math.max(1, channelSyncThreads);
+        this.financialBatchThreads = Math.max(1, financialBatchThreads);
+        this.exportThreads = Math.max(1, exportThreads);
+        this.exportQueue = Math.max(0, exportQueue);
+        this.backfillParallelism = Math.max(1, backfillParallelism);
+        this.poolSize = poolSize;
+        this.frontDeskConnections = frontDeskConnections;
+    }
+
+    // Sincronizações de canais atrasadas podem ser descartadas: a próxima rodada cobre o mesmo calendário
+    @Bean(name = CHANNEL_SYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor channelSyncExecutor() {
+        ThreadPoolTaskExecutor executor = boundedExecutor("channel-sync-", channelSyncThreads, 4);
+        executor.setRejectedExecutionHandler((task, pool) ->
+            logger.warning("⏭️ Sincronização de canal descartada: fila cheia"));
+        return executor;
+    }
+
+    @Bean(name = FINANCIAL_BATCH_EXECUTOR)
+    public ThreadPoolTaskExecutor financialBatchExecutor() {
+        return boundedExecutor("financial-batch-", financialBatchThreads, 16);
+    }
+
+    // Blocos do reprocessamento: um reprocessamento por vez (trava do serviço), então a fila só
+    // guarda os blocos dele; no desligamento os blocos são interrompidos e o job fica para retomada
+    @Bean(name = BACKFILL_EXECUTOR)
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = boundedExecutor("financial-backfill-", backfillParallelism, Integer.MAX_VALUE);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor() {
+        return boundedExecutor("export-", exportThreads, exportQueue);
+    }
+
+    // Cópias de segurança: uma thread de prioridade mínima; um disparo enquanto outro roda é descartado
+    @Bean(name = BACKUP_EXECUTOR)
+    public ThreadPoolTaskExecutor backupExecutor() {
+        ThreadPoolTaskExecutor executor = boundedExecutor("backup-", 1, 0);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setRejectedExecutionHandler((task, pool) ->
+            logger.warning("⏭️ Cópia de segurança descartada: outra ainda em andamento"));
+        return executor;
+    }
+
+    // Exportações em streaming rodam no executor de exportação, fora das threads do Tomcat
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor());
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(String prefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Confere se as cotas de segundo plano deixam conexões suficientes para a recepção.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkConnectionBudget() {
+        int background = channelSyncThreads + financialBatchThreads + exportThreads + backfillParallelism + 1;
+        int reserved = poolSize - background;
+        if (reserved < frontDeskConnections) {
+            logger.warning("⚠️ Pool de conexões (" + poolSize + ") deixa só " + reserved +
+                " conexões para a recepção; mínimo configurado: " + frontDeskConnections);
+        } else {
+            logger.info("🔌 Conexões: " + background + " para segundo plano, " + reserved + " reservadas para a recepção");
+        }
+    }
+}
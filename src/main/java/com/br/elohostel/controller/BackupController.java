@@ -0,0 +1,54 @@
+package com.br.elohostel.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.br.elohostel.service.BackupService;
+import com.br.elohostel.service.BackupService.BackupFile;
+import com.br.elohostel.service.BackupService.VerifyResult;
+import com.br.elohostel.service.components.BackupScheduler;
+
+/**
+ * Cópias de segurança do banco: listagem, cópia sob demanda e verificação
+ * por restauração num banco temporário.
+ */
+@RestController
+@RequestMapping("/api/backups")
+public class BackupController {
+
+    private final BackupService backupService;
+    private final BackupScheduler backupScheduler;
+
+    public BackupController(BackupService backupService, BackupScheduler backupScheduler) {
+        this.backupService = backupService;
+        this.backupScheduler = backupScheduler;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackupFile>> listBackups() throws IOException {
+        return ResponseEntity.ok(backupService.listBackups());
+    }
+
+    // A cópia roda no executor de cópias; o resultado aparece na listagem
+    @PostMapping
+    public ResponseEntity<String> backupNow() {
+        if (!backupScheduler.requestBackup()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Já existe uma cópia de segurança em andamento");
+        }
+        return ResponseEntity.accepted().body("Cópia de segurança iniciada");
+    }
+
+    @PostMapping("/{name}/verify")
+    public ResponseEntity<VerifyResult> verify(@PathVariable String name) throws IOException {
+        VerifyResult result = backupService.verify(name);
+        return result.restored() ? ResponseEntity.ok(result) : ResponseEntity.unprocessableEntity().body(result);
+    }
+}
@@ -2,10 +2,13 @@ package com.br.elohostel.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.br.elohostel.model.Bed;
@@ -44,4 +47,14 @@ public class BedController {
         List<Bed> list = service.findAvailableBedsByRoomVague(id);
         return ResponseEntity.ok().body(list);
     }
+
+    @PutMapping("/maintenance/{id}")
+    public ResponseEntity<?> setMaintenance(@PathVariable Long id, @RequestParam(defaultValue = "true") boolean active) {
+        try {
+            Bed bed = service.setMaintenance(id, active);
+            return ResponseEntity.ok().body(bed);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
 }
@@ -1,16 +1,21 @@
 package com.br.elohostel.controller;
 
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,6 +25,8 @@ import com.br.elohostel.model.Room;
 import com.br.elohostel.model.enums.ReserveStatus;
 import com.br.elohostel.repository.ReserveRepository;
 import com.br.elohostel.service.ICalExportService;
+import com.br.elohostel.service.ICalFeedCache;
+import com.br.elohostel.service.ICalFeedCache.ICalFeed;
 
 import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.DateTime;
@@ -35,70 +42,84 @@ import net.fortuna.ical4j.model.property.XProperty;
 @RestController
 @RequestMapping("/api/calendar")
 public class CalendarExportController {
+    private static final Logger logger = Logger.getLogger(CalendarExportController.class.getName());
+
+    private static final String CALENDAR_FEED_KEY = "calendar";
 
     private final ICalExportService icalExportService;
     private final ReserveRepository reserveRepository;
+    private final ICalFeedCache icalFeedCache;
 
     public CalendarExportController(ICalExportService icalExportService,
-                                  ReserveRepository reserveRepository) {
+                                  ReserveRepository reserveRepository,
+                                  ICalFeedCache icalFeedCache) {
         this.icalExportService = icalExportService;
         this.reserveRepository = reserveRepository;
+        this.icalFeedCache = icalFeedCache;
     }
 
     /**
      * Endpoint específico para exportar o calendário do front-end que você mostrou
      */
     @GetMapping("/export/{propertyId}/{token}.ics")
-    public ResponseEntity<String> exportCalendarICal(
+    public ResponseEntity<byte[]> exportCalendarICal(
             @PathVariable String propertyId,
-            @PathVariable String token) {
+            @PathVariable String token,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
         try {
-            System.out.println("📅 Exportando calendário para property: " + propertyId);
-            
             // Validar token
             if (!isValidToken(propertyId, token)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Token inválido");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Token inválido".getBytes(StandardCharsets.UTF_8));
             }
 
-            // Buscar TODAS as reservas (não apenas confirmadas)
-            List<Reserve> allReserves = reserveRepository.findAll();
-            
-            // Filtrar reservas que não estão canceladas
-            List<Reserve> activeReserves = allReserves.stream()
-                .filter(reserve -> reserve.getReserveStatus() != ReserveStatus.CANCELLED)
-                .collect(Collectors.toList());
-
-            // Criar calendário
-            net.fortuna.ical4j.model.Calendar calendar = new net.fortuna.ical4j.model.Calendar();
-            calendar.getProperties().add(new ProdId("-//Elohostel Calendar//iCal Export//PT"));
-            calendar.getProperties().add(Version.VERSION_2_0);
-            calendar.getProperties().add(CalScale.GREGORIAN);
-            calendar.getProperties().add(new XProperty("X-WR-CALNAME", "Calendário Elohostel - Reservas"));
-
-            // Adicionar cada reserva como evento
-            for (Reserve reserve : activeReserves) {
-                List<VEvent> events = createEventsFromReserve(reserve);
-                events.forEach(event -> calendar.getComponents().add(event));
-            }
+            // O conteúdo não depende do property: todas as reservas ativas
+            ICalFeed feed = icalFeedCache.get(CALENDAR_FEED_KEY, this::renderCalendar);
+
+            return ICalFeedResponses.feed(feed, acceptEncoding,
+                    "inline; filename=\"elohostel-calendar.ics\"", icalFeedCache.getTtlSeconds());
+
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "❌ Erro ao exportar calendário: " + e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(("Erro ao gerar calendário: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String renderCalendar() {
+        logger.fine("📅 Renderizando calendário de reservas");
+
+        // Buscar TODAS as reservas (não apenas confirmadas)
+        List<Reserve> allReserves = reserveRepository.findAll();
+        
+        // Filtrar reservas que não estão canceladas
+        List<Reserve> activeReserves = allReserves.stream()
+            .filter(reserve -> reserve.getReserveStatus() != ReserveStatus.CANCELLED)
+            .collect(Collectors.toList());
+
+        // Criar calendário
+        net.fortuna.ical4j.model.Calendar calendar = new net.fortuna.ical4j.model.Calendar();
+        calendar.getProperties().add(new ProdId("-//Elohostel Calendar//iCal Export//PT"));
+        calendar.getProperties().add(Version.VERSION_2_0);
+        calendar.getProperties().add(CalScale.GREGORIAN);
+        calendar.getProperties().add(new XProperty("X-WR-CALNAME", "Calendário Elohostel - Reservas"));
+
+        // Adicionar cada reserva como evento
+        for (Reserve reserve : activeReserves) {
+            List<VEvent> events = createEventsFromReserve(reserve);
+            events.forEach(event -> calendar.getComponents().add(event));
+        }
 
-            // Gerar conteúdo iCal
+        // Gerar conteúdo iCal
+        try {
             CalendarOutputter outputter = new CalendarOutputter();
             StringWriter writer = new StringWriter();
             outputter.output(calendar, writer);
             
-            System.out.println("✅ Calendário exportado com " + activeReserves.size() + " reservas ativas");
-
-            return ResponseEntity.ok()
-                    .header("Content-Type", "text/calendar; charset=utf-8")
-                    .header("Content-Disposition", "inline; filename=\"elohostel-calendar.ics\"")
-                    .body(writer.toString());
-
+            logger.fine("✅ Calendário exportado com " + activeReserves.size() + " reservas ativas");
+            return writer.toString();
         } catch (Exception e) {
-            System.err.println("❌ Erro ao exportar calendário: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Erro ao gerar calendário: " + e.getMessage());
+            throw new RuntimeException("Erro ao gerar calendário: " + e.getMessage(), e);
         }
     }
 
@@ -121,7 +142,7 @@ public class CalendarExportController {
                 }
             }
         } catch (Exception e) {
-            System.err.println("Erro ao criar eventos para reserva " + reserve.getId() + ": " + e.getMessage());
+            logger.severe("❌ Erro ao criar eventos para reserva " + reserve.getId() + ": " + e.getMessage());
         }
 
         return events;
@@ -190,12 +211,12 @@ private VEvent createEventForDate(Reserve reserve, LocalDate reservedDate) {
         // ✅ CORREÇÃO: Adicionar DTSTAMP apenas uma vez
         event.getProperties().add(new DtStamp(new DateTime()));
 
-        System.out.println("✅ Evento criado: " + reservedDate + " (" + start + " to " + end + ")");
+        logger.fine("✅ Evento criado: " + reservedDate + " (" + start + " to " + end + ")");
         
         return event;
 
     } catch (Exception e) {
-        System.err.println("❌ Erro ao criar evento para reserva " + reserve.getId() + " na data " + reservedDate + ": " + e.getMessage());
+        logger.severe("❌ Erro ao criar evento para reserva " + reserve.getId() + " na data " + reservedDate + ": " + e.getMessage());
         return null;
     }
 }
@@ -1,12 +1,13 @@
 package com.br.elohostel.controller;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,18 +17,60 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.br.elohostel.model.BackfillCheckpoint;
 import com.br.elohostel.model.FinancialRecord;
-import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.JobRun;
+import com.br.elohostel.model.dtos.PaceRow;
+import com.br.elohostel.model.dtos.PickupTotal;
+import com.br.elohostel.model.dtos.TimeSeries;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+import com.br.elohostel.service.FinancialBackfillService;
+import com.br.elohostel.service.FinancialDashboardService;
 import com.br.elohostel.service.FinancialRecordService;
+import com.br.elohostel.service.FinancialStatsService;
+import com.br.elohostel.service.JobOrchestrator;
+import com.br.elohostel.service.PaceService;
+import com.br.elohostel.service.ReservationArchiveService;
+import com.br.elohostel.service.RevenueCubeService;
+import com.br.elohostel.service.SchedulerLockService;
+import com.br.elohostel.service.TimeSeriesService;
 
 @RestController
 @RequestMapping("/financial")
 public class FinancialRecordController {
 
     private final FinancialRecordService financialRecordService;
-
-    public FinancialRecordController(FinancialRecordService financialRecordService) {
+    private final FinancialBackfillService financialBackfillService;
+    private final FinancialDashboardService financialDashboardService;
+    private final FinancialStatsService financialStatsService;
+    private final RevenueCubeService revenueCubeService;
+    private final TimeSeriesService timeSeriesService;
+    private final PaceService paceService;
+    private final JobOrchestrator jobOrchestrator;
+    private final ReservationArchiveService reservationArchiveService;
+    private final SchedulerLockService schedulerLock;
+
+    public FinancialRecordController(FinancialRecordService financialRecordService,
+                                     FinancialBackfillService financialBackfillService,
+                                     FinancialDashboardService financialDashboardService,
+                                     FinancialStatsService financialStatsService,
+                                     RevenueCubeService revenueCubeService,
+                                     TimeSeriesService timeSeriesService,
+                                     PaceService paceService,
+                                     JobOrchestrator jobOrchestrator,
+                                     ReservationArchiveService reservationArchiveService,
+                                     SchedulerLockService schedulerLock) {
         this.financialRecordService = financialRecordService;
+        this.financialBackfillService = financialBackfillService;
+        this.financialDashboardService = financialDashboardService;
+        this.financialStatsService = financialStatsService;
+        this.revenueCubeService = revenueCubeService;
+        this.timeSeriesService = timeSeriesService;
+        this.paceService = paceService;
+        this.jobOrchestrator = jobOrchestrator;
+        this.reservationArchiveService = reservationArchiveService;
+        this.schedulerLock = schedulerLock;
     }
 
     // ========== PROCESSAMENTO AUTOMÁTICO ==========
@@ -123,8 +166,12 @@ public class FinancialRecordController {
     @PostMapping("/process/all-reservations")
     public ResponseEntity<String> processAllReservations() {
         try {
-            String result = financialRecordService.processAllReservations();
-            return ResponseEntity.ok(result);
+            BackfillCheckpoint checkpoint = financialBackfillService.backfillAllReservations();
+            if (checkpoint == null) {
+                return ResponseEntity.ok("Nenhuma reserva para processar");
+            }
+            return ResponseEntity.ok("Processadas " + checkpoint.getTotalDays() + " datas em " +
+                checkpoint.getTotalChunks() + " blocos");
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body("Erro ao processar todas as reservas: " + e.getMessage());
@@ -136,7 +183,76 @@ public class FinancialRecordController {
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboard() {
         try {
-            return ResponseEntity.ok(financialRecordService.getFinancialDashboard());
+            return ResponseEntity.ok(financialDashboardService.getDashboard());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    @GetMapping("/cube")
+    public ResponseEntity<List<Map<String, Object>>> getRevenueCube(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(defaultValue = "roomType,channel,weekday,month") List<String> groupBy,
+            @RequestParam(required = false) RoomType roomType,
+            @RequestParam(required = false) SalesChannel channel) {
+        Set<String> dimensions = new HashSet<>(groupBy);
+        if (!RevenueCubeService.DIMENSIONS.containsAll(dimensions)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            int cubeYear = year != null ? year : LocalDate.now().getYear();
+            return ResponseEntity.ok(revenueCubeService.query(cubeYear, dimensions, roomType, channel));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Série para gráficos: agrupada na resolução pedida e reduzida a no máximo "points" pontos
+    @GetMapping("/series")
+    public ResponseEntity<TimeSeries> getTimeSeries(
+            @RequestParam TimeSeriesService.Metric metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAY") TimeSeriesService.Resolution resolution,
+            @RequestParam(defaultValue = "500") int points) {
+        if (endDate.isBefore(startDate) || points < 3 || points > 5000) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(timeSeriesService.getSeries(metric, startDate, endDate, resolution, points));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Carteira N dias antes da chegada, comparada com o mesmo dia da semana do ano anterior
+    @GetMapping("/pace")
+    public ResponseEntity<List<PaceRow>> getPace(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int daysBefore) {
+        if (endDate.isBefore(startDate) || daysBefore < 0 || startDate.plusYears(2).isBefore(endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(paceService.getPace(startDate, endDate, daysBefore));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Pickup das datas de estadia com registros feitos entre fromDate e toDate
+    @GetMapping("/pickup")
+    public ResponseEntity<List<PickupTotal>> getPickup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        if (endDate.isBefore(startDate) || toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(paceService.getPickup(startDate, endDate, fromDate, toDate));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
@@ -209,12 +325,12 @@ public class FinancialRecordController {
 
     // ========== MANUTENÇÃO E ADMINISTRAÇÃO ==========
 
-    // ✅ NOVO: Resetar flags de processamento (apenas desenvolvimento)
+    // Volta a marca d'água: o próximo processamento refaz as noites do razão
     @PostMapping("/reset-flags")
-    public ResponseEntity<String> resetAllProcessedFlags() {
+    public ResponseEntity<String> resetProcessingWatermark() {
         try {
-            financialRecordService.resetAllProcessedFlags();
-            return ResponseEntity.ok("Flags de processamento resetadas");
+            financialRecordService.resetProcessingWatermark();
+            return ResponseEntity.ok("Marca d'água de processamento resetada");
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body("Erro ao resetar flags: " + e.getMessage());
@@ -225,8 +341,8 @@ public class FinancialRecordController {
     @PostMapping("/mark-all-processed")
     public ResponseEntity<String> markAllReservationsAsProcessed() {
         try {
-            financialRecordService.markAllReservationsAsProcessed();
-            return ResponseEntity.ok("Todas as reservas confirmadas marcadas como processadas");
+            financialRecordService.markLedgerAsProcessed();
+            return ResponseEntity.ok("Todos os lançamentos do razão marcados como processados");
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body("Erro ao marcar reservas: " + e.getMessage());
@@ -239,7 +355,7 @@ public class FinancialRecordController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            financialRecordService.reprocessReservations(startDate, endDate);
+            financialBackfillService.backfill(FinancialBackfillService.JOB_REPROCESS, startDate, endDate);
             return ResponseEntity.ok("Reprocessamento concluído para o período: " + startDate + " a " + endDate);
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -247,6 +363,54 @@ public class FinancialRecordController {
         }
     }
 
+    @GetMapping("/backfill/status")
+    public ResponseEntity<Map<String, Object>> getBackfillStatus() {
+        return ResponseEntity.ok(financialBackfillService.getProgress());
+    }
+
+    @PostMapping("/backfill/resume")
+    public ResponseEntity<String> resumeBackfill() {
+        try {
+            BackfillCheckpoint checkpoint = financialBackfillService.resume();
+            return ResponseEntity.ok("Reprocessamento retomado e concluído para o período: " +
+                checkpoint.getStartDate() + " a " + checkpoint.getEndDate());
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body("Erro ao retomar reprocessamento: " + e.getMessage());
+        }
+    }
+
+    // Histórico de execuções dos jobs agendados (todos ou de um job)
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobRun>> getJobHistory(@RequestParam(required = false) String name) {
+        return ResponseEntity.ok(jobOrchestrator.getHistory(name));
+    }
+
+    @PostMapping("/jobs/{name}/run")
+    public ResponseEntity<JobRun> runJob(@PathVariable String name,
+                                         @RequestParam(defaultValue = "false") boolean force) {
+        if (!jobOrchestrator.getJobNames().contains(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        // Reprocessamento ou job agendado recalculando registros agora
+        if (schedulerLock.isLocked(FinancialRecordService.RECORDS_LOCK)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(jobOrchestrator.run(name, force));
+    }
+
+    // Move para o arquivo frio as reservas encerradas (noites antes do corte e razão já consolidado)
+    @PostMapping("/archive")
+    public ResponseEntity<String> archiveClosedReservations() {
+        try {
+            int archived = reservationArchiveService.archiveClosedReservations();
+            return ResponseEntity.ok(archived + " reservas arquivadas (corte: " + reservationArchiveService.getCutoff() + ")");
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body("Erro ao arquivar reservas: " + e.getMessage());
+        }
+    }
+
     // ✅ NOVO: Processar mês específico
     @PostMapping("/process/month")
     public ResponseEntity<FinancialRecord> processMonthlyRecord(
@@ -286,25 +450,10 @@ public class FinancialRecordController {
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         try {
-            Map<String, Object> health = new java.util.HashMap<>();
-            health.put("status", "UP");
-            health.put("timestamp", java.time.LocalDateTime.now());
-            health.put("service", "FinancialRecordService");
-            
-            // Estatísticas básicas
-            List<Reserve> allReservations = financialRecordService.getReserveRepository().findAll();
-            List<FinancialRecord> allRecords = financialRecordService.getFinancialRecordRepository().findAll();
-            
-            health.put("totalReservations", allReservations.size());
-            health.put("totalFinancialRecords", allRecords.size());
-            health.put("confirmedReservations", allReservations.stream()
-                .filter(r -> r.getReserveStatus() == com.br.elohostel.model.enums.ReserveStatus.CONFIRMED)
-                .count());
-            
-            return ResponseEntity.ok(health);
+            return ResponseEntity.ok(financialStatsService.getHealth());
         } catch (Exception e) {
-            return ResponseEntity.status(500)
-                .body(Map.of("status", "DOWN", "error", e.getMessage()));
+            return ResponseEntity.status(503)
+                .body(Map.of("status", "DOWN", "error", String.valueOf(e.getMessage())));
         }
     }
 
@@ -312,47 +461,7 @@ public class FinancialRecordController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         try {
-            Map<String, Object> stats = new java.util.HashMap<>();
-            
-            // Reservas
-            List<Reserve> allReservations = financialRecordService.getReserveRepository().findAll();
-            long confirmedReservations = allReservations.stream()
-                .filter(r -> r.getReserveStatus() == com.br.elohostel.model.enums.ReserveStatus.CONFIRMED)
-                .count();
-            long processedReservations = allReservations.stream()
-                .filter(r -> Boolean.TRUE.equals(r.getFinancialProcessed()))
-                .count();
-            
-            stats.put("totalReservations", allReservations.size());
-            stats.put("confirmedReservations", confirmedReservations);
-            stats.put("processedReservations", processedReservations);
-            stats.put("unprocessedReservations", confirmedReservations - processedReservations);
-            
-            // Registros financeiros
-            List<FinancialRecord> allRecords = financialRecordService.getFinancialRecordRepository().findAll();
-            long dailyRecords = allRecords.stream()
-                .filter(r -> r.getPeriodType() == com.br.elohostel.model.enums.PeriodType.DIARIO)
-                .count();
-            long monthlyRecords = allRecords.stream()
-                .filter(r -> r.getPeriodType() == com.br.elohostel.model.enums.PeriodType.MENSAL)
-                .count();
-            long annualRecords = allRecords.stream()
-                .filter(r -> r.getPeriodType() == com.br.elohostel.model.enums.PeriodType.ANUAL)
-                .count();
-            
-            stats.put("totalFinancialRecords", allRecords.size());
-            stats.put("dailyRecords", dailyRecords);
-            stats.put("monthlyRecords", monthlyRecords);
-            stats.put("annualRecords", annualRecords);
-            
-            // Receita total
-            BigDecimal totalRevenue = allRecords.stream()
-                .map(FinancialRecord::getTotalRevenue)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            stats.put("totalRevenue", totalRevenue);
-            
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(financialStatsService.getStats());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
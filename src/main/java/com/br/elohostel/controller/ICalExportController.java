@@ -1,18 +1,22 @@
 package com.br.elohostel.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.br.elohostel.model.AirbnbSync;
 import com.br.elohostel.repository.AirbnbSyncRepository;
 import com.br.elohostel.service.ICalExportService;
+import com.br.elohostel.service.ICalFeedCache;
+import com.br.elohostel.service.ICalFeedCache.ICalFeed;
 
 @RestController
 @RequestMapping("/api/ical")
@@ -20,19 +24,24 @@ public class ICalExportController {
     
     private final ICalExportService icalExportService;
     private final AirbnbSyncRepository airbnbSyncRepository;
+    private final ICalFeedCache icalFeedCache;
     
     public ICalExportController(ICalExportService icalExportService,
-                              AirbnbSyncRepository airbnbSyncRepository) {
+                              AirbnbSyncRepository airbnbSyncRepository,
+                              ICalFeedCache icalFeedCache) {
         this.icalExportService = icalExportService;
         this.airbnbSyncRepository = airbnbSyncRepository;
+        this.icalFeedCache = icalFeedCache;
     }
     
     /**
-     * Endpoint para exportação iCal (usado pelo Airbnb para importar)
+     * Endpoint para exportação iCal (usado pelo Airbnb para importar).
+     * Responde 304 quando o If-None-Match confere com a versão atual do feed.
      */
     @GetMapping("/export/{propertyId}/{token}.ics")
-    public ResponseEntity<String> exportICalendar(@PathVariable String propertyId,
-                                                @PathVariable String token) {
+    public ResponseEntity<byte[]> exportICalendar(@PathVariable String propertyId,
+                                                @PathVariable String token,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             // Validar se a configuração existe
             Optional<AirbnbSync> syncConfig = airbnbSyncRepository.findByPropertyId(propertyId);
@@ -40,17 +49,14 @@ public class ICalExportController {
                 return ResponseEntity.notFound().build();
             }
             
-            // Gerar conteúdo iCal
-            String icalContent = icalExportService.generateICalContent(propertyId);
+            ICalFeed feed = icalExportService.getICalFeed(propertyId);
             
-            return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("text/calendar; charset=utf-8"))
-                .header("Content-Disposition", "inline; filename=calendar_" + propertyId + ".ics")
-                .body(icalContent);
+            return ICalFeedResponses.feed(feed, acceptEncoding,
+                "inline; filename=calendar_" + propertyId + ".ics", icalFeedCache.getTtlSeconds());
                 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("ERROR: " + e.getMessage());
+                .body(("ERROR: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
         }
     }
     
@@ -58,8 +64,9 @@ public class ICalExportController {
      * Endpoint alternativo para o frontend
      */
     @GetMapping("/calendar/export/{propertyId}/{token}.ics")
-    public ResponseEntity<String> exportCalendar(@PathVariable String propertyId,
-                                               @PathVariable String token) {
-        return exportICalendar(propertyId, token);
+    public ResponseEntity<byte[]> exportCalendar(@PathVariable String propertyId,
+                                               @PathVariable String token,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportICalendar(propertyId, token, acceptEncoding);
     }
 }
@@ -0,0 +1,60 @@
+package com.br.elohostel.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.br.elohostel.service.ICalFeedCache.ICalFeed;
+
+/**
+ * Monta as respostas dos endpoints .ics: ETag forte por representação,
+ * gzip quando o cliente aceita e Cache-Control. O Spring responde 304
+ * automaticamente quando o If-None-Match confere com a ETag.
+ */
+final class ICalFeedResponses {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar; charset=utf-8");
+
+    private ICalFeedResponses() {}
+
+    static ResponseEntity<byte[]> feed(ICalFeed feed, String acceptEncoding, String contentDisposition, long maxAgeSeconds) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(TEXT_CALENDAR)
+            .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().mustRevalidate());
+
+        if (gzip) {
+            return builder
+                .eTag(feed.gzipEtag())
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(feed.gzipBody());
+        }
+        return builder.eTag(feed.etag()).body(feed.body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
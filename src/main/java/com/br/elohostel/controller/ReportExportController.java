@@ -0,0 +1,88 @@
+package com.br.elohostel.controller;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.service.ReportExportService;
+import com.br.elohostel.util.report.ReportWriter;
+
+/**
+ * Exportação de relatórios em CSV ou XLSX. A resposta é escrita enquanto as
+ * linhas são lidas do banco (?format=CSV|XLSX, padrão CSV).
+ */
+@RestController
+@RequestMapping("/financial/export")
+public class ReportExportController {
+
+    private final ReportExportService reportExportService;
+
+    public ReportExportController(ReportExportService reportExportService) {
+        this.reportExportService = reportExportService;
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<StreamingResponseBody> exportDaily(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ReportWriter.Format format) {
+        return stream(format, "financeiro-diario_" + startDate + "_" + endDate, "Diário",
+            writer -> reportExportService.exportFinancialRecords(PeriodType.DIARIO, startDate, endDate, writer));
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<StreamingResponseBody> exportMonthly(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ReportWriter.Format format) {
+        return stream(format, "financeiro-mensal_" + startDate + "_" + endDate, "Mensal",
+            writer -> reportExportService.exportFinancialRecords(PeriodType.MENSAL, startDate, endDate, writer));
+    }
+
+    @GetMapping("/room-types")
+    public ResponseEntity<StreamingResponseBody> exportRoomTypes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DIARIO") PeriodType periodType,
+            @RequestParam(defaultValue = "CSV") ReportWriter.Format format) {
+        return stream(format, "receita-por-tipo_" + startDate + "_" + endDate, "Tipos de quarto",
+            writer -> reportExportService.exportRoomTypeRevenues(periodType, startDate, endDate, writer));
+    }
+
+    @GetMapping("/reservations")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ReportWriter.Format format) {
+        return stream(format, "reservas_" + startDate + "_" + endDate, "Reservas",
+            writer -> reportExportService.exportReservationRegister(startDate, endDate, writer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ReportWriter.Format format, String fileName, String sheetName,
+                                                         ReportBody body) {
+        StreamingResponseBody stream = outputStream -> {
+            try (ReportWriter writer = format.open(outputStream, sheetName)) {
+                body.write(writer);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"")
+            .body(stream);
+    }
+
+    @FunctionalInterface
+    private interface ReportBody {
+        void write(ReportWriter writer) throws IOException;
+    }
+}
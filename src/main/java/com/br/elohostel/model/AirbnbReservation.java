@@ -14,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -22,7 +23,8 @@ public class AirbnbReservation implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "airbnb_reservation_seq")
+    @SequenceGenerator(name = "airbnb_reservation_seq", sequenceName = "airbnb_reservation_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "airbnb_reservation_id")
@@ -0,0 +1,153 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.br.elohostel.model.enums.ReserveStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Reserva encerrada movida para o arquivo frio: uma linha só, sem ocupações
+ * nem tabelas de junção, com o que os relatórios leem. O id é o da reserva
+ * original, que o razão de receitas continua referenciando.
+ */
+@Entity
+@Table(name = "TB_RESERVE_ARCHIVE",
+    indexes = @Index(name = "idx_reserve_archive_nights", columnList = "first_night, last_night"))
+public class ArchivedReserve implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "reserve_status")
+    private ReserveStatus reserveStatus;
+
+    @Column(name = "first_night", nullable = false)
+    private LocalDate firstNight;
+
+    @Column(name = "last_night", nullable = false)
+    private LocalDate lastNight;
+
+    @Column(name = "nights", nullable = false)
+    private Integer nights;
+
+    @Column(name = "reserved_days")
+    private List<LocalDate> reservedDays = new ArrayList<>();
+
+    @Column(name = "guests", nullable = false)
+    private Integer guests;
+
+    @Column(name = "guest_ids", length = 1000)
+    private String guestIds;
+
+    @Column(name = "room_numbers")
+    private String roomNumbers;
+
+    @Column(name = "bed_ids")
+    private String bedIds;
+
+    @Column(name = "total_value", precision = 12, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(name = "use_custom_value")
+    private Boolean useCustomValue;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedReserve() {}
+
+    public ArchivedReserve(Reserve reserve) {
+        List<LocalDate> days = reserve.getReservedDays().stream().sorted().toList();
+        this.id = reserve.getId();
+        this.reserveStatus = reserve.getReserveStatus();
+        this.firstNight = days.get(0);
+        this.lastNight = days.get(days.size() - 1);
+        this.nights = days.size();
+        this.reservedDays = new ArrayList<>(days);
+        this.guests = reserve.getGuest().size();
+        this.guestIds = joined(reserve.getGuest().stream().map(Guest::getId).filter(Objects::nonNull).sorted().map(String::valueOf));
+        this.roomNumbers = joined(reserve.getRooms().stream().map(Room::getNumber).filter(Objects::nonNull).sorted().map(String::valueOf));
+        this.bedIds = joined(reserve.getBedOccupation().stream()
+            .map(BedOccupation::getBed).filter(Objects::nonNull).map(Bed::getId).distinct().sorted().map(String::valueOf));
+        this.totalValue = reserve.calculateTotalValue();
+        this.useCustomValue = reserve.getUseCustomValue();
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    private static String joined(Stream<String> values) {
+        return values.collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Alguma noite da reserva cai no intervalo (inclusive)
+     */
+    public boolean hasNightBetween(LocalDate startDate, LocalDate endDate) {
+        return reservedDays.stream().anyMatch(day -> !day.isBefore(startDate) && !day.isAfter(endDate));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ReserveStatus getReserveStatus() {
+        return reserveStatus;
+    }
+
+    public LocalDate getFirstNight() {
+        return firstNight;
+    }
+
+    public LocalDate getLastNight() {
+        return lastNight;
+    }
+
+    public Integer getNights() {
+        return nights;
+    }
+
+    public List<LocalDate> getReservedDays() {
+        return reservedDays;
+    }
+
+    public Integer getGuests() {
+        return guests;
+    }
+
+    public String getGuestIds() {
+        return guestIds;
+    }
+
+    public String getRoomNumbers() {
+        return roomNumbers;
+    }
+
+    public String getBedIds() {
+        return bedIds;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public Boolean getUseCustomValue() {
+        return useCustomValue;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,173 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+
+/**
+ * Ponto de controle de um reprocessamento financeiro em blocos. Guarda quais
+ * blocos já foram concluídos para que um job interrompido possa ser retomado.
+ */
+@Entity
+@Table(name = "TB_BACKFILL_CHECKPOINT")
+public class BackfillCheckpoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", nullable = false)
+    private String jobType;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "chunk_days", nullable = false)
+    private Integer chunkDays;
+
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.RUNNING;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "backfill_completed_chunks", joinColumns = @JoinColumn(name = "checkpoint_id"))
+    @Column(name = "chunk_start")
+    private Set<LocalDate> completedChunks = new HashSet<>();
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+
+    public BackfillCheckpoint() {}
+
+    public BackfillCheckpoint(String jobType, LocalDate startDate, LocalDate endDate, Integer chunkDays) {
+        this.jobType = jobType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.chunkDays = chunkDays;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Integer getChunkDays() {
+        return chunkDays;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Set<LocalDate> getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getTotalDays() {
+        return (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+    }
+
+    public int getTotalChunks() {
+        return (getTotalDays() + chunkDays - 1) / chunkDays;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        BackfillCheckpoint other = (BackfillCheckpoint) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Pickup diário: quanto a carteira (on the books) de uma data de estadia
+ * mudou em um dia de registro. O OTB de uma estadia em qualquer data é a soma
+ * dos pickups registrados até aquela data, então a tabela só cresce com os
+ * dias em que houve mudança.
+ */
+@Entity
+@Table(name = "TB_BOOKING_PICKUP",
+    uniqueConstraints = @UniqueConstraint(name = "uk_booking_pickup_stay_snapshot", columnNames = {"stay_date", "snapshot_date"}),
+    indexes = @Index(name = "idx_booking_pickup_snapshot", columnList = "snapshot_date"))
+public class BookingPickup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_pickup_seq")
+    @SequenceGenerator(name = "booking_pickup_seq", sequenceName = "booking_pickup_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    @Column(name = "room_nights", nullable = false)
+    private Integer roomNights = 0;
+
+    @Column(name = "revenue", precision = 12, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "reservations", nullable = false)
+    private Integer reservations = 0;
+
+    public BookingPickup() {}
+
+    public BookingPickup(LocalDate snapshotDate, LocalDate stayDate) {
+        this.snapshotDate = snapshotDate;
+        this.stayDate = stayDate;
+    }
+
+    public void add(int roomNights, BigDecimal revenue, int reservations) {
+        this.roomNights += roomNights;
+        this.revenue = this.revenue.add(revenue);
+        this.reservations += reservations;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public LocalDate getStayDate() {
+        return stayDate;
+    }
+
+    public Integer getRoomNights() {
+        return roomNights;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public Integer getReservations() {
+        return reservations;
+    }
+}
@@ -17,6 +17,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -25,7 +26,8 @@ public class FinancialRecord implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "financial_record_seq")
+    @SequenceGenerator(name = "financial_record_seq", sequenceName = "financial_record_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "record_date", nullable = false)
@@ -52,6 +54,10 @@ public class FinancialRecord implements Serializable {
     @Column(name = "total_nights")
     private Integer totalNights = 0;
 
+    // Soma das reservas de cada noite; no registro diário é igual a totalReservations
+    @Column(name = "reservation_nights")
+    private Integer reservationNights = 0;
+
     @Column(name = "revenue_per_available_room", precision = 10, scale = 2)
     private BigDecimal revPAR = BigDecimal.ZERO;
 
@@ -152,6 +158,14 @@ public class FinancialRecord implements Serializable {
         this.totalNights = totalNights;
     }
 
+    public Integer getReservationNights() {
+        return reservationNights;
+    }
+
+    public void setReservationNights(Integer reservationNights) {
+        this.reservationNights = reservationNights;
+    }
+
     public BigDecimal getRevPAR() {
         return revPAR;
     }
@@ -0,0 +1,118 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Histórico do inventário vendável: cada mudança de quartos ou camas grava a
+ * variação de quartos, camas e unidades vendáveis a partir da data efetiva.
+ * Como os registros nunca são alterados, a capacidade de qualquer dia passado
+ * é a capacidade atual menos as variações efetivadas depois dele.
+ */
+@Entity
+@Table(name = "TB_INVENTORY_CHANGE", indexes = {
+    @Index(name = "idx_inventory_change_date", columnList = "effective_date")
+})
+public class InventoryChange implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+        ROOM_ADDED,
+        ROOM_REMOVED,
+        ROOM_TYPE_CHANGED,
+        BED_ADDED,
+        BED_REMOVED,
+        BED_MAINTENANCE_STARTED,
+        BED_MAINTENANCE_ENDED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "effective_date", nullable = false)
+    private LocalDate effectiveDate;
+
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Column(name = "bed_id")
+    private Long bedId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false, length = 32)
+    private Reason reason;
+
+    @Column(name = "rooms_delta", nullable = false)
+    private Integer roomsDelta = 0;
+
+    @Column(name = "beds_delta", nullable = false)
+    private Integer bedsDelta = 0;
+
+    @Column(name = "units_delta", nullable = false)
+    private Integer unitsDelta = 0;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public InventoryChange() {}
+
+    public InventoryChange(LocalDate effectiveDate, Long roomId, Long bedId, Reason reason,
+                           Integer roomsDelta, Integer bedsDelta, Integer unitsDelta) {
+        this.effectiveDate = effectiveDate;
+        this.roomId = roomId;
+        this.bedId = bedId;
+        this.reason = reason;
+        this.roomsDelta = roomsDelta;
+        this.bedsDelta = bedsDelta;
+        this.unitsDelta = unitsDelta;
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public Long getBedId() {
+        return bedId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Integer getRoomsDelta() {
+        return roomsDelta;
+    }
+
+    public Integer getBedsDelta() {
+        return bedsDelta;
+    }
+
+    public Integer getUnitsDelta() {
+        return unitsDelta;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
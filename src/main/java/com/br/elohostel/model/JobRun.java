@@ -0,0 +1,111 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Histórico de execução dos jobs agendados. O ledgerMark é o último lançamento
+ * do razão que existia quando a execução começou e o inventoryMark a última
+ * mudança de inventário: a próxima execução só é necessária se algum
+ * lançamento ou mudança de capacidade acima deles afetar a janela do job.
+ */
+@Entity
+@Table(name = "TB_JOB_RUN", indexes = @Index(name = "idx_job_run_name", columnList = "job_name, id"))
+public class JobRun implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", length = 64, nullable = false)
+    private String jobName;
+
+    @Column(name = "status", length = 16, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.RUNNING;
+
+    @Column(name = "ledger_mark", nullable = false)
+    private Long ledgerMark = 0L;
+
+    @Column(name = "inventory_mark", nullable = false)
+    private Long inventoryMark = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_millis")
+    private Long durationMillis;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    public enum Status {
+        RUNNING, SUCCEEDED, SKIPPED, FAILED
+    }
+
+    public JobRun() {}
+
+    public JobRun(String jobName, Long ledgerMark, Long inventoryMark) {
+        this.jobName = jobName;
+        this.ledgerMark = ledgerMark != null ? ledgerMark : 0L;
+        this.inventoryMark = inventoryMark != null ? inventoryMark : 0L;
+    }
+
+    public void finish(Status status, String message) {
+        this.status = status;
+        this.message = message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+        this.finishedAt = LocalDateTime.now();
+        this.durationMillis = Duration.between(startedAt, finishedAt).toMillis();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getLedgerMark() {
+        return ledgerMark;
+    }
+
+    public Long getInventoryMark() {
+        return inventoryMark;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,57 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Marca d'água de um consumidor do razão de receitas: o maior id de lançamento
+ * já refletido nos registros. As noites com lançamentos acima dela são as que
+ * ainda precisam ser processadas.
+ * A linha "revenue-ledger" é a cabeça do razão: o último lançamento
+ * confirmado, avançada na mesma transação que grava os lançamentos. A linha
+ * "inventory-changes" faz o mesmo para TB_INVENTORY_CHANGE. As linhas de
+ * CacheVersionService guardam a versão dos caches em memória.
+ */
+@Entity
+@Table(name = "TB_PROCESSING_WATERMARK")
+public class ProcessingWatermark implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "last_ledger_id", nullable = false)
+    private Long lastLedgerId = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ProcessingWatermark() {}
+
+    public ProcessingWatermark(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getLastLedgerId() {
+        return lastLedgerId;
+    }
+
+    public void setLastLedgerId(Long lastLedgerId) {
+        this.lastLedgerId = lastLedgerId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
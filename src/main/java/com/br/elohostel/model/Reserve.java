@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Set;
 
 import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.util.MoneyCents;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
@@ -26,6 +27,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -34,7 +36,8 @@ public class Reserve implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserve_seq")
+    @SequenceGenerator(name = "reserve_seq", sequenceName = "reserve_seq", allocationSize = 50)
     private Long id;
     @ElementCollection
     @CollectionTable(name = "reserve_days", joinColumns = @JoinColumn(name = "reserve_id"))
@@ -54,9 +57,6 @@ public class Reserve implements Serializable {
     @Column(name = "use_custom_value")
     private Boolean useCustomValue = false;
 
-    @Column(name = "financial_processed")
-    private Boolean financialProcessed = false;
-    
     @Column(name = "extra_guest_fee")
     private BigDecimal extraGuestFee = new BigDecimal("20.00");
 
@@ -159,14 +159,6 @@ public class Reserve implements Serializable {
         return customValue;
     }
 
-    public Boolean getFinancialProcessed() {
-        return financialProcessed;
-    }
-
-    public void setFinancialProcessed(Boolean financialProcessed) {
-        this.financialProcessed = financialProcessed;
-    }
-
     public void setCustomValue(BigDecimal customValue) {
         this.customValue = customValue;
     }
@@ -221,16 +213,18 @@ public class Reserve implements Serializable {
         if (Boolean.TRUE.equals(useCustomValue) && customValue != null) {
             return customValue;
         }
-        
-        BigDecimal baseValue = this.initialValue != null ? this.initialValue : BigDecimal.ZERO;
-        int numberOfDays = this.reservedDays != null ? this.reservedDays.size() : 0;
-        int extraGuests = Math.max(0, (this.guest != null ? this.guest.size() : 0) - 1);
-        
-        // ✅ CORREÇÃO: Multiplicar a taxa de hóspedes extras pelo número de dias
-        BigDecimal dailyTotal = baseValue.multiply(BigDecimal.valueOf(numberOfDays));
-        BigDecimal extraFees = this.extraGuestFee.multiply(BigDecimal.valueOf(extraGuests * numberOfDays)); // Multiplica pelos dias
-        
-        return dailyTotal.add(extraFees);
+        return MoneyCents.toBigDecimal(calculateTotalCents());
+    }
+
+    // Total em centavos: (diária + taxa de hóspede extra × extras) × dias
+    public long calculateTotalCents() {
+        if (Boolean.TRUE.equals(useCustomValue) && customValue != null) {
+            return MoneyCents.of(customValue);
+        }
+        long dailyRate = MoneyCents.of(this.initialValue);
+        long extraGuestRate = MoneyCents.of(this.extraGuestFee);
+        long dailyTotal = dailyRate + MoneyCents.times(extraGuestRate, getNumberOfExtraGuests());
+        return MoneyCents.times(dailyTotal, getNumberOfDays());
     }
 
     public int getNumberOfDays() {
@@ -0,0 +1,143 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Lançamento do razão de receitas: a variação de receita, quartos-noite,
+ * hóspedes e reservas de uma reserva em uma noite e tipo de quarto.
+ * Os lançamentos nunca são alterados; mudanças na reserva geram novos
+ * lançamentos com a diferença (inclusive estornos negativos).
+ */
+@Entity
+@Table(name = "TB_REVENUE_LEDGER", indexes = {
+    @Index(name = "idx_revenue_ledger_night", columnList = "night_date"),
+    @Index(name = "idx_revenue_ledger_reserve_night", columnList = "reserve_id, night_date")
+})
+public class RevenueLedgerEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reserve_id", nullable = false)
+    private Long reserveId;
+
+    @Column(name = "night_date", nullable = false)
+    private LocalDate nightDate;
+
+    @Column(name = "room_type")
+    private RoomType roomType;
+
+    @Column(name = "channel")
+    private SalesChannel channel;
+
+    @Column(name = "revenue", precision = 12, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "room_nights", nullable = false)
+    private Integer roomNights = 0;
+
+    @Column(name = "guests", nullable = false)
+    private Integer guests = 0;
+
+    @Column(name = "reservations", nullable = false)
+    private Integer reservations = 0;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public RevenueLedgerEntry() {}
+
+    public RevenueLedgerEntry(Long reserveId, LocalDate nightDate, RoomType roomType, SalesChannel channel,
+                              BigDecimal revenue, Integer roomNights, Integer guests, Integer reservations) {
+        this.reserveId = reserveId;
+        this.nightDate = nightDate;
+        this.roomType = roomType;
+        this.channel = channel;
+        this.revenue = revenue;
+        this.roomNights = roomNights;
+        this.guests = guests;
+        this.reservations = reservations;
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getReserveId() {
+        return reserveId;
+    }
+
+    public LocalDate getNightDate() {
+        return nightDate;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public SalesChannel getChannel() {
+        return channel;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public Integer getRoomNights() {
+        return roomNights;
+    }
+
+    public Integer getGuests() {
+        return guests;
+    }
+
+    public Integer getReservations() {
+        return reservations;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        RevenueLedgerEntry other = (RevenueLedgerEntry) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+}
@@ -7,6 +7,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.NaturalId;
+
 import com.br.elohostel.model.enums.RoomStatus;
 import com.br.elohostel.model.enums.RoomType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -28,6 +30,7 @@ public class Room implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @NaturalId(mutable = true)
     private Integer number;
     private RoomStatus roomStatus;
     private RoomType roomType;
@@ -0,0 +1,51 @@
+package com.br.elohostel.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Concessão (lease) de um job agendado entre instâncias. Quem conseguir mover
+ * lockedUntil para o futuro executa o job; se a instância cair, a concessão
+ * expira sozinha e outra assume na próxima disparada.
+ */
+@Entity
+@Table(name = "TB_SCHEDULER_LEASE")
+public class SchedulerLease implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", length = 128, nullable = false)
+    private String lockedBy;
+
+    public SchedulerLease() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
@@ -0,0 +1,5 @@
+package com.br.elohostel.model.dtos;
+
+public record BedInventoryRow(Long roomId, Long bedId) {
+
+}
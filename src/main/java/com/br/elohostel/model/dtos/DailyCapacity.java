@@ -0,0 +1,11 @@
+package com.br.elohostel.model.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Capacidade vendável de um dia. Quartos privativos contam como uma unidade;
+ * quartos compartilhados contam uma unidade por cama fora de manutenção.
+ */
+public record DailyCapacity(LocalDate date, int rooms, int beds, int sellableUnits) {
+
+}
@@ -0,0 +1,7 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+
+public record FinancialPeriodTotal(BigDecimal revenue, Long reservationNights, Long nights, Long records) {
+
+}
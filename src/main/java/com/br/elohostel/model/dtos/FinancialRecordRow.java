@@ -0,0 +1,10 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record FinancialRecordRow(LocalDate recordDate, BigDecimal totalRevenue, Integer totalReservations,
+                                 Integer totalGuests, Integer totalNights, BigDecimal averageDailyRate,
+                                 BigDecimal occupancyRate, BigDecimal revPAR) {
+
+}
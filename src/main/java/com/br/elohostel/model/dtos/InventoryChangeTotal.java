@@ -0,0 +1,7 @@
+package com.br.elohostel.model.dtos;
+
+import java.time.LocalDate;
+
+public record InventoryChangeTotal(LocalDate effectiveDate, Long rooms, Long beds, Long units) {
+
+}
@@ -0,0 +1,12 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+
+public record LedgerCubeCell(LocalDate nightDate, RoomType roomType, SalesChannel channel,
+                             BigDecimal revenue, Long roomNights, Long reservations) {
+
+}
@@ -0,0 +1,8 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LedgerNightTotal(LocalDate nightDate, BigDecimal revenue, Long roomNights, Long guests, Long reservations) {
+
+}
@@ -0,0 +1,5 @@
+package com.br.elohostel.model.dtos;
+
+public record LedgerPeriodCount(Long reservations, Long guests) {
+
+}
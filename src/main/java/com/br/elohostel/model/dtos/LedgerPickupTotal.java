@@ -0,0 +1,8 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LedgerPickupTotal(LocalDate recordedDate, LocalDate nightDate, BigDecimal revenue, Long roomNights, Long reservations) {
+
+}
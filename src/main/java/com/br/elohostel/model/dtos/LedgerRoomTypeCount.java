@@ -0,0 +1,7 @@
+package com.br.elohostel.model.dtos;
+
+import com.br.elohostel.model.enums.RoomType;
+
+public record LedgerRoomTypeCount(RoomType roomType, Long reservations) {
+
+}
@@ -0,0 +1,10 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.br.elohostel.model.enums.RoomType;
+
+public record LedgerRoomTypeTotal(LocalDate nightDate, RoomType roomType, BigDecimal revenue, Long roomNights, Long reservations) {
+
+}
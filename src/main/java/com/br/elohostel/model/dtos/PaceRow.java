@@ -0,0 +1,14 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Carteira de uma data de estadia N dias antes da chegada, e a mesma medida
+ * para a data equivalente do ano anterior (mesmo dia da semana, 364 dias antes).
+ */
+public record PaceRow(LocalDate stayDate, long roomNights, BigDecimal revenue, long reservations,
+                      LocalDate lastYearStayDate, long lastYearRoomNights, BigDecimal lastYearRevenue,
+                      long lastYearReservations) {
+
+}
@@ -0,0 +1,9 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+
+import com.br.elohostel.model.enums.PeriodType;
+
+public record PeriodTypeCount(PeriodType periodType, Long records, BigDecimal revenue) {
+
+}
@@ -0,0 +1,8 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PickupTotal(LocalDate stayDate, Long roomNights, BigDecimal revenue, Long reservations) {
+
+}
@@ -0,0 +1,7 @@
+package com.br.elohostel.model.dtos;
+
+import com.br.elohostel.model.enums.ReserveStatus;
+
+public record ReserveStatusCount(ReserveStatus reserveStatus, Long reservations) {
+
+}
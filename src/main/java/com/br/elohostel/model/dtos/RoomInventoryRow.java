@@ -0,0 +1,9 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+
+import com.br.elohostel.model.enums.RoomType;
+
+public record RoomInventoryRow(Long id, Integer number, RoomType roomType, BigDecimal price) {
+
+}
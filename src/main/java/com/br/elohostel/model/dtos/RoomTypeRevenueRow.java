@@ -0,0 +1,11 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.br.elohostel.model.enums.RoomType;
+
+public record RoomTypeRevenueRow(LocalDate recordDate, RoomType roomType, BigDecimal revenue,
+                                 Integer nights, Integer reservations) {
+
+}
@@ -0,0 +1,9 @@
+package com.br.elohostel.model.dtos;
+
+import java.math.BigDecimal;
+
+import com.br.elohostel.model.enums.RoomType;
+
+public record RoomTypeRevenueTotal(RoomType roomType, BigDecimal revenue, Long nights) {
+
+}
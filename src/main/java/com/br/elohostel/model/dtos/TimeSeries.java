@@ -0,0 +1,13 @@
+package com.br.elohostel.model.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Série pronta para gráfico. {@code buckets} é o número de pontos antes da
+ * redução; {@code points} tem no máximo o alvo pedido.
+ */
+public record TimeSeries(String metric, String resolution, LocalDate startDate, LocalDate endDate,
+                         int buckets, List<SeriesPoint> points) {
+
+}
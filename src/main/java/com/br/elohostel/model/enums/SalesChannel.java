@@ -0,0 +1,28 @@
+package com.br.elohostel.model.enums;
+
+public enum SalesChannel {
+
+    DIRECT(1),
+    AIRBNB(2),
+    BOOKING(3);
+
+    private final int code;
+
+    private SalesChannel(int code) {
+        this.code = code;
+    }
+
+    public int getCode(){
+        return code;
+    }
+
+    public static SalesChannel valueOf(int code){
+        for (SalesChannel value : SalesChannel.values()){
+            if(value.getCode() == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Sales Channel Code");
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.br.elohostel.model.enums;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class SalesChannelConverter implements AttributeConverter<SalesChannel, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(SalesChannel attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        return attribute.getCode();
+    }
+
+    @Override
+    public SalesChannel convertToEntityAttribute(Integer dbData) {
+        if(dbData == null){
+            return null;
+        }
+        return SalesChannel.valueOf(dbData);
+    }
+}
@@ -0,0 +1,83 @@
+package com.br.elohostel.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.ArchivedReserve;
+import com.br.elohostel.model.dtos.ReserveStatusCount;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface ArchivedReserveRepository extends JpaRepository<ArchivedReserve, Long> {
+
+    /**
+     * Reservas arquivadas cuja estadia cruza o intervalo, lidas por cursor
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedReserve a WHERE a.firstNight <= :endDate AND a.lastNight >= :startDate ORDER BY a.id")
+    Stream<ArchivedReserve> streamByNightsOverlapping(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.ReserveStatusCount(a.reserveStatus, COUNT(a)) " +
+           "FROM ArchivedReserve a GROUP BY a.reserveStatus")
+    List<ReserveStatusCount> countByReserveStatusGrouped();
+
+    // Remoção das reservas já copiadas para o arquivo, filhas antes das mães, sem carregar entidades
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM room_occupied_days WHERE room_occupation_id IN " +
+                   "(SELECT id FROM TB_ROOM_OCCUPATION WHERE reserve_id IN :ids)", nativeQuery = true)
+    int purgeRoomOccupiedDays(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM TB_ROOM_OCCUPATION WHERE reserve_id IN :ids", nativeQuery = true)
+    int purgeRoomOccupations(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM bed_occupied_days WHERE bed_occupation_id IN " +
+                   "(SELECT id FROM TB_BED_OCCUPATION WHERE reserve_id IN :ids)", nativeQuery = true)
+    int purgeBedOccupiedDays(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM TB_BED_OCCUPATION WHERE reserve_id IN :ids", nativeQuery = true)
+    int purgeBedOccupations(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM TB_RESERVATIONS_ROOMS WHERE reserve_id IN :ids", nativeQuery = true)
+    int purgeReserveRooms(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM TB_GUEST_RESERVE WHERE reserve_id IN :ids", nativeQuery = true)
+    int purgeGuestLinks(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM reserve_days WHERE reserve_id IN :ids", nativeQuery = true)
+    int purgeReserveDays(@Param("ids") List<Long> ids);
+
+    // As reservas dos canais ficam (o id externo evita reimportar); só perdem o vínculo
+    @Modifying
+    @Query(value = "UPDATE TB_AIRBNB_RESERVATION SET reserve_id = NULL WHERE reserve_id IN :ids", nativeQuery = true)
+    int detachAirbnbReservations(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE TB_BOOKING_RESERVATION SET reserve_id = NULL WHERE reserve_id IN :ids", nativeQuery = true)
+    int detachBookingReservations(@Param("ids") List<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM TB_RESERVE WHERE id IN :ids", nativeQuery = true)
+    int purgeReserves(@Param("ids") List<Long> ids);
+}
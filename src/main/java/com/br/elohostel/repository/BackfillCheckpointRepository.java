@@ -0,0 +1,20 @@
+package com.br.elohostel.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.BackfillCheckpoint;
+
+@Repository
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, Long> {
+
+    Optional<BackfillCheckpoint> findFirstByOrderByStartedAtDesc();
+
+    Optional<BackfillCheckpoint> findFirstByStatusInOrderByStartedAtDesc(Collection<BackfillCheckpoint.Status> statuses);
+
+    List<BackfillCheckpoint> findByStatus(BackfillCheckpoint.Status status);
+}
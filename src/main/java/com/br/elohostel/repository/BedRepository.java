@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import com.br.elohostel.model.Bed;
 import com.br.elohostel.model.Room;
+import com.br.elohostel.model.dtos.BedInventoryRow;
 import com.br.elohostel.model.enums.BedStatus;
 
 @Repository
@@ -112,4 +113,22 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
            ")")
     boolean isBedAvailable(@Param("bedId") Long bedId, 
                          @Param("dates") Set<LocalDate> dates);
-}
\ No newline at end of file
+
+    /**
+     * Camas que podem ser vendidas (fora de manutenção)
+     */
+    @Query("SELECT COUNT(b) FROM Bed b WHERE b.bedStatus IS NULL " +
+           "OR b.bedStatus <> com.br.elohostel.model.enums.BedStatus.MAINTENANCE")
+    long countSellableBeds();
+
+    /**
+     * Camas fora de manutenção em quartos compartilhados, vendidas uma a uma
+     */
+    @Query("SELECT COUNT(b) FROM Bed b WHERE b.room.roomType = com.br.elohostel.model.enums.RoomType.SHARED " +
+           "AND (b.bedStatus IS NULL OR b.bedStatus <> com.br.elohostel.model.enums.BedStatus.MAINTENANCE)")
+    long countSellableBedsInSharedRooms();
+
+    @Query("SELECT new com.br.elohostel.model.dtos.BedInventoryRow(b.room.id, b.id) FROM Bed b " +
+           "WHERE b.room IS NOT NULL ORDER BY b.room.id, b.id")
+    List<BedInventoryRow> findInventoryRows();
+}
@@ -0,0 +1,33 @@
+package com.br.elohostel.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.BookingPickup;
+import com.br.elohostel.model.dtos.PickupTotal;
+
+@Repository
+public interface BookingPickupRepository extends JpaRepository<BookingPickup, Long> {
+
+    List<BookingPickup> findBySnapshotDateInAndStayDateBetween(Collection<LocalDate> snapshotDates,
+                                                               LocalDate startDate, LocalDate endDate);
+
+    List<BookingPickup> findByStayDateBetweenAndSnapshotDateLessThanEqual(LocalDate startDate, LocalDate endDate,
+                                                                          LocalDate snapshotDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.PickupTotal(p.stayDate, SUM(p.roomNights), SUM(p.revenue), " +
+           "SUM(p.reservations)) FROM BookingPickup p " +
+           "WHERE p.stayDate BETWEEN :startDate AND :endDate AND p.snapshotDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY p.stayDate ORDER BY p.stayDate")
+    List<PickupTotal> sumPickupByStayDate(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate);
+}
@@ -1,11 +1,19 @@
 package com.br.elohostel.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.br.elohostel.model.BookingReservation;
 
 public interface BookingReservationRepository extends JpaRepository<BookingReservation, Long> {
     Optional<BookingReservation> findByBookingReservationId(String bookingReservationId);
+
+    boolean existsByReserveId(Long reserveId);
+
+    @Query("SELECT b.reserve.id FROM BookingReservation b WHERE b.reserve.id IN :reserveIds")
+    List<Long> findReserveIdsIn(@Param("reserveIds") List<Long> reserveIds);
 }
@@ -2,15 +2,26 @@ package com.br.elohostel.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.br.elohostel.model.FinancialRecord;
+import com.br.elohostel.model.dtos.FinancialPeriodTotal;
+import com.br.elohostel.model.dtos.FinancialRecordRow;
+import com.br.elohostel.model.dtos.PeriodTypeCount;
+import com.br.elohostel.model.dtos.RoomTypeRevenueRow;
+import com.br.elohostel.model.dtos.RoomTypeRevenueTotal;
 import com.br.elohostel.model.enums.PeriodType;
 
 @Repository
@@ -22,21 +33,87 @@ public interface FinancialRecordRepository extends JpaRepository<FinancialRecord
         PeriodType periodType, LocalDate startDate, LocalDate endDate);
     
     List<FinancialRecord> findByPeriodTypeOrderByRecordDateDesc(PeriodType periodType);
+
+    Optional<FinancialRecord> findFirstByPeriodTypeOrderByRecordDateDesc(PeriodType periodType);
     
-    @Query("SELECT fr FROM FinancialRecord fr WHERE fr.periodType = :periodType AND YEAR(fr.recordDate) = :year ORDER BY fr.recordDate")
-    List<FinancialRecord> findByPeriodTypeAndYear(
-        @Param("periodType") PeriodType periodType, 
-        @Param("year") int year);
-    
-    @Query("SELECT fr FROM FinancialRecord fr WHERE fr.periodType = :periodType AND YEAR(fr.recordDate) = :year AND MONTH(fr.recordDate) = :month")
-    List<FinancialRecord> findByPeriodTypeAndYearAndMonth(
-        @Param("periodType") PeriodType periodType, 
-        @Param("year") int year, 
-        @Param("month") int month);
+    List<FinancialRecord> findByPeriodTypeAndRecordDateBetweenOrderByRecordDate(
+        PeriodType periodType, LocalDate startDate, LocalDate endDate);
+
+    // Intervalo de datas em vez de YEAR()/MONTH(): usa o índice (period_type, record_date)
+    default List<FinancialRecord> findByPeriodTypeAndYear(PeriodType periodType, int year) {
+        return findByPeriodTypeAndRecordDateBetweenOrderByRecordDate(
+            periodType, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    default List<FinancialRecord> findByPeriodTypeAndYearAndMonth(PeriodType periodType, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findByPeriodTypeAndRecordDateBetween(periodType, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
     
     @Query("SELECT COALESCE(SUM(fr.totalRevenue), 0) FROM FinancialRecord fr WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate")
     BigDecimal sumTotalRevenueByPeriodTypeAndDateRange(
         @Param("periodType") PeriodType periodType,
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.br.elohostel.model.dtos.FinancialPeriodTotal(SUM(fr.totalRevenue), SUM(fr.reservationNights), " +
+           "SUM(fr.totalNights), COUNT(fr)) " +
+           "FROM FinancialRecord fr WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate")
+    FinancialPeriodTotal sumTotalsByPeriodTypeAndDateRange(
+        @Param("periodType") PeriodType periodType,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.RoomTypeRevenueTotal(rtr.roomType, SUM(rtr.revenue), " +
+           "SUM(rtr.nightsCount)) " +
+           "FROM FinancialRecord fr JOIN fr.roomTypeRevenues rtr " +
+           "WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY rtr.roomType")
+    List<RoomTypeRevenueTotal> sumRoomTypeRevenuesByPeriodTypeAndDateRange(
+        @Param("periodType") PeriodType periodType,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.PeriodTypeCount(fr.periodType, COUNT(fr), SUM(fr.totalRevenue)) " +
+           "FROM FinancialRecord fr GROUP BY fr.periodType")
+    List<PeriodTypeCount> countByPeriodTypeGrouped();
+
+    @Query("SELECT new com.br.elohostel.model.dtos.FinancialRecordRow(fr.recordDate, fr.totalRevenue, " +
+           "fr.totalReservations, fr.totalGuests, fr.totalNights, fr.averageDailyRate, fr.occupancyRate, fr.revPAR) " +
+           "FROM FinancialRecord fr WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY fr.recordDate")
+    List<FinancialRecordRow> findRowsByPeriodTypeAndDateRange(
+        @Param("periodType") PeriodType periodType,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Linhas para exportação, lidas por cursor (precisa de transação aberta)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.br.elohostel.model.dtos.FinancialRecordRow(fr.recordDate, fr.totalRevenue, " +
+           "fr.totalReservations, fr.totalGuests, fr.totalNights, fr.averageDailyRate, fr.occupancyRate, fr.revPAR) " +
+           "FROM FinancialRecord fr WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY fr.recordDate")
+    Stream<FinancialRecordRow> streamRowsByPeriodTypeAndDateRange(
+        @Param("periodType") PeriodType periodType,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.br.elohostel.model.dtos.RoomTypeRevenueRow(fr.recordDate, rtr.roomType, rtr.revenue, " +
+           "rtr.nightsCount, rtr.reservationsCount) " +
+           "FROM FinancialRecord fr JOIN fr.roomTypeRevenues rtr " +
+           "WHERE fr.periodType = :periodType AND fr.recordDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY fr.recordDate, rtr.roomType")
+    Stream<RoomTypeRevenueRow> streamRoomTypeRowsByPeriodTypeAndDateRange(
+        @Param("periodType") PeriodType periodType,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,22 @@
+package com.br.elohostel.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.br.elohostel.model.InventoryChange;
+import com.br.elohostel.model.dtos.InventoryChangeTotal;
+
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long> {
+
+    @Query("SELECT new com.br.elohostel.model.dtos.InventoryChangeTotal(c.effectiveDate, " +
+           "SUM(c.roomsDelta), SUM(c.bedsDelta), SUM(c.unitsDelta)) " +
+           "FROM InventoryChange c GROUP BY c.effectiveDate ORDER BY c.effectiveDate")
+    List<InventoryChangeTotal> sumByEffectiveDate();
+
+    boolean existsByIdGreaterThan(Long id);
+
+    boolean existsByIdGreaterThanAndEffectiveDateLessThanEqual(Long id, LocalDate effectiveDate);
+}
@@ -0,0 +1,19 @@
+package com.br.elohostel.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.JobRun;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    Optional<JobRun> findFirstByJobNameAndStatusOrderByIdDesc(String jobName, JobRun.Status status);
+
+    List<JobRun> findTop20ByJobNameOrderByIdDesc(String jobName);
+
+    List<JobRun> findTop50ByOrderByIdDesc();
+}
@@ -0,0 +1,27 @@
+package com.br.elohostel.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.ProcessingWatermark;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ProcessingWatermarkRepository extends JpaRepository<ProcessingWatermark, String> {
+
+    /**
+     * Lê a marca travando a linha (SELECT ... FOR UPDATE) até o fim da transação
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ProcessingWatermark w WHERE w.name = :name")
+    Optional<ProcessingWatermark> findForUpdate(@Param("name") String name);
+
+    @Query(value = "SELECT NEXT VALUE FOR SEQ_CACHE_VERSION", nativeQuery = true)
+    Long nextCacheVersion();
+}
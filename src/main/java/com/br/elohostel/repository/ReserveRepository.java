@@ -2,55 +2,48 @@ package com.br.elohostel.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.dtos.ReserveStatusCount;
 import com.br.elohostel.model.enums.ReserveStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface ReserveRepository extends JpaRepository<Reserve, Long> {
 
     List<Reserve> findByReserveStatus(ReserveStatus reserveStatus);
 
-    @Query("SELECT r FROM Reserve r WHERE r.reserveStatus = :reserveStatus AND " +
-           "EXISTS (SELECT 1 FROM r.reservedDays rd WHERE rd BETWEEN :startDate AND :endDate)")
-    List<Reserve> findByReserveStatusAndReservedDaysBetween(
-        @Param("reserveStatus") ReserveStatus reserveStatus,
-        @Param("startDate") LocalDate startDate,
-        @Param("endDate") LocalDate endDate
-    );
+    /**
+     * Paginação por chave (id) sem consulta de contagem, para processamentos em lote.
+     * As reservas da página ficam travadas (SELECT ... FOR UPDATE) até o fim da transação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Reserve> findByIdGreaterThan(Long id, Pageable pageable);
 
     @Query("SELECT r FROM Reserve r WHERE r.reserveStatus = :reserveStatus AND " +
-           "r.financialProcessed = :processed AND " +
            "EXISTS (SELECT 1 FROM r.reservedDays rd WHERE rd BETWEEN :startDate AND :endDate)")
-    List<Reserve> findByReserveStatusAndProcessedAndDateRange(
+    List<Reserve> findByReserveStatusAndReservedDaysBetween(
         @Param("reserveStatus") ReserveStatus reserveStatus,
-        @Param("processed") Boolean processed,
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
 
-    @Modifying
-    @Query("UPDATE Reserve r SET r.financialProcessed = true WHERE r.reserveStatus = com.br.elohostel.model.enums.ReserveStatus.CONFIRMED AND r.financialProcessed IS NULL")
-    int markAllConfirmedAsProcessed();
-
-    @Modifying
-    @Query("UPDATE Reserve r SET r.financialProcessed = true WHERE r.reserveStatus = :reserveStatus AND r.financialProcessed IS NULL")
-    int markAllByReserveStatusAsProcessed(@Param("reserveStatus") ReserveStatus reserveStatus);
-
     @Query("SELECT r FROM Reserve r WHERE r.reserveStatus = :reserveStatus AND :date MEMBER OF r.reservedDays")
     List<Reserve> findByReserveStatusAndReservedDate(
         @Param("reserveStatus") ReserveStatus reserveStatus,
         @Param("date") LocalDate date
     );
 
-    @Modifying
-    @Query("UPDATE Reserve r SET r.financialProcessed = true WHERE r.reserveStatus = :reserveStatus AND r.financialProcessed IS NULL")
-    int markReservationsAsProcessedByStatus(@Param("reserveStatus") ReserveStatus reserveStatus);
-
     @Query("SELECT r FROM Reserve r WHERE r.reserveStatus = :reserveStatus AND " +
         ":date IN (SELECT rd FROM r.reservedDays rd)")
     List<Reserve> findByReserveStatusAndReservedDateContains(
@@ -58,4 +51,37 @@ public interface ReserveRepository extends JpaRepository<Reserve, Long> {
         @Param("date") LocalDate date
     );
 
-}
\ No newline at end of file
+    @Query("SELECT new com.br.elohostel.model.dtos.ReserveStatusCount(r.reserveStatus, COUNT(r)) " +
+           "FROM Reserve r GROUP BY r.reserveStatus")
+    List<ReserveStatusCount> countByReserveStatusGrouped();
+
+    /**
+     * Reservas com alguma noite no intervalo, lidas por cursor para o registro de reservas
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reserve r WHERE " +
+           "EXISTS (SELECT 1 FROM r.reservedDays rd WHERE rd BETWEEN :startDate AND :endDate) ORDER BY r.id")
+    Stream<Reserve> streamByReservedDaysBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Reservas encerradas: todas as noites antes de :cutoff e nenhum lançamento
+     * do razão acima de :processedLedgerId, ou seja, já consolidadas
+     */
+    @Query("SELECT r.id FROM Reserve r WHERE EXISTS (SELECT 1 FROM r.reservedDays d) " +
+           "AND NOT EXISTS (SELECT 1 FROM r.reservedDays d WHERE d >= :cutoff) " +
+           "AND NOT EXISTS (SELECT 1 FROM RevenueLedgerEntry e WHERE e.reserveId = r.id AND e.id > :processedLedgerId) " +
+           "AND r.id > :afterId ORDER BY r.id")
+    List<Long> findArchivableIds(
+        @Param("cutoff") LocalDate cutoff,
+        @Param("processedLedgerId") Long processedLedgerId,
+        @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    @Query("SELECT DISTINCT r FROM Reserve r LEFT JOIN FETCH r.rooms WHERE r.id IN :ids")
+    List<Reserve> findWithRoomsByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,133 @@
+package com.br.elohostel.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.RevenueLedgerEntry;
+import com.br.elohostel.model.dtos.LedgerCubeCell;
+import com.br.elohostel.model.dtos.LedgerNightTotal;
+import com.br.elohostel.model.dtos.LedgerPeriodCount;
+import com.br.elohostel.model.dtos.LedgerPickupTotal;
+import com.br.elohostel.model.dtos.LedgerRoomTypeCount;
+import com.br.elohostel.model.dtos.LedgerRoomTypeTotal;
+
+@Repository
+public interface RevenueLedgerRepository extends JpaRepository<RevenueLedgerEntry, Long> {
+
+    List<RevenueLedgerEntry> findByReserveId(Long reserveId);
+
+    List<RevenueLedgerEntry> findByReserveIdIn(List<Long> reserveIds);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerNightTotal(e.nightDate, SUM(e.revenue), " +
+           "SUM(e.roomNights), SUM(e.guests), SUM(e.reservations)) " +
+           "FROM RevenueLedgerEntry e WHERE e.nightDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.nightDate ORDER BY e.nightDate")
+    List<LedgerNightTotal> sumByNight(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerRoomTypeTotal(e.nightDate, e.roomType, " +
+           "SUM(e.revenue), SUM(e.roomNights), SUM(e.reservations)) " +
+           "FROM RevenueLedgerEntry e WHERE e.nightDate BETWEEN :startDate AND :endDate AND e.roomType IS NOT NULL " +
+           "GROUP BY e.nightDate, e.roomType ORDER BY e.nightDate")
+    List<LedgerRoomTypeTotal> sumByNightAndRoomType(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Reservas distintas com alguma noite ativa no intervalo e os hóspedes delas (o maior número de
+     * hóspedes lançado numa noite da reserva), sem contar a mesma reserva uma vez por noite
+     */
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerPeriodCount(COUNT(r.reserveId), SUM(r.guests)) FROM (" +
+           "SELECT n.reserveId AS reserveId, MAX(n.guests) AS guests FROM (" +
+           "SELECT e.reserveId AS reserveId, e.nightDate AS nightDate, SUM(e.guests) AS guests " +
+           "FROM RevenueLedgerEntry e WHERE e.nightDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.reserveId, e.nightDate HAVING SUM(e.reservations) > 0) n " +
+           "GROUP BY n.reserveId) r")
+    LedgerPeriodCount countDistinctReservations(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerRoomTypeCount(n.roomType, COUNT(DISTINCT n.reserveId)) FROM (" +
+           "SELECT e.reserveId AS reserveId, e.nightDate AS nightDate, e.roomType AS roomType " +
+           "FROM RevenueLedgerEntry e WHERE e.nightDate BETWEEN :startDate AND :endDate AND e.roomType IS NOT NULL " +
+           "GROUP BY e.reserveId, e.nightDate, e.roomType HAVING SUM(e.reservations) > 0) n " +
+           "GROUP BY n.roomType")
+    List<LedgerRoomTypeCount> countDistinctReservationsByRoomType(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Receita lançada no intervalo de ids (afterId, upToId] para noites a partir de :today, só das
+     * reservas que ainda não começaram (nenhuma noite ativa antes de :today até upToId). O NOT
+     * EXISTS usa o índice (reserve_id, night_date) para cada reserva em vez de agrupar o razão todo.
+     */
+    @Query("SELECT COALESCE(SUM(e.revenue), 0) FROM RevenueLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId " +
+           "AND e.nightDate >= :today AND NOT EXISTS (SELECT p.reserveId FROM RevenueLedgerEntry p " +
+           "WHERE p.reserveId = e.reserveId AND p.nightDate < :today AND p.id <= :upToId " +
+           "GROUP BY p.reserveId HAVING SUM(p.reservations) > 0)")
+    BigDecimal sumUpcomingReservationsRevenue(
+        @Param("today") LocalDate today,
+        @Param("afterId") Long afterId,
+        @Param("upToId") Long upToId);
+
+    @Query("SELECT COALESCE(SUM(e.reservations), 0) FROM RevenueLedgerEntry e " +
+           "WHERE e.id > :afterId AND e.id <= :upToId AND e.nightDate = :night")
+    long sumReservationsOnNightBetween(
+        @Param("night") LocalDate night,
+        @Param("afterId") Long afterId,
+        @Param("upToId") Long upToId);
+
+    /**
+     * Algum lançamento do intervalo muda as reservas de uma noite anterior a :before
+     */
+    @Query("SELECT COUNT(e) > 0 FROM RevenueLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId " +
+           "AND e.nightDate < :before AND e.reservations <> 0")
+    boolean existsReservationsPostedBefore(
+        @Param("before") LocalDate before,
+        @Param("afterId") Long afterId,
+        @Param("upToId") Long upToId);
+
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerCubeCell(e.nightDate, e.roomType, e.channel, " +
+           "SUM(e.revenue), SUM(e.roomNights), SUM(e.reservations)) " +
+           "FROM RevenueLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId AND e.roomType IS NOT NULL " +
+           "GROUP BY e.nightDate, e.roomType, e.channel")
+    List<LedgerCubeCell> sumCubeCellsBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Noites com lançamentos no intervalo de ids (afterId, upToId], via índice da chave primária
+     */
+    @Query("SELECT DISTINCT e.nightDate FROM RevenueLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId " +
+           "ORDER BY e.nightDate")
+    List<LocalDate> findNightDatesPostedBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Variação da carteira por dia de registro e noite, para os lançamentos no intervalo de ids
+     */
+    @Query("SELECT new com.br.elohostel.model.dtos.LedgerPickupTotal(CAST(e.recordedAt AS LocalDate), e.nightDate, " +
+           "SUM(e.revenue), SUM(e.roomNights), SUM(e.reservations)) " +
+           "FROM RevenueLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId " +
+           "GROUP BY CAST(e.recordedAt AS LocalDate), e.nightDate")
+    List<LedgerPickupTotal> sumPickupBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Query("SELECT COUNT(DISTINCT e.reserveId) FROM RevenueLedgerEntry e WHERE e.id > :afterId")
+    long countReservationsPostedAfter(@Param("afterId") Long afterId);
+
+    boolean existsByReserveIdAndIdGreaterThan(Long reserveId, Long id);
+
+    boolean existsByIdGreaterThan(Long id);
+
+    boolean existsByIdGreaterThanAndNightDateBetween(Long id, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT MIN(e.nightDate) FROM RevenueLedgerEntry e")
+    LocalDate findFirstNightDate();
+
+    @Query("SELECT MAX(e.nightDate) FROM RevenueLedgerEntry e")
+    LocalDate findLastNightDate();
+}
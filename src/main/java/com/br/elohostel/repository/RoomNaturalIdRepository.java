@@ -0,0 +1,14 @@
+package com.br.elohostel.repository;
+
+import java.util.Optional;
+
+import com.br.elohostel.model.Room;
+
+/**
+ * Busca de quarto pelo número (natural id); dentro da mesma sessão o Hibernate
+ * resolve o número sem nova consulta.
+ */
+public interface RoomNaturalIdRepository {
+
+    Optional<Room> findByNumber(Integer number);
+}
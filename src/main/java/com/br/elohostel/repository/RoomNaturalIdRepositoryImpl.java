@@ -0,0 +1,26 @@
+package com.br.elohostel.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.br.elohostel.model.Room;
+
+import jakarta.persistence.EntityManager;
+
+class RoomNaturalIdRepositoryImpl implements RoomNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    RoomNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Room> findByNumber(Integer number) {
+        if (number == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Room.class).loadOptional(number);
+    }
+}
@@ -1,14 +1,28 @@
 package com.br.elohostel.repository;
 
-import java.util.Optional;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.br.elohostel.model.Room;
+import com.br.elohostel.model.dtos.RoomInventoryRow;
+import com.br.elohostel.model.enums.RoomStatus;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long> {
+public interface RoomRepository extends JpaRepository<Room, Long>, RoomNaturalIdRepository {
 
-    Optional<Room> findByNumber(Integer number);
+    long countByRoomStatus(RoomStatus roomStatus);
+
+    /**
+     * Quartos vendidos inteiros (todos menos os compartilhados)
+     */
+    @Query("SELECT COUNT(r) FROM Room r WHERE r.roomType IS NULL " +
+           "OR r.roomType <> com.br.elohostel.model.enums.RoomType.SHARED")
+    long countPrivateRooms();
+
+    @Query("SELECT new com.br.elohostel.model.dtos.RoomInventoryRow(r.id, r.number, r.roomType, r.price) " +
+           "FROM Room r ORDER BY r.id")
+    List<RoomInventoryRow> findInventoryRows();
 }
@@ -0,0 +1,34 @@
+package com.br.elohostel.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.br.elohostel.model.SchedulerLease;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Toma a concessão se ela expirou; um único UPDATE condicional, então só uma instância vence
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // INSERT puro: com merge, uma linha criada por outra instância seria sobrescrita
+    @Modifying
+    @Query(value = "INSERT INTO TB_SCHEDULER_LEASE (name, locked_until, locked_at, locked_by) " +
+                   "VALUES (:name, :now, :now, '')", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
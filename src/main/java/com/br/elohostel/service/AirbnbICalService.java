@@ -1,5 +1,6 @@
 package com.br.elohostel.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -13,12 +14,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional; 
 import org.springframework.web.client.RestTemplate;
 
+import com.br.elohostel.config.WorkloadConfig;
 import com.br.elohostel.exceptions.ResourceNotFoundException;
 import com.br.elohostel.model.AirbnbReservation;
 import com.br.elohostel.model.AirbnbSync;
@@ -34,20 +37,24 @@ import com.br.elohostel.repository.RoomRepository;
 public class AirbnbICalService {
     
     private static final Logger logger = Logger.getLogger(AirbnbICalService.class.getName());
+    private static final Duration SYNC_INTERVAL = Duration.ofHours(3);
     
     private final AirbnbSyncRepository airbnbSyncRepository;
     private final AirbnbReservationRepository airbnbReservationRepository;
     private final ReserveService reserveService;
     private final RestTemplate restTemplate;
+    private final SchedulerLockService schedulerLock;
     private final RoomRepository roomRepository; 
 
     public AirbnbICalService(AirbnbSyncRepository airbnbSyncRepository,
                         AirbnbReservationRepository airbnbReservationRepository,
                         ReserveService reserveService,
-                        RoomRepository roomRepository) { 
+                        RoomRepository roomRepository,
+                        SchedulerLockService schedulerLock) { 
         this.airbnbSyncRepository = airbnbSyncRepository;
         this.airbnbReservationRepository = airbnbReservationRepository;
         this.reserveService = reserveService;
+        this.schedulerLock = schedulerLock;
         this.restTemplate = new RestTemplate();
         this.roomRepository = roomRepository; 
     }
@@ -166,6 +173,9 @@ private void debugReserveCreation(ReservesionRequest request) {
             }
             
             airbnbReservationRepository.save(airbnbReservation);
+            if (airbnbReservation.getReserve() != null) {
+                reserveService.refreshRevenueLedger(airbnbReservation.getReserve().getId());
+            }
             
         } catch (Exception e) {
             logger.warning("Erro ao processar reserva " + airbnbReservation.getAirbnbReservationId() + ": " + e.getMessage());
@@ -373,7 +383,13 @@ private void extractAdditionalInfoFromDescription(String description, AirbnbRese
     }
     
     @Scheduled(fixedRate = 10800000)
+    @Async(WorkloadConfig.CHANNEL_SYNC_EXECUTOR)
     public void scheduledSync() {
+        // Uma execução por intervalo entre todas as instâncias
+        schedulerLock.runLocked("sync:airbnb", SYNC_INTERVAL, SYNC_INTERVAL.minusMinutes(1), this::syncAllActive);
+    }
+
+    private void syncAllActive() {
         logger.info("Executando sincronização automática do Airbnb...");
         
         List<AirbnbSync> activeSyncs = airbnbSyncRepository.findByIsActiveTrue();
@@ -0,0 +1,279 @@
+package com.br.elohostel.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.exceptions.ResourceNotFoundException;
+
+/**
+ * Cópias de segurança do banco H2 com o sistema no ar. BACKUP TO copia os
+ * arquivos do banco para um .zip; SCRIPT TO gera um dump SQL com gzip, mais
+ * lento mas legível por qualquer versão do H2. Nos dois modos o H2 lê um
+ * snapshot MVCC, então as gravações da recepção seguem sem bloqueio. As cópias
+ * são rotacionadas (as N mais recentes mais a última de cada mês) e a
+ * verificação restaura a cópia num banco temporário e confere o esquema.
+ */
+@Service
+public class BackupService {
+    private static final Logger logger = Logger.getLogger(BackupService.class.getName());
+
+    private static final String PREFIX = "elohostel-";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern FILE_NAME = Pattern.compile(Pattern.quote(PREFIX) + "(\\d{8}-\\d{6})\\.(zip|sql\\.gz)");
+    private static final List<String> VERIFY_TABLES = List.of(
+        "TB_ROOM", "TB_BEDS", "TB_GUEST", "TB_RESERVE", "TB_RESERVE_ARCHIVE", "TB_REVENUE_LEDGER", "TB_FINANCIAL_RECORD");
+    private static final String SCHEMA_VERSION_QUERY =
+        "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL " +
+        "ORDER BY \"installed_rank\" DESC LIMIT 1";
+
+    public enum Mode {
+        BACKUP(".zip"),
+        SCRIPT(".sql.gz");
+
+        private final String extension;
+
+        Mode(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public record BackupFile(String name, long sizeBytes, LocalDateTime takenAt) {}
+
+    public record VerifyResult(String name, boolean restored, String schemaVersion, String currentSchemaVersion,
+                               Map<String, Long> rowCounts, String message) {}
+
+    private final DataSource dataSource;
+    private final Path backupDir;
+    private final Mode mode;
+    private final int keepLast;
+    private final int keepMonthly;
+
+    public BackupService(DataSource dataSource,
+                         @Value("${app.backup.dir:backups}") String backupDir,
+                         @Value("${app.backup.mode:BACKUP}") Mode mode,
+                         @Value("${app.backup.keep-last:7}") int keepLast,
+                         @Value("${app.backup.keep-monthly:6}") int keepMonthly) {
+        this.dataSource = dataSource;
+        this.backupDir = Paths.get(backupDir).toAbsolutePath().normalize();
+        this.mode = mode;
+        this.keepLast = Math.max(1, keepLast);
+        this.keepMonthly = Math.max(0, keepMonthly);
+    }
+
+    /**
+     * Gera uma cópia nova e aplica a retenção. O arquivo é escrito com sufixo
+     * .part e renomeado no fim, então nunca aparece uma cópia pela metade.
+     */
+    public BackupFile backup() throws IOException {
+        Files.createDirectories(backupDir);
+        LocalDateTime takenAt = LocalDateTime.now();
+        String name = PREFIX + takenAt.format(STAMP) + mode.getExtension();
+        Path target = backupDir.resolve(name);
+        Path partial = backupDir.resolve(name + ".part");
+
+        long start = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                throw new IllegalStateException("Cópia de segurança suportada só para H2");
+            }
+            statement.execute(mode == Mode.BACKUP
+                ? "BACKUP TO " + literal(partial)
+                : "SCRIPT TO " + literal(partial) + " COMPRESSION GZIP");
+        } catch (SQLException e) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Falha ao gerar cópia de segurança: " + e.getMessage(), e);
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+
+        BackupFile backup = new BackupFile(name, Files.size(target), takenAt);
+        logger.info("💾 Cópia de segurança " + name + " gerada em " + (System.currentTimeMillis() - start)
+            + " ms (" + backup.sizeBytes() / 1024 + " KB)");
+        rotate();
+        return backup;
+    }
+
+    public List<BackupFile> listBackups() throws IOException {
+        if (!Files.isDirectory(backupDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(backupDir)) {
+            return files
+                .map(this::toBackupFile)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(BackupFile::takenAt).reversed())
+                .toList();
+        }
+    }
+
+    /**
+     * Mantém as keepLast cópias mais recentes e a mais recente de cada um dos
+     * últimos keepMonthly meses; apaga o resto.
+     */
+    public int rotate() throws IOException {
+        List<BackupFile> backups = listBackups();
+        Set<String> keep = new HashSet<>();
+        Set<YearMonth> months = new HashSet<>();
+        for (int i = 0; i < backups.size(); i++) {
+            BackupFile backup = backups.get(i);
+            if (i < keepLast) {
+                keep.add(backup.name());
+            }
+            YearMonth month = YearMonth.from(backup.takenAt());
+            if (months.size() < keepMonthly && months.add(month)) {
+                keep.add(backup.name());
+            }
+        }
+
+        int deleted = 0;
+        for (BackupFile backup : backups) {
+            if (!keep.contains(backup.name())) {
+                Files.deleteIfExists(backupDir.resolve(backup.name()));
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("🧹 " + deleted + " cópias de segurança antigas removidas");
+        }
+        return deleted;
+    }
+
+    /**
+     * Restaura a cópia num banco temporário, separado do banco em uso, e
+     * confere se a versão do esquema é legível e se as tabelas principais abrem.
+     */
+    public VerifyResult verify(String name) throws IOException {
+        Path file = resolve(name);
+        String currentVersion;
+        try (Connection connection = dataSource.getConnection()) {
+            currentVersion = schemaVersion(connection);
+        } catch (SQLException e) {
+            currentVersion = null;
+        }
+
+        Path workDir = Files.createTempDirectory("elohostel-verify-");
+        try (Connection restored = restore(file, workDir)) {
+            String version = schemaVersion(restored);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            try (Statement statement = restored.createStatement()) {
+                for (String table : VERIFY_TABLES) {
+                    try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                        rs.next();
+                        counts.put(table, rs.getLong(1));
+                    }
+                }
+            }
+            logger.info("✅ Cópia " + name + " restaurada e verificada (esquema " + version + ")");
+            return new VerifyResult(name, true, version, currentVersion, counts, "Restauração verificada");
+        } catch (SQLException e) {
+            logger.severe("❌ Cópia " + name + " não pôde ser restaurada: " + e.getMessage());
+            return new VerifyResult(name, false, null, currentVersion, Map.of(), e.getMessage());
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private Connection restore(Path file, Path workDir) throws IOException, SQLException {
+        if (file.getFileName().toString().endsWith(Mode.SCRIPT.getExtension())) {
+            Connection connection = DriverManager.getConnection("jdbc:h2:mem:verify-" + UUID.randomUUID(), "sa", "");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM " + literal(file) + " COMPRESSION GZIP");
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            return connection;
+        }
+
+        // BACKUP TO guarda o(s) arquivo(s) do banco no zip: extrai o .mv.db e abre só para leitura
+        Path database = null;
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().endsWith(".mv.db")) {
+                    database = workDir.resolve("verify.mv.db");
+                    Files.copy(zip, database, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        if (database == null) {
+            throw new SQLException("Arquivo .mv.db não encontrado em " + file.getFileName());
+        }
+        String url = "jdbc:h2:file:" + workDir.resolve("verify") + ";ACCESS_MODE_DATA=r";
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    private String schemaVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SCHEMA_VERSION_QUERY)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private Path resolve(String name) {
+        Path file = backupDir.resolve(name).normalize();
+        if (!FILE_NAME.matcher(name).matches() || !file.getParent().equals(backupDir) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException(name);
+        }
+        return file;
+    }
+
+    private BackupFile toBackupFile(Path path) {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new BackupFile(path.getFileName().toString(), Files.size(path),
+                LocalDateTime.parse(matcher.group(1), STAMP));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String literal(Path path) {
+        return "'" + path.toString().replace("'", "''") + "'";
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warning("⚠️ Não foi possível limpar " + dir + ": " + e.getMessage());
+        }
+    }
+}
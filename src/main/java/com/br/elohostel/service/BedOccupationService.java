@@ -32,13 +32,16 @@ public class BedOccupationService {
     private final BedOccupationRepository bedOccupationRepository;
     private final BedRepository bedRepository;
     private final RoomRepository roomRepository;
+    private final BedService bedService;
 
     public BedOccupationService(BedOccupationRepository bedOccupationRepository,
                               BedRepository bedRepository,
-                              RoomRepository roomRepository) {
+                              RoomRepository roomRepository,
+                              BedService bedService) {
         this.bedOccupationRepository = bedOccupationRepository;
         this.bedRepository = bedRepository;
         this.roomRepository = roomRepository;
+        this.bedService = bedService;
     }
 
     public List<Bed> findAvailableBedsInRoom(Room room, Set<LocalDate> dates) {
@@ -82,8 +85,7 @@ public class BedOccupationService {
         occupation.setBed(bed);
         occupation.setReserve(reserve);
         occupation.getOccupiedDays().addAll(new HashSet<>(occupiedDays));
-        bed.setBedStatus(BedStatus.OCCUPIED);
-        bedRepository.save(bed);
+        bedService.changeStatus(bed, BedStatus.OCCUPIED);
         
         return bedOccupationRepository.save(occupation);
     }
@@ -91,9 +93,7 @@ public class BedOccupationService {
     public void removeExistingBedOccupations(Reserve reserve) {
         List<BedOccupation> existingOccupations = bedOccupationRepository.findByReserve(reserve);  
         for (BedOccupation occupation : existingOccupations) {
-            Bed bed = occupation.getBed();
-            bed.setBedStatus(BedStatus.AVAILABLE);
-            bedRepository.save(bed);
+            bedService.changeStatus(occupation.getBed(), BedStatus.AVAILABLE);
             bedOccupationRepository.delete(occupation);
         }
     }
@@ -134,9 +134,7 @@ public class BedOccupationService {
         List<BedOccupation> occupationsToRelease = bedOccupationRepository
             .findByOccupiedDaysContaining(localCheckOut);
         for (BedOccupation occupation : occupationsToRelease) {
-            Bed bed = occupation.getBed();
-            bed.setBedStatus(BedStatus.AVAILABLE);
-            bedRepository.save(bed);
+            bedService.changeStatus(occupation.getBed(), BedStatus.AVAILABLE);
             occupation.getOccupiedDays().remove(localCheckOut);
             if (occupation.getOccupiedDays().isEmpty()) {
                 bedOccupationRepository.delete(occupation);
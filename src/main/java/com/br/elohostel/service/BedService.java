@@ -4,17 +4,22 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.br.elohostel.exceptions.ResourceNotFoundException;
 import com.br.elohostel.model.Bed;
 import com.br.elohostel.model.enums.BedStatus;
 import com.br.elohostel.repository.BedRepository;
 
+import jakarta.transaction.Transactional;
+
 @Service
 public class BedService {
 
     private final BedRepository bedRepo;
+    private final CapacityService capacityService;
 
-    public BedService(BedRepository bedRepo) {
+    public BedService(BedRepository bedRepo, CapacityService capacityService) {
         this.bedRepo = bedRepo;
+        this.capacityService = capacityService;
     }
 
     public List<Bed> findAll() {
@@ -36,4 +41,39 @@ public class BedService {
     public List<Bed> findAvailableBedsByRoomVague(Long roomId) {
         return bedRepo.findByBedStatusAndRoomId(BedStatus.VAGUE, roomId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Coloca ou tira uma cama de manutenção. Camas em manutenção deixam de
+     * contar na capacidade vendável a partir de hoje. Cama ocupada não entra em
+     * manutenção, e só sai de manutenção (para vaga) a cama que está nela; nos
+     * outros casos o status atual é mantido.
+     */
+    @Transactional
+    public Bed setMaintenance(Long bedId, boolean maintenance) {
+        Bed bed = bedRepo.findById(bedId).orElseThrow(() -> new ResourceNotFoundException(bedId));
+        BedStatus previousStatus = bed.getBedStatus();
+        if (maintenance && previousStatus == BedStatus.OCCUPIED) {
+            throw new IllegalStateException("Cama #" + bedId + " está ocupada e não pode entrar em manutenção");
+        }
+        if (maintenance == (previousStatus == BedStatus.MAINTENANCE)) {
+            return bed;
+        }
+        return changeStatus(bed, maintenance ? BedStatus.MAINTENANCE : BedStatus.VAGUE);
+    }
+
+    /**
+     * Único ponto de escrita do status da cama: entrar ou sair de manutenção
+     * muda a capacidade vendável e precisa ficar no histórico de inventário.
+     */
+    @Transactional
+    public Bed changeStatus(Bed bed, BedStatus status) {
+        BedStatus previousStatus = bed.getBedStatus();
+        if (previousStatus == status) {
+            return bed;
+        }
+        bed.setBedStatus(status);
+        Bed saved = bedRepo.save(bed);
+        capacityService.recordBedStatusChanged(saved, previousStatus);
+        return saved;
+    }
+}
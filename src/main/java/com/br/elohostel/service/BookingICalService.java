@@ -1,5 +1,6 @@
 package com.br.elohostel.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -13,11 +14,13 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import com.br.elohostel.config.WorkloadConfig;
 import com.br.elohostel.model.BookingReservation;
 import com.br.elohostel.model.BookingSync;
 import com.br.elohostel.model.Reserve;
@@ -30,18 +33,22 @@ import com.br.elohostel.repository.BookingSyncRepository;
 public class BookingICalService {
     
     private static final Logger logger = Logger.getLogger(BookingICalService.class.getName());
+    private static final Duration SYNC_INTERVAL = Duration.ofHours(3);
     
     private final BookingSyncRepository bookingSyncRepository;
     private final BookingReservationRepository bookingReservationRepository;
     private final ReserveService reserveService;
     private final RestTemplate restTemplate;
+    private final SchedulerLockService schedulerLock;
     
     public BookingICalService(BookingSyncRepository bookingSyncRepository,
                            BookingReservationRepository bookingReservationRepository,
-                           ReserveService reserveService) {
+                           ReserveService reserveService,
+                           SchedulerLockService schedulerLock) {
         this.bookingSyncRepository = bookingSyncRepository;
         this.bookingReservationRepository = bookingReservationRepository;
         this.reserveService = reserveService;
+        this.schedulerLock = schedulerLock;
         this.restTemplate = new RestTemplate();
     }
 
@@ -142,6 +149,9 @@ public class BookingICalService {
             }
             
             bookingReservationRepository.save(bookingReservation);
+            if (bookingReservation.getReserve() != null) {
+                reserveService.refreshRevenueLedger(bookingReservation.getReserve().getId());
+            }
             
         } catch (Exception e) {
             logger.warning("❌ Erro ao processar reserva da Booking " + bookingReservation.getBookingReservationId() + ": " + e.getMessage());
@@ -286,7 +296,13 @@ public class BookingICalService {
     }
     
     @Scheduled(fixedRate = 10800000)
+    @Async(WorkloadConfig.CHANNEL_SYNC_EXECUTOR)
     public void scheduledSync() {
+        // Uma execução por intervalo entre todas as instâncias
+        schedulerLock.runLocked("sync:booking", SYNC_INTERVAL, SYNC_INTERVAL.minusMinutes(1), this::syncAllActive);
+    }
+
+    private void syncAllActive() {
         logger.info("🔄 Executando sincronização automática da Booking...");
         
         List<BookingSync> activeSyncs = bookingSyncRepository.findByIsActiveTrue();
@@ -0,0 +1,43 @@
+package com.br.elohostel.service;
+
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Versões dos caches em memória guardadas no banco, para valerem entre
+ * instâncias: quem muda os dados avança a versão na mesma transação, e o cache
+ * compara a versão atual com a que carregou antes de responder. Os valores vêm
+ * de uma sequence, então a versão de uma transação desfeita nunca se repete.
+ */
+@Service
+public class CacheVersionService {
+
+    // Quartos e camas (InventorySnapshot)
+    public static final String INVENTORY = "inventory-version";
+    // Reservas e quartos exportados nos feeds iCal (ICalFeedCache)
+    public static final String CALENDAR = "calendar-version";
+
+    private final ProcessingWatermarkRepository watermarkRepo;
+
+    public CacheVersionService(ProcessingWatermarkRepository watermarkRepo) {
+        this.watermarkRepo = watermarkRepo;
+    }
+
+    @Transactional
+    public void advance(String name) {
+        ProcessingWatermark version = watermarkRepo.findForUpdate(name)
+            .orElseGet(() -> new ProcessingWatermark(name));
+        version.setLastLedgerId(watermarkRepo.nextCacheVersion());
+        watermarkRepo.save(version);
+    }
+
+    public long current(String name) {
+        return watermarkRepo.findById(name)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(0L);
+    }
+}
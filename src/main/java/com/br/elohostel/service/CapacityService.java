@@ -0,0 +1,240 @@
+package com.br.elohostel.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.Bed;
+import com.br.elohostel.model.InventoryChange;
+import com.br.elohostel.model.InventoryChange.Reason;
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.Room;
+import com.br.elohostel.model.dtos.DailyCapacity;
+import com.br.elohostel.model.dtos.InventoryChangeTotal;
+import com.br.elohostel.model.enums.BedStatus;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.repository.BedRepository;
+import com.br.elohostel.repository.InventoryChangeRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+import com.br.elohostel.repository.RoomRepository;
+
+/**
+ * Capacidade vendável por dia, usada como denominador de ocupação e RevPAR.
+ * A linha do tempo (contagem atual mais o histórico de mudanças de inventário)
+ * fica em memória e é recarregada quando a cabeça do inventário no banco
+ * avança, o que vale também para mudanças feitas por outra instância.
+ */
+@Service
+public class CapacityService {
+    private static final Logger logger = Logger.getLogger(CapacityService.class.getName());
+
+    // Última mudança de inventário confirmada, avançada junto com cada gravação
+    public static final String INVENTORY_HEAD = "inventory-changes";
+
+    private final RoomRepository roomRepo;
+    private final BedRepository bedRepo;
+    private final InventoryChangeRepository changeRepo;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile CapacityTimeline timeline;
+
+    public CapacityService(RoomRepository roomRepo, BedRepository bedRepo,
+                           InventoryChangeRepository changeRepo, ProcessingWatermarkRepository watermarkRepo,
+                           ApplicationEventPublisher eventPublisher) {
+        this.roomRepo = roomRepo;
+        this.bedRepo = bedRepo;
+        this.changeRepo = changeRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public DailyCapacity getCapacity(LocalDate date) {
+        return timeline().at(date);
+    }
+
+    public List<DailyCapacity> getCapacityRange(LocalDate startDate, LocalDate endDate) {
+        CapacityTimeline current = timeline();
+        List<DailyCapacity> days = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            days.add(current.at(date));
+        }
+        return days;
+    }
+
+    /**
+     * Soma das unidades vendáveis no intervalo (inclusive), ou seja, o total de
+     * unidades-noite disponíveis para venda.
+     */
+    public long getSellableUnitNights(LocalDate startDate, LocalDate endDate) {
+        CapacityTimeline current = timeline();
+        long total = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            total += current.at(date).sellableUnits();
+        }
+        return total;
+    }
+
+    /**
+     * Última mudança de inventário confirmada (nunca de uma transação ainda aberta)
+     */
+    public Long getLastChangeId() {
+        return watermarkRepo.findById(INVENTORY_HEAD)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(null);
+    }
+
+    /**
+     * Indica se alguma mudança depois de afterId altera a capacidade de um dia
+     * até endDate; a mudança vale da data efetiva em diante. Sem endDate, qualquer mudança conta.
+     */
+    public boolean hasChangesAfter(Long afterId, LocalDate endDate) {
+        if (endDate == null) {
+            return changeRepo.existsByIdGreaterThan(afterId);
+        }
+        return changeRepo.existsByIdGreaterThanAndEffectiveDateLessThanEqual(afterId, endDate);
+    }
+
+    public void recordRoomAdded(Room room) {
+        int beds = sellableBeds(room);
+        record(new InventoryChange(LocalDate.now(), room.getId(), null, Reason.ROOM_ADDED,
+            1, beds, unitsOf(room.getRoomType(), beds)));
+    }
+
+    public void recordRoomRemoved(Room room) {
+        int beds = sellableBeds(room);
+        record(new InventoryChange(LocalDate.now(), room.getId(), null, Reason.ROOM_REMOVED,
+            -1, -beds, -unitsOf(room.getRoomType(), beds)));
+    }
+
+    public void recordRoomTypeChanged(Room room, RoomType previousType) {
+        int beds = sellableBeds(room);
+        int unitsDelta = unitsOf(room.getRoomType(), beds) - unitsOf(previousType, beds);
+        if (unitsDelta == 0) {
+            return;
+        }
+        record(new InventoryChange(LocalDate.now(), room.getId(), null, Reason.ROOM_TYPE_CHANGED,
+            0, 0, unitsDelta));
+    }
+
+    public void recordBedAdded(Bed bed) {
+        if (isMaintenance(bed.getBedStatus())) {
+            return;
+        }
+        record(new InventoryChange(LocalDate.now(), bed.getRoom().getId(), bed.getId(), Reason.BED_ADDED,
+            0, 1, bedUnits(bed)));
+    }
+
+    public void recordBedRemoved(Bed bed) {
+        if (isMaintenance(bed.getBedStatus())) {
+            return;
+        }
+        record(new InventoryChange(LocalDate.now(), bed.getRoom().getId(), bed.getId(), Reason.BED_REMOVED,
+            0, -1, -bedUnits(bed)));
+    }
+
+    public void recordBedStatusChanged(Bed bed, BedStatus previousStatus) {
+        boolean wasMaintenance = isMaintenance(previousStatus);
+        boolean isMaintenance = isMaintenance(bed.getBedStatus());
+        if (wasMaintenance == isMaintenance) {
+            return;
+        }
+        int sign = isMaintenance ? -1 : 1;
+        Reason reason = isMaintenance ? Reason.BED_MAINTENANCE_STARTED : Reason.BED_MAINTENANCE_ENDED;
+        record(new InventoryChange(LocalDate.now(), bed.getRoom().getId(), bed.getId(), reason,
+            0, sign, sign * bedUnits(bed)));
+    }
+
+    /**
+     * Grava a mudança com a cabeça do inventário travada até o commit, como no
+     * razão de receitas: os ids saem na ordem de commit.
+     */
+    private void record(InventoryChange change) {
+        ProcessingWatermark head = watermarkRepo.findForUpdate(INVENTORY_HEAD)
+            .orElseGet(() -> new ProcessingWatermark(INVENTORY_HEAD));
+        changeRepo.save(change);
+        head.setLastLedgerId(Math.max(head.getLastLedgerId(), change.getId()));
+        watermarkRepo.save(head);
+        eventPublisher.publishEvent(new InventoryChangedEvent(change));
+        logger.info("🛏️ Inventário alterado (" + change.getReason() + "): quarto #" + change.getRoomId()
+            + ", " + change.getUnitsDelta() + " unidades vendáveis");
+    }
+
+    /**
+     * Os ids de TB_INVENTORY_CHANGE não se repetem, nem de transação desfeita,
+     * então a cabeça lida antes da carga identifica o inventário carregado.
+     */
+    private CapacityTimeline timeline() {
+        Long head = getLastChangeId();
+        long currentHead = head != null ? head : 0L;
+        CapacityTimeline current = timeline;
+        if (current != null && current.headId() == currentHead) {
+            return current;
+        }
+        CapacityTimeline loaded = load(currentHead);
+        timeline = loaded;
+        return loaded;
+    }
+
+    private CapacityTimeline load(long headId) {
+        int rooms = (int) roomRepo.count();
+        int beds = (int) bedRepo.countSellableBeds();
+        int units = (int) (roomRepo.countPrivateRooms() + bedRepo.countSellableBedsInSharedRooms());
+
+        List<InventoryChangeTotal> changes = changeRepo.sumByEffectiveDate();
+        for (InventoryChangeTotal change : changes) {
+            rooms -= change.rooms().intValue();
+            beds -= change.beds().intValue();
+            units -= change.units().intValue();
+        }
+
+        // Estado antes da primeira mudança registrada; depois, acumula dia a dia
+        Counts initial = new Counts(rooms, beds, units);
+        NavigableMap<LocalDate, Counts> states = new TreeMap<>();
+        for (InventoryChangeTotal change : changes) {
+            rooms += change.rooms().intValue();
+            beds += change.beds().intValue();
+            units += change.units().intValue();
+            states.put(change.effectiveDate(), new Counts(rooms, beds, units));
+        }
+        logger.fine("🛏️ Capacidade carregada: " + units + " unidades vendáveis, " + changes.size() + " dias com mudanças");
+        return new CapacityTimeline(headId, initial, states);
+    }
+
+    private int sellableBeds(Room room) {
+        return (int) room.getBeds().stream()
+            .filter(bed -> !isMaintenance(bed.getBedStatus()))
+            .count();
+    }
+
+    private int unitsOf(RoomType roomType, int sellableBeds) {
+        return roomType == RoomType.SHARED ? sellableBeds : 1;
+    }
+
+    private int bedUnits(Bed bed) {
+        return bed.getRoom().isSharedRoom() ? 1 : 0;
+    }
+
+    private boolean isMaintenance(BedStatus status) {
+        return status == BedStatus.MAINTENANCE;
+    }
+
+    private record Counts(int rooms, int beds, int units) {}
+
+    private record CapacityTimeline(long headId, Counts initial, NavigableMap<LocalDate, Counts> states) {
+
+        DailyCapacity at(LocalDate date) {
+            Map.Entry<LocalDate, Counts> entry = states.floorEntry(date);
+            Counts counts = entry != null ? entry.getValue() : initial;
+            return new DailyCapacity(date, Math.max(counts.rooms(), 0), Math.max(counts.beds(), 0),
+                Math.max(counts.units(), 0));
+        }
+    }
+}
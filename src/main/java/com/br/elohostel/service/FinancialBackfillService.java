@@ -0,0 +1,262 @@
+package com.br.elohostel.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.elohostel.config.WorkloadConfig;
+import com.br.elohostel.model.BackfillCheckpoint;
+import com.br.elohostel.repository.BackfillCheckpointRepository;
+
+/**
+ * Reprocessamento financeiro em massa. O intervalo de datas é dividido em
+ * blocos que rodam em paralelo, cada um em sua própria transação curta; cada
+ * bloco concluído é gravado no checkpoint, então um job interrompido pode ser
+ * retomado sem refazer o que já foi feito. O job segura a concessão dos
+ * registros financeiros do início ao fim, então nenhum job agendado recalcula
+ * as mesmas noites ao mesmo tempo, nesta ou em outra instância.
+ */
+@Service
+public class FinancialBackfillService {
+    private static final Logger logger = Logger.getLogger(FinancialBackfillService.class.getName());
+
+    public static final String JOB_ALL_RESERVATIONS = "ALL_RESERVATIONS";
+    public static final String JOB_REPROCESS = "REPROCESS";
+
+    // Se a instância cair no meio, a concessão expira e o job pode ser retomado em outra
+    private static final Duration LOCK_AT_MOST = Duration.ofHours(6);
+
+    private final FinancialRecordService financialRecordService;
+    private final RevenueLedgerService revenueLedgerService;
+    private final BackfillCheckpointRepository checkpointRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final SchedulerLockService schedulerLock;
+    private final int chunkDays;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final AtomicInteger runningChunksDone = new AtomicInteger();
+
+    public FinancialBackfillService(FinancialRecordService financialRecordService,
+                                    RevenueLedgerService revenueLedgerService,
+                                    BackfillCheckpointRepository checkpointRepo,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier(WorkloadConfig.BACKFILL_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                    SchedulerLockService schedulerLock,
+                                    @Value("${app.financial.backfill.chunk-days:31}") int chunkDays) {
+        this.financialRecordService = financialRecordService;
+        this.revenueLedgerService = revenueLedgerService;
+        this.checkpointRepo = checkpointRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.schedulerLock = schedulerLock;
+        this.chunkDays = Math.max(1, chunkDays);
+    }
+
+    /**
+     * Concilia o razão com todas as reservas e recalcula todos os dias que têm
+     * lançamentos. A trava é tomada antes da conciliação, então duas chamadas
+     * nunca conciliam ao mesmo tempo.
+     */
+    public BackfillCheckpoint backfillAllReservations() {
+        return runExclusive(() -> {
+            revenueLedgerService.rebuild();
+
+            LocalDate firstNight = revenueLedgerService.getFirstNightDate();
+            LocalDate lastNight = revenueLedgerService.getLastNightDate();
+            if (firstNight == null || lastNight == null) {
+                logger.info("⏭️ Nenhuma reserva no razão de receitas para reprocessar");
+                return null;
+            }
+            return start(JOB_ALL_RESERVATIONS, firstNight, lastNight);
+        });
+    }
+
+    public BackfillCheckpoint backfill(String jobType, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Data final anterior à data inicial");
+        }
+        return runExclusive(() -> start(jobType, startDate, endDate));
+    }
+
+    /**
+     * Retoma o último job que não terminou, processando apenas os blocos pendentes.
+     * Com a concessão na mão, um job ainda marcado RUNNING é de uma instância que caiu.
+     */
+    public BackfillCheckpoint resume() {
+        return runExclusive(() -> {
+            BackfillCheckpoint checkpoint = checkpointRepo
+                .findFirstByStatusInOrderByStartedAtDesc(List.of(BackfillCheckpoint.Status.RUNNING,
+                    BackfillCheckpoint.Status.INTERRUPTED, BackfillCheckpoint.Status.FAILED))
+                .orElseThrow(() -> new IllegalStateException("Nenhum reprocessamento pendente para retomar"));
+            logger.info("▶️ Retomando reprocessamento #" + checkpoint.getId() + " - " +
+                       checkpoint.getCompletedChunks().size() + "/" + checkpoint.getTotalChunks() + " blocos já concluídos");
+            return execute(checkpoint);
+        });
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new HashMap<>();
+        BackfillCheckpoint checkpoint = checkpointRepo.findFirstByOrderByStartedAtDesc().orElse(null);
+        if (checkpoint == null) {
+            progress.put("status", "IDLE");
+            return progress;
+        }
+
+        int totalChunks = checkpoint.getTotalChunks();
+        int completedChunks = checkpoint.getCompletedChunks().size();
+        progress.put("id", checkpoint.getId());
+        progress.put("jobType", checkpoint.getJobType());
+        progress.put("status", checkpoint.getStatus());
+        progress.put("startDate", checkpoint.getStartDate());
+        progress.put("endDate", checkpoint.getEndDate());
+        progress.put("totalChunks", totalChunks);
+        progress.put("completedChunks", completedChunks);
+        progress.put("percent", totalChunks == 0 ? 100 : completedChunks * 100 / totalChunks);
+        progress.put("startedAt", checkpoint.getStartedAt());
+        progress.put("updatedAt", checkpoint.getUpdatedAt());
+        progress.put("finishedAt", checkpoint.getFinishedAt());
+        progress.put("lastError", checkpoint.getLastError());
+        return progress;
+    }
+
+    /**
+     * Jobs que estavam rodando quando a aplicação parou ficam disponíveis para
+     * retomada, a menos que outra instância ainda esteja com a concessão.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        if (schedulerLock.isLocked(FinancialRecordService.RECORDS_LOCK)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (BackfillCheckpoint checkpoint : checkpointRepo.findByStatus(BackfillCheckpoint.Status.RUNNING)) {
+                checkpoint.setStatus(BackfillCheckpoint.Status.INTERRUPTED);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                logger.warning("⚠️ Reprocessamento #" + checkpoint.getId() + " interrompido, disponível para retomada");
+            }
+        });
+    }
+
+    private BackfillCheckpoint start(String jobType, LocalDate startDate, LocalDate endDate) {
+        BackfillCheckpoint checkpoint = transactionTemplate.execute(status ->
+            checkpointRepo.save(new BackfillCheckpoint(jobType, startDate, endDate, chunkDays)));
+        return execute(checkpoint);
+    }
+
+    private BackfillCheckpoint execute(BackfillCheckpoint checkpoint) {
+        Long checkpointId = checkpoint.getId();
+        updateCheckpoint(checkpointId, BackfillCheckpoint.Status.RUNNING, null);
+        runningChunksDone.set(checkpoint.getCompletedChunks().size());
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (LocalDate chunkStart = checkpoint.getStartDate(); !chunkStart.isAfter(checkpoint.getEndDate());
+                chunkStart = chunkStart.plusDays(checkpoint.getChunkDays())) {
+            if (checkpoint.getCompletedChunks().contains(chunkStart)) {
+                continue;
+            }
+            LocalDate start = chunkStart;
+            LocalDate end = min(chunkStart.plusDays(checkpoint.getChunkDays() - 1L), checkpoint.getEndDate());
+            futures.add(executor.submit(() -> processChunk(checkpointId, start, end)));
+        }
+
+        logger.info("🚀 Reprocessamento #" + checkpointId + " (" + checkpoint.getJobType() + "): " +
+                   futures.size() + " blocos pendentes de " + checkpoint.getTotalChunks());
+
+        Exception failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                updateCheckpoint(checkpointId, BackfillCheckpoint.Status.INTERRUPTED, "Interrompido");
+                throw new IllegalStateException("Reprocessamento interrompido", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (Exception) (e.getCause() instanceof Exception ? e.getCause() : e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            updateCheckpoint(checkpointId, BackfillCheckpoint.Status.FAILED, failure.getMessage());
+            logger.severe("❌ Reprocessamento #" + checkpointId + " falhou: " + failure.getMessage());
+            throw new IllegalStateException("Falha no reprocessamento: " + failure.getMessage(), failure);
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+            financialRecordService.rollUpRange(checkpoint.getStartDate(), checkpoint.getEndDate()));
+        BackfillCheckpoint finished = updateCheckpoint(checkpointId, BackfillCheckpoint.Status.COMPLETED, null);
+        logger.info("✅ Reprocessamento #" + checkpointId + " concluído: " +
+                   checkpoint.getStartDate() + " a " + checkpoint.getEndDate());
+        return finished;
+    }
+
+    private void processChunk(Long checkpointId, LocalDate chunkStart, LocalDate chunkEnd) {
+        transactionTemplate.executeWithoutResult(status ->
+            financialRecordService.rebuildDailyRecords(chunkStart, chunkEnd));
+        markChunkCompleted(checkpointId, chunkStart);
+        logger.info("📦 Bloco " + chunkStart + " a " + chunkEnd + " concluído (" +
+                   runningChunksDone.incrementAndGet() + " blocos)");
+    }
+
+    private synchronized void markChunkCompleted(Long checkpointId, LocalDate chunkStart) {
+        transactionTemplate.executeWithoutResult(status -> {
+            BackfillCheckpoint checkpoint = checkpointRepo.findById(checkpointId).orElseThrow();
+            checkpoint.getCompletedChunks().add(chunkStart);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    private synchronized BackfillCheckpoint updateCheckpoint(Long checkpointId, BackfillCheckpoint.Status newStatus, String error) {
+        return transactionTemplate.execute(status -> {
+            BackfillCheckpoint checkpoint = checkpointRepo.findById(checkpointId).orElseThrow();
+            checkpoint.setStatus(newStatus);
+            checkpoint.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint.setFinishedAt(newStatus == BackfillCheckpoint.Status.COMPLETED ? LocalDateTime.now() : null);
+            return checkpoint;
+        });
+    }
+
+    private BackfillCheckpoint runExclusive(Supplier<BackfillCheckpoint> job) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Já existe um reprocessamento financeiro em andamento");
+        }
+        try {
+            AtomicReference<BackfillCheckpoint> result = new AtomicReference<>();
+            if (!schedulerLock.runLocked(FinancialRecordService.RECORDS_LOCK, LOCK_AT_MOST, Duration.ZERO,
+                    () -> result.set(job.get()))) {
+                throw new IllegalStateException("Há um job financeiro ou reprocessamento em andamento em outra instância");
+            }
+            return result.get();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,154 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Painel financeiro materializado, em três partes atualizadas em separado:
+ * os números dos registros financeiros são relidos quando os registros são
+ * gravados; a previsão e as reservas do dia andam com os lançamentos novos do
+ * razão, lidos por faixa de id desde a última cabeça aplicada; e os quartos
+ * ocupados são recontados no check-in/check-out ou quando passa do tempo
+ * máximo de defasagem (que cobre mudanças de status feitas fora desses fluxos).
+ * Tudo é recalculado do zero só na virada do dia.
+ */
+@Service
+public class FinancialDashboardService {
+    private static final Logger logger = Logger.getLogger(FinancialDashboardService.class.getName());
+
+    private final FinancialRecordService financialRecordService;
+    private final RevenueLedgerService revenueLedgerService;
+    private final long maxStalenessMillis;
+
+    private final AtomicReference<DashboardSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean recordsDirty = new AtomicBoolean(true);
+    private final AtomicBoolean ledgerDirty = new AtomicBoolean(true);
+    private final AtomicBoolean roomsDirty = new AtomicBoolean(true);
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public FinancialDashboardService(FinancialRecordService financialRecordService,
+                                     RevenueLedgerService revenueLedgerService,
+                                     @Value("${app.financial.dashboard.max-staleness-seconds:60}") long maxStalenessSeconds) {
+        this.financialRecordService = financialRecordService;
+        this.revenueLedgerService = revenueLedgerService;
+        this.maxStalenessMillis = maxStalenessSeconds * 1000;
+    }
+
+    public Map<String, Object> getDashboard() {
+        DashboardSnapshot current = snapshot.get();
+        if (current != null && isUsable(current)) {
+            return current.values();
+        }
+
+        refreshLock.lock();
+        try {
+            current = snapshot.get();
+            if (current != null && isUsable(current)) {
+                return current.values();
+            }
+            return refresh(current).values();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        switch (event.source()) {
+            case "revenue-ledger" -> ledgerDirty.set(true);
+            case "check-in", "check-out" -> roomsDirty.set(true);
+            default -> recordsDirty.set(true);
+        }
+    }
+
+    private boolean isUsable(DashboardSnapshot current) {
+        return !recordsDirty.get() && !ledgerDirty.get() && !roomsDirty.get()
+            && current.date().equals(LocalDate.now())
+            && System.currentTimeMillis() - current.roomsCountedAt() < maxStalenessMillis;
+    }
+
+    /**
+     * Atualiza só as partes marcadas. Cada marca é limpa antes de ler a sua
+     * parte: uma mudança durante a leitura marca de novo.
+     */
+    private DashboardSnapshot refresh(DashboardSnapshot previous) {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        boolean newDay = previous == null || !previous.date().equals(today);
+
+        Map<String, Object> records = previous != null ? previous.records() : null;
+        if (recordsDirty.getAndSet(false) || newDay) {
+            records = financialRecordService.getRecordDashboard(today);
+        }
+
+        LedgerTotals ledger = previous != null ? previous.ledger() : null;
+        if (ledgerDirty.getAndSet(false) || newDay) {
+            ledger = newDay ? loadLedgerTotals(today) : catchUp(today, ledger);
+        }
+
+        long occupiedRooms = previous != null ? previous.occupiedRooms() : 0;
+        long roomsCountedAt = previous != null ? previous.roomsCountedAt() : 0;
+        if (roomsDirty.getAndSet(false) || newDay || start - roomsCountedAt >= maxStalenessMillis) {
+            occupiedRooms = financialRecordService.countOccupiedRooms();
+            roomsCountedAt = System.currentTimeMillis();
+        }
+
+        Map<String, Object> values = new HashMap<>(records);
+        values.put("todayForecast", ledger.todayForecast());
+        values.put("todayReservations", ledger.todayReservations());
+        values.put("occupiedRooms", occupiedRooms);
+        DashboardSnapshot refreshed = new DashboardSnapshot(today, records, ledger, occupiedRooms, roomsCountedAt,
+            Collections.unmodifiableMap(values));
+        snapshot.set(refreshed);
+        logger.fine("📊 Snapshot do painel financeiro atualizado em " + (System.currentTimeMillis() - start) + " ms");
+        return refreshed;
+    }
+
+    private LedgerTotals loadLedgerTotals(LocalDate today) {
+        long headId = headId();
+        return new LedgerTotals(headId,
+            revenueLedgerService.getReservationsOnNight(today, 0L, headId),
+            revenueLedgerService.getUpcomingReservationsRevenue(today, 0L, headId));
+    }
+
+    /**
+     * Soma os lançamentos confirmados depois da última cabeça aplicada. Só
+     * quando algum deles mexe numa noite anterior a hoje (reserva em curso
+     * editada ou cancelada) a previsão é relida inteira: a reserva pode ter
+     * passado a contar, ou deixado de contar, como futura.
+     */
+    private LedgerTotals catchUp(LocalDate today, LedgerTotals applied) {
+        long headId = headId();
+        if (headId <= applied.headId()) {
+            return applied;
+        }
+        long todayReservations = applied.todayReservations()
+            + revenueLedgerService.getReservationsOnNight(today, applied.headId(), headId);
+        BigDecimal todayForecast = revenueLedgerService.hasReservationsPostedBefore(today, applied.headId(), headId)
+            ? revenueLedgerService.getUpcomingReservationsRevenue(today, 0L, headId)
+            : applied.todayForecast().add(revenueLedgerService.getUpcomingReservationsRevenue(today, applied.headId(), headId));
+        return new LedgerTotals(headId, todayReservations, todayForecast);
+    }
+
+    private long headId() {
+        Long headId = revenueLedgerService.getLastEntryId();
+        return headId != null ? headId : 0L;
+    }
+
+    private record LedgerTotals(long headId, long todayReservations, BigDecimal todayForecast) {}
+
+    private record DashboardSnapshot(LocalDate date, Map<String, Object> records, LedgerTotals ledger,
+                                     long occupiedRooms, long roomsCountedAt, Map<String, Object> values) {}
+}
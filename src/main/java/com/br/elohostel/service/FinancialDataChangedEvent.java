@@ -0,0 +1,9 @@
+package com.br.elohostel.service;
+
+/**
+ * Publicado quando algo que aparece no painel financeiro muda
+ * (razão de receitas, registros financeiros ou status dos quartos).
+ */
+public record FinancialDataChangedEvent(String source) {
+
+}
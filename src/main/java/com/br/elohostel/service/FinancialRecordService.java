@@ -11,21 +11,32 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.br.elohostel.model.FinancialRecord;
+import com.br.elohostel.model.ProcessingWatermark;
 import com.br.elohostel.model.Reserve;
-import com.br.elohostel.model.Room;
 import com.br.elohostel.model.RoomTypeRevenue;
+import com.br.elohostel.model.dtos.FinancialPeriodTotal;
+import com.br.elohostel.model.dtos.LedgerNightTotal;
+import com.br.elohostel.model.dtos.LedgerPeriodCount;
+import com.br.elohostel.model.dtos.LedgerRoomTypeCount;
+import com.br.elohostel.model.dtos.LedgerRoomTypeTotal;
+import com.br.elohostel.model.dtos.RoomTypeRevenueTotal;
 import com.br.elohostel.model.enums.PeriodType;
 import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.model.enums.RoomStatus;
 import com.br.elohostel.model.enums.RoomType;
 import com.br.elohostel.repository.FinancialRecordRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
 import com.br.elohostel.repository.ReserveRepository;
 import com.br.elohostel.repository.RoomRepository;
+import com.br.elohostel.util.MoneyCents;
 
 import jakarta.transaction.Transactional;
 
@@ -33,16 +44,32 @@ import jakarta.transaction.Transactional;
 public class FinancialRecordService {
     private static final Logger logger = Logger.getLogger(FinancialRecordService.class.getName());
 
+    public static final String DAILY_RECORDS_WATERMARK = "daily-records";
+    // Concessão de quem grava registros diários: jobs agendados e reprocessamentos não rodam juntos
+    public static final String RECORDS_LOCK = "financial:records";
+
     private final FinancialRecordRepository financialRecordRepo;
     private final ReserveRepository reserveRepo;
     private final RoomRepository roomRepo;
+    private final RevenueLedgerService revenueLedgerService;
+    private final CapacityService capacityService;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public FinancialRecordService(FinancialRecordRepository financialRecordRepo, 
                                  ReserveRepository reserveRepo,
-                                 RoomRepository roomRepo) {
+                                 RoomRepository roomRepo,
+                                 RevenueLedgerService revenueLedgerService,
+                                 CapacityService capacityService,
+                                 ProcessingWatermarkRepository watermarkRepo,
+                                 ApplicationEventPublisher eventPublisher) {
         this.financialRecordRepo = financialRecordRepo;
         this.reserveRepo = reserveRepo;
         this.roomRepo = roomRepo;
+        this.revenueLedgerService = revenueLedgerService;
+        this.capacityService = capacityService;
+        this.watermarkRepo = watermarkRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     public ReserveRepository getReserveRepository() {
@@ -62,6 +89,7 @@ public class FinancialRecordService {
         logger.info("🔄 Iniciando processamento de registros financeiros...");
         
         LocalDate today = LocalDate.now();
+        processPendingNights();
         processDailyRecord(today);
         if (today.getDayOfMonth() == 1) {
             processMonthlyRecord(today.minusMonths(1));
@@ -74,277 +102,309 @@ public class FinancialRecordService {
         logger.info("✅ Processamento de registros financeiros concluído.");
     }
 
+    /**
+     * Processa apenas as noites que receberam lançamentos no razão depois da
+     * marca d'água e avança a marca. Não há flags por reserva para resetar:
+     * qualquer mudança em uma reserva gera lançamentos novos, que voltam a ser
+     * pegos aqui. O limite é a cabeça do razão, que só contém lançamentos
+     * confirmados; a marca fica travada para duas execuções não se cruzarem.
+     */
     @Transactional
-    public FinancialRecord processDailyRecord(LocalDate date) {
-        logger.info("📅 Processando registro diário para: " + date);
-        FinancialRecord dailyRecord = financialRecordRepo
-            .findByRecordDateAndPeriodType(date, PeriodType.DIARIO)
-            .orElse(new FinancialRecord(date, PeriodType.DIARIO));
-        List<Reserve> dailyReservations = findUnprocessedReservationsForDate(date);
-        if (!dailyReservations.isEmpty()) {
-            calculateMetrics(dailyRecord, dailyReservations, date, PeriodType.DIARIO);
-            FinancialRecord savedRecord = financialRecordRepo.save(dailyRecord);
-            logger.info("✅ Registro diário salvo: " + date + " - " + 
-                       dailyReservations.size() + " reservas processadas - Receita: " + savedRecord.getTotalRevenue());
-            return savedRecord;
-        } else {
-            logger.info("⏭️ Nenhuma reserva não processada para: " + date);
-            return dailyRecord;
+    public int processPendingNights() {
+        Long upToId = revenueLedgerService.getLastEntryId();
+        if (upToId == null) {
+            return 0;
+        }
+        ProcessingWatermark watermark = watermarkRepo.findForUpdate(DAILY_RECORDS_WATERMARK)
+            .orElseGet(() -> new ProcessingWatermark(DAILY_RECORDS_WATERMARK));
+        if (upToId <= watermark.getLastLedgerId()) {
+            return 0;
+        }
+
+        List<LocalDate> nights = revenueLedgerService.getNightsPostedBetween(watermark.getLastLedgerId(), upToId);
+        Set<YearMonth> months = new TreeSet<>();
+        LocalDate runStart = null;
+        LocalDate runEnd = null;
+        for (LocalDate night : nights) {
+            if (runEnd != null && !night.equals(runEnd.plusDays(1))) {
+                rebuildDailyRecords(runStart, runEnd);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = night;
+            }
+            runEnd = night;
+            months.add(YearMonth.from(night));
         }
+        if (runStart != null) {
+            rebuildDailyRecords(runStart, runEnd);
+        }
+        rollUpMonths(months);
+
+        watermark.setLastLedgerId(upToId);
+        watermarkRepo.save(watermark);
+        logger.info("📒 " + nights.size() + " noites processadas até o lançamento #" + upToId);
+        return nights.size();
     }
 
     @Transactional
-    public FinancialRecord processMonthlyRecord(LocalDate anyDateInMonth) {
-        YearMonth yearMonth = YearMonth.from(anyDateInMonth);
-        LocalDate firstDayOfMonth = yearMonth.atDay(1);
-        FinancialRecord monthlyRecord = financialRecordRepo
-            .findByRecordDateAndPeriodType(firstDayOfMonth, PeriodType.MENSAL)
-            .orElse(new FinancialRecord(firstDayOfMonth, PeriodType.MENSAL));
-        List<Reserve> monthlyReservations = findUnprocessedReservationsForMonth(
-            yearMonth.getYear(), yearMonth.getMonthValue());
-        
-        if (!monthlyReservations.isEmpty()) {
-            calculateMetrics(monthlyRecord, monthlyReservations, firstDayOfMonth, PeriodType.MENSAL);
-            FinancialRecord savedRecord = financialRecordRepo.save(monthlyRecord);
-            logger.info("✅ Registro mensal salvo: " + yearMonth + " - " + 
-                       monthlyReservations.size() + " reservas processadas - Receita: " + savedRecord.getTotalRevenue());
-            return savedRecord;
+    public FinancialRecord processDailyRecord(LocalDate date) {
+        logger.info("📅 Processando registro diário para: " + date);
+        FinancialRecord dailyRecord = rebuildDailyRecord(date);
+        rollUpMonthAndYear(date);
+        return dailyRecord;
+    }
+
+    /**
+     * Recalcula o registro diário a partir dos totais do razão de receitas.
+     * A operação é idempotente: reprocessar o mesmo dia gera o mesmo resultado.
+     */
+    private FinancialRecord rebuildDailyRecord(LocalDate date) {
+        FinancialRecord dailyRecord = rebuildDailyRecords(date, date).get(0);
+        if (dailyRecord.getId() == null) {
+            logger.info("⏭️ Nenhum lançamento no razão de receitas para: " + date);
         } else {
-            logger.info("⏭️ Nenhuma reserva não processada para o mês: " + yearMonth);
-            return monthlyRecord;
+            logger.info("✅ Registro diário salvo: " + date + " - " +
+                       dailyRecord.getTotalReservations() + " reservas - Receita: " + dailyRecord.getTotalRevenue());
         }
+        return dailyRecord;
     }
 
+    /**
+     * Recalcula todos os registros diários do intervalo em uma única passada:
+     * uma consulta agregada no razão, uma busca dos registros existentes e um
+     * único saveAll. Retorna um registro por dia, salvo ou não.
+     */
     @Transactional
-    public FinancialRecord processAnnualRecord(int year) {
-        LocalDate firstDayOfYear = LocalDate.of(year, 1, 1);
-        
-        logger.info("📈 Processando registro anual para: " + year);
-        FinancialRecord annualRecord = financialRecordRepo
-            .findByRecordDateAndPeriodType(firstDayOfYear, PeriodType.ANUAL)
-            .orElse(new FinancialRecord(firstDayOfYear, PeriodType.ANUAL));
-        List<Reserve> annualReservations = findUnprocessedReservationsForYear(year);
-        
-        if (!annualReservations.isEmpty()) {
-            calculateMetrics(annualRecord, annualReservations, firstDayOfYear, PeriodType.ANUAL);
-            FinancialRecord savedRecord = financialRecordRepo.save(annualRecord);
-            logger.info("✅ Registro anual salvo: " + year + " - " + 
-                       annualReservations.size() + " reservas processadas - Receita: " + savedRecord.getTotalRevenue());
-            return savedRecord;
-        } else {
-            logger.info("⏭️ Nenhuma reserva não processada para o ano: " + year);
-            return annualRecord;
+    public List<FinancialRecord> rebuildDailyRecords(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, FinancialRecord> existingRecords = new HashMap<>();
+        for (FinancialRecord record : financialRecordRepo.findByPeriodTypeAndRecordDateBetween(PeriodType.DIARIO, startDate, endDate)) {
+            existingRecords.putIfAbsent(record.getRecordDate(), record);
         }
+
+        Map<LocalDate, LedgerNightTotal> nightTotals = revenueLedgerService.getNightTotals(startDate, endDate).stream()
+            .collect(Collectors.toMap(LedgerNightTotal::nightDate, total -> total));
+        Map<LocalDate, List<LedgerRoomTypeTotal>> roomTypeTotals = revenueLedgerService.getRoomTypeTotals(startDate, endDate).stream()
+            .collect(Collectors.groupingBy(LedgerRoomTypeTotal::nightDate));
+
+        List<FinancialRecord> records = new ArrayList<>();
+        List<FinancialRecord> recordsToSave = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            FinancialRecord record = existingRecords.getOrDefault(date, new FinancialRecord(date, PeriodType.DIARIO));
+            boolean hasLedgerData = applyLedgerTotals(record, date, nightTotals.get(date),
+                roomTypeTotals.getOrDefault(date, List.of()));
+            if (hasLedgerData || record.getId() != null) {
+                recordsToSave.add(record);
+            }
+            records.add(record);
+        }
+
+        financialRecordRepo.saveAll(recordsToSave);
+        if (!recordsToSave.isEmpty()) {
+            eventPublisher.publishEvent(new FinancialDataChangedEvent("financial-record"));
+        }
+        return records;
     }
 
-    private List<Reserve> findUnprocessedReservationsForDate(LocalDate date) {
-        List<Reserve> allConfirmed = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-        for (Reserve reserve : allConfirmed) {
-            logger.info("📋 Reserva #" + reserve.getId() + 
-                       " - Status: " + reserve.getReserveStatus() +
-                       " - Processada: " + reserve.getFinancialProcessed() +
-                       " - Dias: " + reserve.getReservedDays() +
-                       " - Contém " + date + ": " + (reserve.getReservedDays() != null && reserve.getReservedDays().contains(date)));
+    private boolean applyLedgerTotals(FinancialRecord record, LocalDate date, LedgerNightTotal total,
+                                      List<LedgerRoomTypeTotal> roomTypeTotals) {
+        record.setTotalRevenue(BigDecimal.ZERO);
+        record.setTotalReservations(0);
+        record.setTotalGuests(0);
+        record.setTotalNights(0);
+        record.setReservationNights(0);
+        record.setAverageDailyRate(BigDecimal.ZERO);
+        record.setOccupancyRate(BigDecimal.ZERO);
+        record.setRevPAR(BigDecimal.ZERO);
+        record.getRoomTypeRevenues().clear();
+        record.setUpdatedAt(LocalDateTime.now());
+
+        if (total == null) {
+            return false;
         }
 
-        List<Reserve> forDate = allConfirmed.stream()
-            .filter(reserve -> reserve.getReservedDays() != null && reserve.getReservedDays().contains(date))
-            .collect(Collectors.toList());
+        record.setTotalRevenue(total.revenue());
+        record.setTotalReservations(total.reservations().intValue());
+        record.setTotalGuests(total.guests().intValue());
+        record.setTotalNights(total.roomNights().intValue());
+        record.setReservationNights(total.reservations().intValue());
 
-        List<Reserve> unprocessed = forDate.stream()
-            .filter(reserve -> !Boolean.TRUE.equals(reserve.getFinancialProcessed()))
-            .collect(Collectors.toList());
-        
-        return unprocessed;
-    }
+        for (LedgerRoomTypeTotal roomTypeTotal : roomTypeTotals) {
+            if (roomTypeTotal.revenue().signum() == 0 && roomTypeTotal.roomNights() == 0) {
+                continue;
+            }
+            RoomTypeRevenue roomTypeRevenue = new RoomTypeRevenue(roomTypeTotal.roomType());
+            roomTypeRevenue.setRevenue(roomTypeTotal.revenue());
+            roomTypeRevenue.setNightsCount(roomTypeTotal.roomNights().intValue());
+            roomTypeRevenue.setReservationsCount(roomTypeTotal.reservations().intValue());
+            record.getRoomTypeRevenues().add(roomTypeRevenue);
+        }
 
-    private List<Reserve> findUnprocessedReservationsForMonth(int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-        
-        logger.info("🔍 Buscando reservas não processadas para o mês: " + year + "-" + month);
-        
-        List<Reserve> reservations = reserveRepo.findByReserveStatusAndReservedDaysBetween(ReserveStatus.CONFIRMED, startDate, endDate).stream()
-            .filter(reserve -> !Boolean.TRUE.equals(reserve.getFinancialProcessed()))
-            .collect(Collectors.toList());
-            
-        logger.info("📊 Encontradas " + reservations.size() + " reservas não processadas para o mês " + year + "-" + month);
-        
-        return reservations;
+        calculateDerivedMetrics(record, date, date);
+        return total.reservations() > 0 || total.revenue().signum() != 0;
     }
 
-    private List<Reserve> findUnprocessedReservationsForYear(int year) {
-        LocalDate startDate = LocalDate.of(year, 1, 1);
-        LocalDate endDate = LocalDate.of(year, 12, 31);
-        
-        logger.info("🔍 Buscando reservas não processadas para o ano: " + year);
-        
-        List<Reserve> reservations = reserveRepo.findByReserveStatusAndReservedDaysBetween(ReserveStatus.CONFIRMED, startDate, endDate).stream()
-            .filter(reserve -> !Boolean.TRUE.equals(reserve.getFinancialProcessed()))
-            .collect(Collectors.toList());
-            
-        logger.info("📊 Encontradas " + reservations.size() + " reservas não processadas para o ano " + year);
-        
-        return reservations;
+    @Transactional
+    public FinancialRecord processMonthlyRecord(LocalDate anyDateInMonth) {
+        YearMonth yearMonth = YearMonth.from(anyDateInMonth);
+        FinancialRecord savedRecord = rollUp(PeriodType.MENSAL, yearMonth.atDay(1), yearMonth.atEndOfMonth(), PeriodType.DIARIO);
+        logger.info("📊 Registro mensal consolidado: " + yearMonth + " - Receita: " + savedRecord.getTotalRevenue());
+        return savedRecord;
     }
 
-    private BigDecimal calculateDailyRevenue(Reserve reservation, LocalDate date) {
-        BigDecimal totalReservationValue = reservation.calculateTotalValue();
-        int totalDays = reservation.getNumberOfDays();
-        
-        if (totalDays == 0) {
-            return BigDecimal.ZERO;
+    @Transactional
+    public FinancialRecord processAnnualRecord(int year) {
+        logger.info("📈 Processando registro anual para: " + year);
+        for (int month = 1; month <= 12; month++) {
+            LocalDate firstDayOfMonth = LocalDate.of(year, month, 1);
+            rollUp(PeriodType.MENSAL, firstDayOfMonth, YearMonth.from(firstDayOfMonth).atEndOfMonth(), PeriodType.DIARIO);
         }
-        
-        return totalReservationValue.divide(
-            BigDecimal.valueOf(totalDays), 2, RoundingMode.HALF_UP);
+        FinancialRecord savedRecord = rollUpYear(year);
+        logger.info("✅ Registro anual consolidado: " + year + " - Receita: " + savedRecord.getTotalRevenue());
+        return savedRecord;
     }
 
-    private void calculateMetrics(FinancialRecord record, List<Reserve> reservations, 
-                            LocalDate referenceDate, PeriodType periodType) {
+    /**
+     * Mantém mês e ano coerentes depois que um dia foi recalculado.
+     */
+    private void rollUpMonthAndYear(LocalDate date) {
+        rollUpRange(date, date);
+    }
 
-        logger.info("🔍 Calculando métricas para " + periodType + " - " + referenceDate + 
-                   " - " + reservations.size() + " reservas não processadas encontradas");
-        if (record.getId() == null) {
-            record.setTotalRevenue(BigDecimal.ZERO);
-            record.setTotalReservations(0);
-            record.setTotalGuests(0);
-            record.setTotalNights(0);
-            record.getRoomTypeRevenues().clear();
+    @Transactional
+    public void rollUpRange(LocalDate startDate, LocalDate endDate) {
+        for (YearMonth yearMonth = YearMonth.from(startDate); !yearMonth.isAfter(YearMonth.from(endDate)); yearMonth = yearMonth.plusMonths(1)) {
+            rollUp(PeriodType.MENSAL, yearMonth.atDay(1), yearMonth.atEndOfMonth(), PeriodType.DIARIO);
         }
-        
-        for (Reserve reservation : reservations) {
-            BigDecimal dailyRevenue = calculateDailyRevenue(reservation, referenceDate);
-            int roomCount = reservation.getRooms().size();
-            record.addRevenue(dailyRevenue);
-            record.incrementReservations();
-            record.addGuests(reservation.getGuest().size());
-            record.addNights(roomCount);
-
-            if (!reservation.getRooms().isEmpty()) {
-                if (roomCount == 1) {
-                    Room room = reservation.getRooms().iterator().next();
-                    addRoomTypeRevenue(record, room.getRoomType(), dailyRevenue, 1, 1);
-                } else {
-                    BigDecimal valuePerRoom = dailyRevenue.divide(
-                        BigDecimal.valueOf(roomCount), 2, RoundingMode.HALF_UP);
-                    
-                    for (Room room : reservation.getRooms()) {
-                        addRoomTypeRevenue(record, room.getRoomType(), valuePerRoom, 1, 1);
-                    }
-                }
-            }
-            
-            reservation.setFinancialProcessed(true);
-            reserveRepo.save(reservation);
-            logger.info("✅ Reserva #" + reservation.getId() + " marcada como processada");
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            rollUpYear(year);
         }
-        
-        logger.info("📊 Métricas finais - Receita: " + record.getTotalRevenue() +
-                   " - Reservas: " + record.getTotalReservations() +
-                   " - Noites: " + record.getTotalNights() +
-                   " - Hóspedes: " + record.getTotalGuests());
-        
-        calculateDerivedMetrics(record, referenceDate, periodType);
-        record.setUpdatedAt(LocalDateTime.now());
     }
 
-    private void addRoomTypeRevenue(FinancialRecord record, RoomType roomType, 
-                                  BigDecimal revenue, int nights, int reservations) {
-        
-        RoomTypeRevenue roomTypeRevenue = record.getRoomTypeRevenues().stream()
-            .filter(rtr -> rtr.getRoomType() == roomType)
-            .findFirst()
-            .orElse(new RoomTypeRevenue(roomType));
-        
-        roomTypeRevenue.addRevenue(revenue);
-        roomTypeRevenue.addNights(nights);
-        for (int i = 0; i < reservations; i++) {
-            roomTypeRevenue.incrementReservations();
+    private void rollUpMonths(Set<YearMonth> months) {
+        Set<Integer> years = new TreeSet<>();
+        for (YearMonth yearMonth : months) {
+            rollUp(PeriodType.MENSAL, yearMonth.atDay(1), yearMonth.atEndOfMonth(), PeriodType.DIARIO);
+            years.add(yearMonth.getYear());
         }
-        
-        record.getRoomTypeRevenues().add(roomTypeRevenue);
+        for (int year : years) {
+            rollUpYear(year);
+        }
+    }
+
+    private FinancialRecord rollUpYear(int year) {
+        return rollUp(PeriodType.ANUAL, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), PeriodType.MENSAL);
     }
 
-    private void calculateDerivedMetrics(FinancialRecord record, LocalDate referenceDate, PeriodType periodType) {
+    /**
+     * Consolida um período a partir dos registros do nível abaixo (diários para o
+     * mês, mensais para o ano) com duas consultas agregadas. Reservas e hóspedes
+     * vêm do razão e contam cada reserva uma vez no período, mesmo que atravesse
+     * vários dias ou meses; a soma diária (reserva-noites) fica em reservationNights.
+     */
+    private FinancialRecord rollUp(PeriodType periodType, LocalDate startDate, LocalDate endDate, PeriodType sourceType) {
+        FinancialRecord record = financialRecordRepo
+            .findByRecordDateAndPeriodType(startDate, periodType)
+            .orElse(new FinancialRecord(startDate, periodType));
+
+        FinancialPeriodTotal total = financialRecordRepo.sumTotalsByPeriodTypeAndDateRange(sourceType, startDate, endDate);
+        boolean hasSourceRecords = total != null && total.records() > 0;
+        if (!hasSourceRecords && record.getId() == null) {
+            return record;
+        }
+
+        record.setTotalRevenue(hasSourceRecords && total.revenue() != null ? total.revenue() : BigDecimal.ZERO);
+        LedgerPeriodCount reservations = hasSourceRecords ? revenueLedgerService.countReservations(startDate, endDate) : null;
+        record.setTotalReservations(reservations != null && reservations.reservations() != null ? reservations.reservations().intValue() : 0);
+        record.setTotalGuests(reservations != null && reservations.guests() != null ? reservations.guests().intValue() : 0);
+        record.setTotalNights(hasSourceRecords && total.nights() != null ? total.nights().intValue() : 0);
+        record.setReservationNights(hasSourceRecords && total.reservationNights() != null ? total.reservationNights().intValue() : 0);
+        record.setAverageDailyRate(BigDecimal.ZERO);
+        record.setOccupancyRate(BigDecimal.ZERO);
+        record.setRevPAR(BigDecimal.ZERO);
+
+        record.getRoomTypeRevenues().clear();
+        Map<RoomType, Long> roomTypeReservations = hasSourceRecords
+            ? revenueLedgerService.countReservationsByRoomType(startDate, endDate).stream()
+                .collect(Collectors.toMap(LedgerRoomTypeCount::roomType, LedgerRoomTypeCount::reservations))
+            : Map.of();
+        for (RoomTypeRevenueTotal roomTypeTotal : financialRecordRepo
+                .sumRoomTypeRevenuesByPeriodTypeAndDateRange(sourceType, startDate, endDate)) {
+            RoomTypeRevenue roomTypeRevenue = new RoomTypeRevenue(roomTypeTotal.roomType());
+            roomTypeRevenue.setRevenue(roomTypeTotal.revenue());
+            roomTypeRevenue.setNightsCount(roomTypeTotal.nights().intValue());
+            roomTypeRevenue.setReservationsCount(roomTypeReservations.getOrDefault(roomTypeTotal.roomType(), 0L).intValue());
+            record.getRoomTypeRevenues().add(roomTypeRevenue);
+        }
+
+        calculateDerivedMetrics(record, startDate, endDate);
+        record.setUpdatedAt(LocalDateTime.now());
+        FinancialRecord savedRecord = financialRecordRepo.save(record);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent("financial-record"));
+        return savedRecord;
+    }
+
+    /**
+     * ADR, ocupação e RevPAR do período. O denominador é a capacidade vendável
+     * de cada dia (quartos privativos e camas de quartos compartilhados fora de
+     * manutenção), não o número atual de quartos.
+     */
+    private void calculateDerivedMetrics(FinancialRecord record, LocalDate startDate, LocalDate endDate) {
+        long revenueCents = MoneyCents.of(record.getTotalRevenue());
         if (record.getTotalNights() > 0) {
-            BigDecimal adr = record.getTotalRevenue()
-                .divide(BigDecimal.valueOf(record.getTotalNights()), 2, RoundingMode.HALF_UP);
-            record.setAverageDailyRate(adr);
+            record.setAverageDailyRate(MoneyCents.toBigDecimal(
+                MoneyCents.divideHalfUp(revenueCents, record.getTotalNights())));
         }
         
-        int totalRooms = roomRepo.findAll().size();
-        int daysInPeriod = getDaysInPeriod(periodType, referenceDate);
-        int availableRoomNights = totalRooms * daysInPeriod;
+        long availableUnitNights = capacityService.getSellableUnitNights(startDate, endDate);
         
-        if (availableRoomNights > 0) {
+        if (availableUnitNights > 0) {
             BigDecimal occupancy = BigDecimal.valueOf(record.getTotalNights())
-                .divide(BigDecimal.valueOf(availableRoomNights), 4, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(availableUnitNights), 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100));
             record.setOccupancyRate(occupancy);
-        }
-        
-        if (totalRooms > 0 && daysInPeriod > 0) {
-            BigDecimal revPAR = record.getTotalRevenue()
-                .divide(BigDecimal.valueOf(totalRooms * daysInPeriod), 2, RoundingMode.HALF_UP);
-            record.setRevPAR(revPAR);
+            record.setRevPAR(MoneyCents.toBigDecimal(MoneyCents.divideHalfUp(revenueCents, availableUnitNights)));
         }
     }
 
-    private int getDaysInPeriod(PeriodType periodType, LocalDate referenceDate) {
-        switch (periodType) {
-            case DIARIO:
-                return 1;
-            case MENSAL:
-                return YearMonth.from(referenceDate).lengthOfMonth();
-            case ANUAL:
-                return referenceDate.lengthOfYear();
-            default:
-                return 1;
-        }
+    /**
+     * Volta a marca d'água para o início: o próximo processamento refaz todas
+     * as noites que têm lançamentos no razão.
+     */
+    @Transactional
+    public void resetProcessingWatermark() {
+        logger.info("🔄 Resetando marca d'água de processamento...");
+        moveWatermarkTo(0L);
     }
 
+    /**
+     * Considera processado tudo o que já está no razão.
+     */
     @Transactional
-    public void reprocessReservations(LocalDate startDate, LocalDate endDate) {
-        logger.info("🔄 Reprocessamento manual de reservas de " + startDate + " a " + endDate);
+    public void markLedgerAsProcessed() {
+        Long upToId = revenueLedgerService.getLastEntryId();
+        moveWatermarkTo(upToId != null ? upToId : 0L);
+        logger.info("📝 Marca d'água avançada até o lançamento #" + upToId);
+    }
 
-        List<Reserve> reservationsToReprocess = reserveRepo.findByReserveStatusAndProcessedAndDateRange(
-            ReserveStatus.CONFIRMED, true, startDate, endDate);
-        
-        for (Reserve reservation : reservationsToReprocess) {
-            reservation.setFinancialProcessed(false);
-        }
-        reserveRepo.saveAll(reservationsToReprocess);
-        
-        logger.info("✅ " + reservationsToReprocess.size() + " reservas marcadas para reprocessamento");
-        
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            processDailyRecord(date);
-        }
-        
-        logger.info("✅ Reprocessamento manual concluído");
+    public long getProcessedLedgerId() {
+        return watermarkRepo.findById(DAILY_RECORDS_WATERMARK)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(0L);
     }
 
-    @Transactional
-    public void resetAllProcessedFlags() {
-        logger.info("🔄 Resetando todas as flags de processamento...");
-        
-        List<Reserve> allReservations = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-        for (Reserve reservation : allReservations) {
-            reservation.setFinancialProcessed(false);
-        }
-        reserveRepo.saveAll(allReservations);
-        
-        logger.info("✅ " + allReservations.size() + " reservas marcadas como não processadas");
+    /**
+     * Uma reserva está processada quando nenhum lançamento dela passou da marca d'água.
+     */
+    public boolean isReservationProcessed(Long reserveId) {
+        return !revenueLedgerService.hasEntriesAfter(reserveId, getProcessedLedgerId());
     }
 
-    @Transactional
-    public void markAllReservationsAsProcessed() {
-        logger.info("📝 Marcando todas as reservas confirmadas como processadas...");
-        
-        int updatedCount = reserveRepo.markReservationsAsProcessedByStatus(ReserveStatus.CONFIRMED);
-        
-        logger.info("✅ " + updatedCount + " reservas confirmadas marcadas como processadas");
+    private void moveWatermarkTo(Long ledgerId) {
+        ProcessingWatermark watermark = watermarkRepo.findById(DAILY_RECORDS_WATERMARK)
+            .orElseGet(() -> new ProcessingWatermark(DAILY_RECORDS_WATERMARK));
+        watermark.setLastLedgerId(ledgerId);
+        watermarkRepo.save(watermark);
     }
     
     public List<FinancialRecord> getDailyRecords(LocalDate startDate, LocalDate endDate) {
@@ -360,8 +420,11 @@ public class FinancialRecordService {
         return financialRecordRepo.findByPeriodTypeOrderByRecordDateDesc(PeriodType.ANUAL);
     }
 
-    public Map<String, Object> getFinancialDashboard() {
-        LocalDate today = LocalDate.now();
+    /**
+     * Parte do painel que vem dos registros financeiros: muda só quando os
+     * registros diários são gravados.
+     */
+    public Map<String, Object> getRecordDashboard(LocalDate today) {
         LocalDate firstDayOfMonth = today.withDayOfMonth(1);
         LocalDate firstDayOfYear = today.withDayOfYear(1);
         
@@ -370,16 +433,13 @@ public class FinancialRecordService {
             .findByRecordDateAndPeriodType(today, PeriodType.DIARIO)
             .orElse(new FinancialRecord(today, PeriodType.DIARIO));
         
+        BigDecimal monthlyRevenue = financialRecordRepo
+            .sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfMonth, today);
+        BigDecimal annualRevenue = financialRecordRepo
+            .sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfYear, today);
         dashboard.put("dailyRevenue", todayRecord.getTotalRevenue() != null ? todayRecord.getTotalRevenue() : BigDecimal.ZERO);
-        dashboard.put("monthlyRevenue", financialRecordRepo
-            .sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfMonth, today) != null ? 
-            financialRecordRepo.sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfMonth, today) : BigDecimal.ZERO);
-        dashboard.put("annualRevenue", financialRecordRepo
-            .sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfYear, today) != null ? 
-            financialRecordRepo.sumTotalRevenueByPeriodTypeAndDateRange(PeriodType.DIARIO, firstDayOfYear, today) : BigDecimal.ZERO);
-        
-        BigDecimal todayForecast = calculateTodayForecast();
-        dashboard.put("todayForecast", todayForecast);
+        dashboard.put("monthlyRevenue", monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO);
+        dashboard.put("annualRevenue", annualRevenue != null ? annualRevenue : BigDecimal.ZERO);
         dashboard.put("hasActualData", todayRecord.getTotalRevenue().compareTo(BigDecimal.ZERO) > 0);
         
         dashboard.put("occupancyRate", todayRecord.getOccupancyRate() != null ? 
@@ -390,37 +450,11 @@ public class FinancialRecordService {
             todayRecord.getRevPAR() : BigDecimal.ZERO);
         dashboard.put("totalNights", todayRecord.getTotalNights() != null ? 
             todayRecord.getTotalNights() : 0);
-        
-        long todayReservations = findUnprocessedReservationsForDate(today).size();
-        dashboard.put("todayReservations", todayReservations);
-        long occupiedRooms = roomRepo.findAll().stream()
-            .filter(room -> room.getRoomStatus().name().equals("OCCUPIED"))
-            .count();
-        dashboard.put("occupiedRooms", occupiedRooms);
         return dashboard;
     }
 
-    private BigDecimal calculateTodayForecast() {
-        LocalDate today = LocalDate.now();
-        List<Reserve> allConfirmed = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-
-        List<Reserve> upcomingReservations = allConfirmed.stream()
-            .filter(reserve -> reserve.getReservedDays() != null && !reserve.getReservedDays().isEmpty())
-            .filter(reserve -> {
-                LocalDate firstDay = reserve.getReservedDays().stream()
-                    .min(LocalDate::compareTo)
-                    .orElse(LocalDate.MAX);
-                return !firstDay.isBefore(today);
-            })
-            .collect(Collectors.toList());
-        
-        BigDecimal totalForecast = BigDecimal.ZERO;
-        for (Reserve reservation : upcomingReservations) {
-            totalForecast = totalForecast.add(reservation.calculateTotalValue());
-        }
-        
-        logger.info("🔮 Previsão total de reservas futuras: " + totalForecast);
-        return totalForecast;
+    public long countOccupiedRooms() {
+        return roomRepo.countByRoomStatus(RoomStatus.OCCUPIED);
     }
 
     public void delete(Long id) {
@@ -434,61 +468,10 @@ public class FinancialRecordService {
 
     @Transactional
     public FinancialRecord forceProcessDate(LocalDate date) {
-        List<Reserve> allConfirmed = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-        List<Reserve> reservations = allConfirmed.stream()
-            .filter(reserve -> reserve.getReservedDays() != null && reserve.getReservedDays().contains(date))
-            .collect(Collectors.toList());
-        FinancialRecord record = financialRecordRepo
-            .findByRecordDateAndPeriodType(date, PeriodType.DIARIO)
-            .orElse(new FinancialRecord(date, PeriodType.DIARIO));
-        
-        if (!reservations.isEmpty()) {
-            record.setTotalRevenue(BigDecimal.ZERO);
-            record.setTotalReservations(0);
-            record.setTotalGuests(0);
-            record.setTotalNights(0);
-            record.getRoomTypeRevenues().clear();
-            
-            calculateMetricsForce(record, reservations, date, PeriodType.DIARIO);
-            FinancialRecord savedRecord = financialRecordRepo.save(record);
-            logger.info("✅ Registro forçado salvo: " + date + " - " + 
-                       reservations.size() + " reservas - Receita: " + savedRecord.getTotalRevenue());
-            return savedRecord;
-        } else {
-            logger.info("⏭️ Nenhuma reserva encontrada para: " + date);
-            return record;
-        }
-    }
-
-    private void calculateMetricsForce(FinancialRecord record, List<Reserve> reservations, 
-                                LocalDate referenceDate, PeriodType periodType) {
-
-        for (Reserve reservation : reservations) {
-            BigDecimal dailyRevenue = calculateDailyRevenue(reservation, referenceDate);
-            int roomCount = reservation.getRooms().size();
-            
-            record.addRevenue(dailyRevenue);
-            record.incrementReservations();
-            record.addGuests(reservation.getGuest().size());
-            record.addNights(roomCount);
-
-            if (!reservation.getRooms().isEmpty()) {
-                if (roomCount == 1) {
-                    Room room = reservation.getRooms().iterator().next();
-                    addRoomTypeRevenue(record, room.getRoomType(), dailyRevenue, 1, 1);
-                } else {
-                    BigDecimal valuePerRoom = dailyRevenue.divide(
-                        BigDecimal.valueOf(roomCount), 2, RoundingMode.HALF_UP);
-                    
-                    for (Room room : reservation.getRooms()) {
-                        addRoomTypeRevenue(record, room.getRoomType(), valuePerRoom, 1, 1);
-                    }
-                }
-            }
-        }
-        
-        calculateDerivedMetrics(record, referenceDate, periodType);
-        record.setUpdatedAt(LocalDateTime.now());
+        logger.info("⚡ Reprocessamento forçado para: " + date);
+        FinancialRecord dailyRecord = rebuildDailyRecord(date);
+        rollUpMonthAndYear(date);
+        return dailyRecord;
     }
 
     @Transactional
@@ -499,7 +482,7 @@ public class FinancialRecordService {
         for (Reserve reserve : allReservations) {
             logger.info("🔍 Reserva #" + reserve.getId() + 
                        " - Status: " + reserve.getReserveStatus() +
-                       " - Processada: " + reserve.getFinancialProcessed() +
+                       " - Processada: " + isReservationProcessed(reserve.getId()) +
                        " - Dias: " + reserve.getReservedDays() +
                        " - Hóspedes: " + reserve.getGuest().size() +
                        " - Quartos: " + reserve.getRooms().size() +
@@ -515,7 +498,7 @@ public class FinancialRecordService {
         
         for (Reserve reserve : todayReservations) {
             logger.info("✅ Reserva HOJE #" + reserve.getId() + 
-                       " - Processada: " + reserve.getFinancialProcessed() +
+                       " - Processada: " + isReservationProcessed(reserve.getId()) +
                        " - Valor: " + reserve.calculateTotalValue());
         }
     }
@@ -536,7 +519,7 @@ public class FinancialRecordService {
         Map<String, Object> status = new HashMap<>();
         status.put("id", reservation.getId());
         status.put("status", reservation.getReserveStatus());
-        status.put("financialProcessed", reservation.getFinancialProcessed());
+        status.put("financialProcessed", isReservationProcessed(reservation.getId()));
         status.put("reservedDays", reservation.getReservedDays());
         status.put("totalValue", reservation.calculateTotalValue());
         status.put("numberOfDays", reservation.getNumberOfDays());
@@ -556,65 +539,19 @@ public class FinancialRecordService {
     @Transactional
     public FinancialRecord processForecast(LocalDate date) {
         logger.info("🔮 Processando previsão para: " + date);
-        
-        FinancialRecord forecastRecord = financialRecordRepo
-            .findByRecordDateAndPeriodType(date, PeriodType.DIARIO)
-            .orElse(new FinancialRecord(date, PeriodType.DIARIO));
-        
-        List<Reserve> allConfirmed = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-        List<Reserve> reservationsForDate = allConfirmed.stream()
-            .filter(reserve -> reserve.getReservedDays() != null && reserve.getReservedDays().contains(date))
-            .collect(Collectors.toList());
-        
-        logger.info("📊 Previsão - " + reservationsForDate.size() + " reservas para " + date);
-        
-        if (!reservationsForDate.isEmpty()) {
-            calculateMetricsForce(forecastRecord, reservationsForDate, date, PeriodType.DIARIO);
-            FinancialRecord savedRecord = financialRecordRepo.save(forecastRecord);
-            logger.info("✅ Previsão salva: " + date + " - Receita prevista: " + savedRecord.getTotalRevenue());
-            return savedRecord;
-        } else {
-            logger.info("⏭️ Nenhuma reserva para previsão em: " + date);
-            return forecastRecord;
-        }
+        FinancialRecord dailyRecord = rebuildDailyRecord(date);
+        rollUpMonthAndYear(date);
+        return dailyRecord;
     }
 
     @Transactional
     public List<FinancialRecord> processForecastPeriod(LocalDate startDate, LocalDate endDate) {
         logger.info("🔮 Processando previsão para período: " + startDate + " a " + endDate);
         
-        List<FinancialRecord> records = new ArrayList<>();
-        
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            FinancialRecord record = processForecast(date);
-            records.add(record);
-        }
+        List<FinancialRecord> records = rebuildDailyRecords(startDate, endDate);
+        rollUpRange(startDate, endDate);
         
         logger.info("✅ Previsão concluída - " + records.size() + " dias processados");
         return records;
     }
-
-    @Transactional
-    public String processAllReservations() {
-        logger.info("🔄 Processando TODAS as reservas existentes...");
-        
-        LocalDate today = LocalDate.now();
-        List<Reserve> allReservations = reserveRepo.findByReserveStatus(ReserveStatus.CONFIRMED);
-        Set<LocalDate> allReservedDates = allReservations.stream()
-            .filter(reserve -> reserve.getReservedDays() != null)
-            .flatMap(reserve -> reserve.getReservedDays().stream())
-            .collect(Collectors.toSet());
-        
-        logger.info("📊 Encontradas " + allReservedDates.size() + " datas únicas com reservas");
-        
-        int processedCount = 0;
-        for (LocalDate date : allReservedDates) {
-            forceProcessDate(date);
-            processedCount++;
-        }
-        
-        String result = "Processadas " + processedCount + " datas com reservas";
-        logger.info("✅ " + result);
-        return result;
-    }
-}
\ No newline at end of file
+}
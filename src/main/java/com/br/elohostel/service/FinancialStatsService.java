@@ -0,0 +1,155 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.dtos.PeriodTypeCount;
+import com.br.elohostel.model.dtos.ReserveStatusCount;
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.repository.ArchivedReserveRepository;
+import com.br.elohostel.repository.FinancialRecordRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+import com.br.elohostel.repository.ReserveRepository;
+
+/**
+ * Estatísticas de reservas e registros financeiros calculadas com duas
+ * consultas COUNT/SUM agrupadas. O health check reaproveita o último resultado
+ * por alguns segundos, então pode ser chamado pelo balanceador sem custo.
+ */
+@Service
+public class FinancialStatsService {
+
+    private final ReserveRepository reserveRepo;
+    private final ArchivedReserveRepository archivedReserveRepo;
+    private final FinancialRecordRepository financialRecordRepo;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final RevenueLedgerService revenueLedgerService;
+    private final long healthCacheMillis;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile CachedStats cachedStats;
+
+    public FinancialStatsService(ReserveRepository reserveRepo,
+                                 ArchivedReserveRepository archivedReserveRepo,
+                                 FinancialRecordRepository financialRecordRepo,
+                                 ProcessingWatermarkRepository watermarkRepo,
+                                 RevenueLedgerService revenueLedgerService,
+                                 @Value("${app.financial.health.cache-seconds:30}") long healthCacheSeconds) {
+        this.reserveRepo = reserveRepo;
+        this.archivedReserveRepo = archivedReserveRepo;
+        this.financialRecordRepo = financialRecordRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.revenueLedgerService = revenueLedgerService;
+        this.healthCacheMillis = healthCacheSeconds * 1000;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = computeStats();
+        cachedStats = new CachedStats(stats, System.currentTimeMillis());
+        return stats;
+    }
+
+    public Map<String, Object> getHealth() {
+        Map<String, Object> stats = cachedStatsForHealth();
+
+        Map<String, Object> health = new HashMap<>();
+        health.put("status", "UP");
+        health.put("timestamp", LocalDateTime.now());
+        health.put("service", "FinancialRecordService");
+        health.put("totalReservations", stats.get("totalReservations"));
+        health.put("totalFinancialRecords", stats.get("totalFinancialRecords"));
+        health.put("confirmedReservations", stats.get("confirmedReservations"));
+        return health;
+    }
+
+    private Map<String, Object> cachedStatsForHealth() {
+        CachedStats current = cachedStats;
+        if (current != null && isFresh(current)) {
+            return current.stats();
+        }
+        // Apenas uma requisição recalcula; as demais usam o valor anterior, se houver
+        if (!refreshLock.tryLock()) {
+            if (current != null) {
+                return current.stats();
+            }
+            refreshLock.lock();
+        }
+        try {
+            current = cachedStats;
+            if (current == null || !isFresh(current)) {
+                current = new CachedStats(computeStats(), System.currentTimeMillis());
+                cachedStats = current;
+            }
+            return current.stats();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isFresh(CachedStats current) {
+        return System.currentTimeMillis() - current.computedAt() < healthCacheMillis;
+    }
+
+    private Map<String, Object> computeStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        // Contagens somam as tabelas quentes e o arquivo frio
+        long totalReservations = 0;
+        long confirmedReservations = 0;
+        long archivedReservations = 0;
+        List<ReserveStatusCount> archivedCounts = archivedReserveRepo.countByReserveStatusGrouped();
+        for (ReserveStatusCount count : archivedCounts) {
+            archivedReservations += count.reservations();
+        }
+        List<ReserveStatusCount> counts = new ArrayList<>(reserveRepo.countByReserveStatusGrouped());
+        counts.addAll(archivedCounts);
+        for (ReserveStatusCount count : counts) {
+            totalReservations += count.reservations();
+            if (count.reserveStatus() == ReserveStatus.CONFIRMED) {
+                confirmedReservations += count.reservations();
+            }
+        }
+        stats.put("totalReservations", totalReservations);
+        stats.put("confirmedReservations", confirmedReservations);
+        stats.put("archivedReservations", archivedReservations);
+
+        // Pendentes: reservas com lançamentos no razão acima da marca d'água
+        long processedLedgerId = watermarkRepo.findById(FinancialRecordService.DAILY_RECORDS_WATERMARK)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(0L);
+        long unprocessedReservations = revenueLedgerService.countReservationsPostedAfter(processedLedgerId);
+        stats.put("processedLedgerId", processedLedgerId);
+        stats.put("processedReservations", Math.max(confirmedReservations - unprocessedReservations, 0));
+        stats.put("unprocessedReservations", unprocessedReservations);
+
+        List<PeriodTypeCount> recordCounts = financialRecordRepo.countByPeriodTypeGrouped();
+        long totalRecords = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        Map<PeriodType, Long> recordsByPeriod = new HashMap<>();
+        for (PeriodTypeCount count : recordCounts) {
+            totalRecords += count.records();
+            recordsByPeriod.put(count.periodType(), count.records());
+            if (count.revenue() != null) {
+                totalRevenue = totalRevenue.add(count.revenue());
+            }
+        }
+        stats.put("totalFinancialRecords", totalRecords);
+        stats.put("dailyRecords", recordsByPeriod.getOrDefault(PeriodType.DIARIO, 0L));
+        stats.put("monthlyRecords", recordsByPeriod.getOrDefault(PeriodType.MENSAL, 0L));
+        stats.put("annualRecords", recordsByPeriod.getOrDefault(PeriodType.ANUAL, 0L));
+        stats.put("totalRevenue", totalRevenue);
+        return stats;
+    }
+
+    private record CachedStats(Map<String, Object> stats, long computedAt) {}
+}
@@ -19,6 +19,7 @@ import com.br.elohostel.model.Room;
 import com.br.elohostel.model.enums.ReserveStatus;
 import com.br.elohostel.repository.AirbnbSyncRepository;
 import com.br.elohostel.repository.ReserveRepository;
+import com.br.elohostel.service.ICalFeedCache.ICalFeed;
 
 import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.DateTime;
@@ -36,11 +37,14 @@ public class ICalExportService {
 
     private final ReserveRepository reserveRepository;
     private final AirbnbSyncRepository airbnbSyncRepository;
+    private final ICalFeedCache icalFeedCache;
 
     public ICalExportService(ReserveRepository reserveRepository,
-                           AirbnbSyncRepository airbnbSyncRepository) {
+                           AirbnbSyncRepository airbnbSyncRepository,
+                           ICalFeedCache icalFeedCache) {
         this.reserveRepository = reserveRepository;
         this.airbnbSyncRepository = airbnbSyncRepository;
+        this.icalFeedCache = icalFeedCache;
     }
 
     /**
@@ -56,6 +60,16 @@ public class ICalExportService {
         return "/api/ical/export/" + propertyId + "/" + token + ".ics";
     }
 
+    /**
+     * Feed iCal do property com ETag, servido do cache enquanto não expirar
+     */
+    public ICalFeed getICalFeed(String propertyId) {
+        return icalFeedCache.get(feedKey(propertyId), () -> generateICalContent(propertyId));
+    }
+
+    private String feedKey(String propertyId) {
+        return "ical:" + propertyId;
+    }
 
     public String generateICalContent(String propertyId) {
         try {
@@ -238,6 +252,7 @@ public class ICalExportService {
         try {
             System.out.println("🔄 Forçando atualização do iCal para: " + propertyId);
             
+            icalFeedCache.evict(feedKey(propertyId));
             String newICalContent = generateICalContent(propertyId);
             
             System.out.println("📊 iCal atualizado para: " + propertyId);
@@ -0,0 +1,152 @@
+package com.br.elohostel.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache dos feeds .ics exportados. Cada feed é renderizado no máximo uma vez
+ * por janela de TTL e recebe uma ETag forte derivada do conteúdo (ignorando
+ * DTSTAMP), de forma que pollers dos canais recebam 304 enquanto nada mudar.
+ * Cada feed guarda a versão do calendário com que foi renderizado; uma mudança
+ * confirmada de reserva ou quarto, nesta ou em outra instância, avança a
+ * versão no banco e o feed é renderizado de novo no próximo pedido.
+ */
+@Service
+public class ICalFeedCache {
+    private static final Logger logger = Logger.getLogger(ICalFeedCache.class.getName());
+
+    private final long ttlMillis;
+    private final CacheVersionService cacheVersions;
+    private final ConcurrentHashMap<String, ICalFeed> feeds = new ConcurrentHashMap<>();
+    // Renderizações em andamento por feed e versão: quem chega durante uma espera por ela em vez de renderizar de novo
+    private final ConcurrentHashMap<String, CompletableFuture<ICalFeed>> rendering = new ConcurrentHashMap<>();
+
+    public ICalFeedCache(@Value("${app.ical.feed-ttl-seconds:60}") long ttlSeconds,
+                         CacheVersionService cacheVersions) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.cacheVersions = cacheVersions;
+    }
+
+    public long getTtlSeconds() {
+        return ttlMillis / 1000;
+    }
+
+    /**
+     * A renderização roda fora do mapa: uma consulta lenta não segura o
+     * ConcurrentHashMap para os outros feeds.
+     */
+    public ICalFeed get(String feedKey, Supplier<String> renderer) {
+        // Versão lida antes de renderizar: mudança durante a renderização faz o próximo pedido renderizar de novo
+        long dataVersion = cacheVersions.current(CacheVersionService.CALENDAR);
+        ICalFeed cached = feeds.get(feedKey);
+        if (cached != null && cached.dataVersion() == dataVersion && isFresh(cached)) {
+            return cached;
+        }
+
+        String renderKey = feedKey + "@" + dataVersion;
+        CompletableFuture<ICalFeed> pending = new CompletableFuture<>();
+        CompletableFuture<ICalFeed> inFlight = rendering.putIfAbsent(renderKey, pending);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            ICalFeed feed = render(feedKey, renderer, feeds.get(feedKey), dataVersion);
+            pending.complete(feed);
+            return feed;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(renderKey, pending);
+        }
+    }
+
+    public void evict(String feedKey) {
+        feeds.remove(feedKey);
+    }
+
+    public void evictAll() {
+        feeds.clear();
+    }
+
+    private ICalFeed render(String feedKey, Supplier<String> renderer, ICalFeed current, long dataVersion) {
+        String content = renderer.get();
+        String version = fingerprint(content);
+        long now = System.currentTimeMillis();
+
+        ICalFeed feed;
+        // Conteúdo igual: mantém os mesmos bytes para que a ETag continue forte
+        if (current != null && current.version().equals(version)) {
+            feed = current.renewedAt(now, dataVersion);
+        } else {
+            feed = new ICalFeed(version, content.getBytes(StandardCharsets.UTF_8), gzip(content), now, dataVersion);
+            logger.info("📅 Feed iCal renderizado: " + feedKey + " (versão " + version + ")");
+        }
+
+        feeds.put(feedKey, feed);
+        return feed;
+    }
+
+    private boolean isFresh(ICalFeed feed) {
+        return System.currentTimeMillis() - feed.renderedAt() < ttlMillis;
+    }
+
+    private String fingerprint(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : content.split("\r?\n")) {
+                if (line.startsWith("DTSTAMP")) {
+                    continue;
+                }
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private byte[] gzip(String content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao compactar feed iCal", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public record ICalFeed(String version, byte[] body, byte[] gzipBody, long renderedAt, long dataVersion) {
+
+        public String etag() {
+            return "\"" + version + "\"";
+        }
+
+        public String gzipEtag() {
+            return "\"" + version + "-gzip\"";
+        }
+
+        ICalFeed renewedAt(long now, long newDataVersion) {
+            return new ICalFeed(version, body, gzipBody, now, newDataVersion);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.br.elohostel.service;
+
+import com.br.elohostel.model.InventoryChange;
+
+/**
+ * Publicado quando quartos ou camas vendáveis mudam, para invalidar o cache
+ * de capacidade depois do commit.
+ */
+public record InventoryChangedEvent(InventoryChange change) {
+
+}
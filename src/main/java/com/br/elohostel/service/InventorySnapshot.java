@@ -0,0 +1,224 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.dtos.BedInventoryRow;
+import com.br.elohostel.model.dtos.RoomInventoryRow;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.repository.BedRepository;
+import com.br.elohostel.repository.RoomRepository;
+import com.br.elohostel.util.MoneyCents;
+
+/**
+ * Fotografia imutável do inventário (quartos e camas) em arrays primitivos,
+ * para as perguntas quentes de reserva, preço e exportação sem alocação e
+ * sem carregar quartos e camas do banco. A fotografia nunca muda: cada pedido
+ * só lê a versão do inventário (uma linha por chave primária) e, se ela
+ * avançou, inclusive por mudança feita em outra instância, uma nova fotografia
+ * é montada e trocada de uma vez; os leitores seguem com a que já tinham em mãos.
+ */
+@Service
+public class InventorySnapshot {
+    private static final Logger logger = Logger.getLogger(InventorySnapshot.class.getName());
+
+    private final RoomRepository roomRepo;
+    private final BedRepository bedRepo;
+    private final CacheVersionService cacheVersions;
+
+    private volatile Snapshot snapshot;
+
+    public InventorySnapshot(RoomRepository roomRepo, BedRepository bedRepo, CacheVersionService cacheVersions) {
+        this.roomRepo = roomRepo;
+        this.bedRepo = bedRepo;
+        this.cacheVersions = cacheVersions;
+    }
+
+    /**
+     * Fotografia atual. Quem faz várias perguntas deve guardar a referência
+     * para responder todas sobre o mesmo inventário.
+     */
+    public Snapshot current() {
+        // Versão lida antes da carga: se o inventário mudar no meio, a próxima leitura recarrega
+        long currentVersion = cacheVersions.current(CacheVersionService.INVENTORY);
+        Snapshot current = snapshot;
+        if (current != null && current.version == currentVersion) {
+            return current;
+        }
+        Snapshot loaded = load(currentVersion);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    private Snapshot load(long loadedVersion) {
+        List<RoomInventoryRow> rooms = roomRepo.findInventoryRows();
+        List<BedInventoryRow> beds = bedRepo.findInventoryRows();
+
+        int roomCount = rooms.size();
+        long[] roomIds = new long[roomCount];
+        int[] roomNumbers = new int[roomCount];
+        RoomType[] roomTypes = new RoomType[roomCount];
+        BigDecimal[] prices = new BigDecimal[roomCount];
+        long[] priceCents = new long[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            RoomInventoryRow room = rooms.get(i);
+            roomIds[i] = room.id();
+            roomNumbers[i] = room.number() != null ? room.number() : Integer.MIN_VALUE;
+            roomTypes[i] = room.roomType();
+            prices[i] = room.price();
+            priceCents[i] = MoneyCents.of(room.price());
+        }
+
+        // Camas agrupadas por quarto: as do quarto i ficam em bedIds[bedStart[i], bedStart[i + 1])
+        int[] bedStart = new int[roomCount + 1];
+        long[] bedIds = new long[beds.size()];
+        int bedCount = 0;
+        int roomIndex = 0;
+        for (BedInventoryRow bed : beds) {
+            while (roomIndex < roomCount && roomIds[roomIndex] < bed.roomId()) {
+                bedStart[++roomIndex] = bedCount;
+            }
+            if (roomIndex < roomCount && roomIds[roomIndex] == bed.roomId()) {
+                bedIds[bedCount++] = bed.bedId();
+            }
+        }
+        while (roomIndex < roomCount) {
+            bedStart[++roomIndex] = bedCount;
+        }
+
+        Snapshot loaded = new Snapshot(loadedVersion, roomIds, roomNumbers, roomTypes, prices, priceCents,
+            bedStart, Arrays.copyOf(bedIds, bedCount));
+        logger.fine("🏨 Inventário em memória: " + roomCount + " quartos, " + bedCount + " camas");
+        return loaded;
+    }
+
+    /**
+     * Quartos em ordem de id, com as camas de cada um em faixas contíguas.
+     * As consultas recebem o índice do quarto (de indexOfNumber ou
+     * indexOfRoomId) e não alocam nada.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final long[] roomIds;
+        private final int[] roomNumbers;
+        private final RoomType[] roomTypes;
+        private final BigDecimal[] prices;
+        private final long[] priceCents;
+        private final int[] bedStart;
+        private final long[] bedIds;
+        // Números em ordem crescente e o índice do quarto de cada um, para busca binária
+        private final int[] sortedNumbers;
+        private final int[] numberToIndex;
+
+        private Snapshot(long version, long[] roomIds, int[] roomNumbers, RoomType[] roomTypes,
+                         BigDecimal[] prices, long[] priceCents, int[] bedStart, long[] bedIds) {
+            this.version = version;
+            this.roomIds = roomIds;
+            this.roomNumbers = roomNumbers;
+            this.roomTypes = roomTypes;
+            this.prices = prices;
+            this.priceCents = priceCents;
+            this.bedStart = bedStart;
+            this.bedIds = bedIds;
+
+            Integer[] order = new Integer[roomIds.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(roomNumbers[a], roomNumbers[b]));
+            this.sortedNumbers = new int[order.length];
+            this.numberToIndex = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedNumbers[i] = roomNumbers[order[i]];
+                numberToIndex[i] = order[i];
+            }
+        }
+
+        public int roomCount() {
+            return roomIds.length;
+        }
+
+        public int bedCount() {
+            return bedIds.length;
+        }
+
+        /**
+         * Índice do quarto com esse número, ou -1 se não existe
+         */
+        public int indexOfNumber(int roomNumber) {
+            int position = Arrays.binarySearch(sortedNumbers, roomNumber);
+            return position >= 0 ? numberToIndex[position] : -1;
+        }
+
+        /**
+         * Índice do quarto com esse id, ou -1 se não existe
+         */
+        public int indexOfRoomId(long roomId) {
+            int position = Arrays.binarySearch(roomIds, roomId);
+            return position >= 0 ? position : -1;
+        }
+
+        public long roomId(int index) {
+            return roomIds[index];
+        }
+
+        public int roomNumber(int index) {
+            return roomNumbers[index];
+        }
+
+        public RoomType roomType(int index) {
+            return roomTypes[index];
+        }
+
+        public BigDecimal price(int index) {
+            return prices[index];
+        }
+
+        public long priceCents(int index) {
+            return priceCents[index];
+        }
+
+        public boolean isSharedRoom(int index) {
+            return roomTypes[index] == RoomType.SHARED;
+        }
+
+        public boolean isAnyExclusiveType(int index) {
+            RoomType type = roomTypes[index];
+            return type != null && type != RoomType.SHARED;
+        }
+
+        public int bedCount(int index) {
+            return bedStart[index + 1] - bedStart[index];
+        }
+
+        /**
+         * Id da n-ésima cama do quarto (0 ≤ bed < bedCount(index))
+         */
+        public long bedId(int index, int bed) {
+            return bedIds[bedStart[index] + bed];
+        }
+
+        /**
+         * Ids das camas do quarto em lista, para carregar as entidades de uma vez
+         */
+        public List<Long> bedIds(int index) {
+            List<Long> ids = new ArrayList<>(bedCount(index));
+            for (int i = bedStart[index]; i < bedStart[index + 1]; i++) {
+                ids.add(bedIds[i]);
+            }
+            return ids;
+        }
+    }
+}
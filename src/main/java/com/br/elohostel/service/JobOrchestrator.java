@@ -0,0 +1,152 @@
+package com.br.elohostel.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.elohostel.model.JobRun;
+import com.br.elohostel.repository.JobRunRepository;
+
+/**
+ * Orquestra os jobs financeiros agendados. Cada job declara suas dependências
+ * e a janela de noites que recalcula; antes de rodar, as dependências rodam, e
+ * o job é pulado se nenhum lançamento do razão na sua janela nem mudança de
+ * capacidade que a afete apareceu desde a última execução bem-sucedida. Toda
+ * execução fica registrada em TB_JOB_RUN.
+ */
+@Service
+public class JobOrchestrator {
+    private static final Logger logger = Logger.getLogger(JobOrchestrator.class.getName());
+
+    private final JobRunRepository jobRunRepo;
+    private final RevenueLedgerService revenueLedgerService;
+    private final CapacityService capacityService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public JobOrchestrator(JobRunRepository jobRunRepo,
+                           RevenueLedgerService revenueLedgerService,
+                           CapacityService capacityService,
+                           PlatformTransactionManager transactionManager) {
+        this.jobRunRepo = jobRunRepo;
+        this.revenueLedgerService = revenueLedgerService;
+        this.capacityService = capacityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Janela de noites que um job recalcula. Uma janela sem datas cobre o razão inteiro.
+     */
+    public record Window(LocalDate startDate, LocalDate endDate) {
+        public static final Window ALL = new Window(null, null);
+
+        public static Window of(LocalDate date) {
+            return new Window(date, date);
+        }
+    }
+
+    public record Job(String name, List<String> dependsOn, Function<LocalDate, Window> window, Runnable action) {}
+
+    public synchronized void register(String name, List<String> dependsOn, Function<LocalDate, Window> window, Runnable action) {
+        for (String dependency : dependsOn) {
+            if (!jobs.containsKey(dependency)) {
+                throw new IllegalArgumentException("Dependência não registrada para o job " + name + ": " + dependency);
+            }
+        }
+        jobs.put(name, new Job(name, List.copyOf(dependsOn), window, action));
+    }
+
+    public JobRun run(String name) {
+        return run(name, false);
+    }
+
+    /**
+     * Executa o job (e antes as suas dependências). Com force, roda mesmo sem mudanças na janela.
+     */
+    public JobRun run(String name, boolean force) {
+        Job job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("Job desconhecido: " + name);
+        }
+
+        for (String dependency : job.dependsOn()) {
+            JobRun dependencyRun = run(dependency, false);
+            if (dependencyRun.getStatus() == JobRun.Status.FAILED) {
+                JobRun run = newRun(name);
+                run.finish(JobRun.Status.FAILED, "Dependência falhou: " + dependency);
+                logger.warning("⚠️ Job " + name + " não executado: dependência " + dependency + " falhou");
+                return jobRunRepo.save(run);
+            }
+        }
+
+        if (!running.add(name)) {
+            JobRun run = newRun(name);
+            run.finish(JobRun.Status.SKIPPED, "Execução anterior ainda em andamento");
+            logger.info("⏭️ Job " + name + " já está em execução, pulando");
+            return jobRunRepo.save(run);
+        }
+        try {
+            return execute(job, force);
+        } finally {
+            running.remove(name);
+        }
+    }
+
+    private JobRun execute(Job job, boolean force) {
+        // Marcas tiradas antes do trabalho: o que mudar durante a execução conta para a próxima
+        JobRun run = newRun(job.name());
+        Window window = job.window().apply(LocalDate.now());
+
+        if (!force && !isDirty(job.name(), window)) {
+            run.finish(JobRun.Status.SKIPPED, "Nenhuma mudança na janela desde a última execução");
+            logger.info("⏭️ Job " + job.name() + " pulado: nada mudou na janela");
+            return jobRunRepo.save(run);
+        }
+
+        run = jobRunRepo.save(run);
+        logger.info("🔄 Job " + job.name() + " iniciado");
+        try {
+            transactionTemplate.executeWithoutResult(status -> job.action().run());
+            run.finish(JobRun.Status.SUCCEEDED, null);
+            logger.info("✅ Job " + job.name() + " concluído em " + run.getDurationMillis() + " ms");
+        } catch (RuntimeException e) {
+            run.finish(JobRun.Status.FAILED, e.getMessage());
+            logger.severe("❌ Job " + job.name() + " falhou: " + e.getMessage());
+        }
+        return jobRunRepo.save(run);
+    }
+
+    private boolean isDirty(String name, Window window) {
+        return jobRunRepo.findFirstByJobNameAndStatusOrderByIdDesc(name, JobRun.Status.SUCCEEDED)
+            .map(last -> revenueLedgerService.hasNightsPostedAfter(last.getLedgerMark(), window.startDate(), window.endDate())
+                || capacityService.hasChangesAfter(last.getInventoryMark(), window.endDate()))
+            .orElse(true);
+    }
+
+    private JobRun newRun(String name) {
+        return new JobRun(name, revenueLedgerService.getLastEntryId(), capacityService.getLastChangeId());
+    }
+
+    public List<String> getJobNames() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    public List<JobRun> getHistory(String name) {
+        if (name == null) {
+            return jobRunRepo.findTop50ByOrderByIdDesc();
+        }
+        return jobRunRepo.findTop20ByJobNameOrderByIdDesc(name);
+    }
+}
@@ -0,0 +1,158 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.BookingPickup;
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.dtos.LedgerPickupTotal;
+import com.br.elohostel.model.dtos.PaceRow;
+import com.br.elohostel.model.dtos.PickupTotal;
+import com.br.elohostel.repository.BookingPickupRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Pace e pickup da carteira (on the books). O job diário consome só os
+ * lançamentos do razão acima da marca d'água e acumula, por dia de registro e
+ * data de estadia, quanto a carteira mudou; os endpoints leem apenas essa tabela.
+ */
+@Service
+public class PaceService {
+    private static final Logger logger = Logger.getLogger(PaceService.class.getName());
+
+    public static final String PICKUP_WATERMARK = "booking-pickup";
+    // Mesmo dia da semana do ano anterior
+    private static final int LAST_YEAR_OFFSET_DAYS = 364;
+
+    private final BookingPickupRepository pickupRepo;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final RevenueLedgerService revenueLedgerService;
+
+    public PaceService(BookingPickupRepository pickupRepo,
+                       ProcessingWatermarkRepository watermarkRepo,
+                       RevenueLedgerService revenueLedgerService) {
+        this.pickupRepo = pickupRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.revenueLedgerService = revenueLedgerService;
+    }
+
+    /**
+     * Acumula os lançamentos novos do razão na tabela de pickup. O dia de
+     * registro vem do lançamento, então reexecutar ou atrasar o job não muda
+     * o resultado. O limite é a cabeça do razão (só lançamentos confirmados) e
+     * a marca fica travada durante a soma, já que a tabela é acumulativa e duas
+     * execuções somando a mesma faixa contariam o pickup em dobro.
+     */
+    @Transactional
+    public int recordPickup() {
+        Long upToId = revenueLedgerService.getLastEntryId();
+        if (upToId == null) {
+            return 0;
+        }
+        ProcessingWatermark watermark = watermarkRepo.findForUpdate(PICKUP_WATERMARK)
+            .orElseGet(() -> new ProcessingWatermark(PICKUP_WATERMARK));
+        if (upToId <= watermark.getLastLedgerId()) {
+            return 0;
+        }
+
+        List<LedgerPickupTotal> totals = revenueLedgerService.getPickupBetween(watermark.getLastLedgerId(), upToId);
+        if (!totals.isEmpty()) {
+            Set<LocalDate> snapshotDates = new TreeSet<>();
+            LocalDate minStay = null;
+            LocalDate maxStay = null;
+            for (LedgerPickupTotal total : totals) {
+                snapshotDates.add(total.recordedDate());
+                minStay = minStay == null || total.nightDate().isBefore(minStay) ? total.nightDate() : minStay;
+                maxStay = maxStay == null || total.nightDate().isAfter(maxStay) ? total.nightDate() : maxStay;
+            }
+
+            Map<PickupKey, BookingPickup> pickups = new HashMap<>();
+            for (BookingPickup existing : pickupRepo.findBySnapshotDateInAndStayDateBetween(snapshotDates, minStay, maxStay)) {
+                pickups.put(new PickupKey(existing.getSnapshotDate(), existing.getStayDate()), existing);
+            }
+            for (LedgerPickupTotal total : totals) {
+                PickupKey key = new PickupKey(total.recordedDate(), total.nightDate());
+                pickups.computeIfAbsent(key, k -> new BookingPickup(k.snapshotDate(), k.stayDate()))
+                    .add(toInt(total.roomNights()), nullToZero(total.revenue()), toInt(total.reservations()));
+            }
+            pickupRepo.saveAll(pickups.values());
+        }
+
+        watermark.setLastLedgerId(upToId);
+        watermarkRepo.save(watermark);
+        logger.info("📈 Pickup registrado: " + totals.size() + " células até o lançamento #" + upToId);
+        return totals.size();
+    }
+
+    /**
+     * Carteira de cada data de estadia "daysBefore" dias antes da chegada,
+     * comparada com a data equivalente do ano anterior na mesma antecedência.
+     */
+    public List<PaceRow> getPace(LocalDate startDate, LocalDate endDate, int daysBefore) {
+        Map<LocalDate, OnTheBooks> current = onTheBooks(startDate, endDate, daysBefore);
+        Map<LocalDate, OnTheBooks> lastYear = onTheBooks(
+            startDate.minusDays(LAST_YEAR_OFFSET_DAYS), endDate.minusDays(LAST_YEAR_OFFSET_DAYS), daysBefore);
+
+        List<PaceRow> rows = new ArrayList<>();
+        for (LocalDate stay = startDate; !stay.isAfter(endDate); stay = stay.plusDays(1)) {
+            LocalDate lastYearStay = stay.minusDays(LAST_YEAR_OFFSET_DAYS);
+            OnTheBooks otb = current.getOrDefault(stay, OnTheBooks.EMPTY);
+            OnTheBooks ly = lastYear.getOrDefault(lastYearStay, OnTheBooks.EMPTY);
+            rows.add(new PaceRow(stay, otb.roomNights(), otb.revenue(), otb.reservations(),
+                lastYearStay, ly.roomNights(), ly.revenue(), ly.reservations()));
+        }
+        return rows;
+    }
+
+    /**
+     * Quanto cada data de estadia ganhou (ou perdeu) com registros feitos na janela [fromDate, toDate].
+     */
+    public List<PickupTotal> getPickup(LocalDate startDate, LocalDate endDate, LocalDate fromDate, LocalDate toDate) {
+        return pickupRepo.sumPickupByStayDate(startDate, endDate, fromDate, toDate);
+    }
+
+    private Map<LocalDate, OnTheBooks> onTheBooks(LocalDate startDate, LocalDate endDate, int daysBefore) {
+        Map<LocalDate, OnTheBooks> result = new HashMap<>();
+        List<BookingPickup> pickups = pickupRepo.findByStayDateBetweenAndSnapshotDateLessThanEqual(
+            startDate, endDate, endDate.minusDays(daysBefore));
+        for (BookingPickup pickup : pickups) {
+            if (pickup.getSnapshotDate().isAfter(pickup.getStayDate().minusDays(daysBefore))) {
+                continue;
+            }
+            result.merge(pickup.getStayDate(),
+                new OnTheBooks(pickup.getRoomNights(), pickup.getRevenue(), pickup.getReservations()),
+                OnTheBooks::plus);
+        }
+        return result;
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private record PickupKey(LocalDate snapshotDate, LocalDate stayDate) {}
+
+    private record OnTheBooks(long roomNights, BigDecimal revenue, long reservations) {
+        static final OnTheBooks EMPTY = new OnTheBooks(0, BigDecimal.ZERO, 0);
+
+        OnTheBooks plus(OnTheBooks other) {
+            return new OnTheBooks(roomNights + other.roomNights, revenue.add(other.revenue),
+                reservations + other.reservations);
+        }
+    }
+}
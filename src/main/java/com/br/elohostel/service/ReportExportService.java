@@ -0,0 +1,137 @@
+package com.br.elohostel.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.br.elohostel.model.ArchivedReserve;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.Room;
+import com.br.elohostel.model.dtos.FinancialRecordRow;
+import com.br.elohostel.model.dtos.RoomTypeRevenueRow;
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.repository.ArchivedReserveRepository;
+import com.br.elohostel.repository.FinancialRecordRepository;
+import com.br.elohostel.repository.ReserveRepository;
+import com.br.elohostel.util.report.ReportWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Exportações de relatórios. As linhas vêm de um cursor do banco e vão direto
+ * para o ReportWriter, então o consumo de memória não depende do período.
+ */
+@Service
+public class ReportExportService {
+
+    private static final int DETACH_EVERY = 200;
+
+    private final FinancialRecordRepository financialRecordRepo;
+    private final ReserveRepository reserveRepo;
+    private final ArchivedReserveRepository archivedReserveRepo;
+    private final EntityManager entityManager;
+
+    public ReportExportService(FinancialRecordRepository financialRecordRepo, ReserveRepository reserveRepo,
+                               ArchivedReserveRepository archivedReserveRepo, EntityManager entityManager) {
+        this.financialRecordRepo = financialRecordRepo;
+        this.reserveRepo = reserveRepo;
+        this.archivedReserveRepo = archivedReserveRepo;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public long exportFinancialRecords(PeriodType periodType, LocalDate startDate, LocalDate endDate,
+                                       ReportWriter writer) throws IOException {
+        writer.header("Data", "Receita", "Reservas", "Hóspedes", "Noites", "Diária média", "Ocupação (%)", "RevPAR");
+        try (Stream<FinancialRecordRow> rows = financialRecordRepo.streamRowsByPeriodTypeAndDateRange(periodType, startDate, endDate)) {
+            return writeAll(rows, row -> writer.row(row.recordDate(), row.totalRevenue(), row.totalReservations(),
+                row.totalGuests(), row.totalNights(), row.averageDailyRate(), row.occupancyRate(), row.revPAR()));
+        }
+    }
+
+    @Transactional
+    public long exportRoomTypeRevenues(PeriodType periodType, LocalDate startDate, LocalDate endDate,
+                                       ReportWriter writer) throws IOException {
+        writer.header("Data", "Tipo de quarto", "Receita", "Noites", "Reservas");
+        try (Stream<RoomTypeRevenueRow> rows = financialRecordRepo.streamRoomTypeRowsByPeriodTypeAndDateRange(periodType, startDate, endDate)) {
+            return writeAll(rows, row -> writer.row(row.recordDate(), row.roomType(), row.revenue(),
+                row.nights(), row.reservations()));
+        }
+    }
+
+    /**
+     * Registro de reservas com alguma noite no intervalo: primeiro as do
+     * arquivo frio (mais antigas), depois as das tabelas quentes. As entidades
+     * são desanexadas do contexto de persistência a cada bloco de linhas.
+     */
+    @Transactional
+    public long exportReservationRegister(LocalDate startDate, LocalDate endDate, ReportWriter writer) throws IOException {
+        writer.header("Reserva", "Status", "Check-in", "Check-out", "Noites", "Hóspedes", "Quartos", "Valor total", "Valor personalizado");
+        long count = 0;
+        try (Stream<ArchivedReserve> archived = archivedReserveRepo.streamByNightsOverlapping(startDate, endDate)) {
+            Iterator<ArchivedReserve> iterator = archived.iterator();
+            while (iterator.hasNext()) {
+                ArchivedReserve reserve = iterator.next();
+                if (!reserve.hasNightBetween(startDate, endDate)) {
+                    continue;
+                }
+                writeArchivedReservation(reserve, writer);
+                if (++count % DETACH_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        try (Stream<Reserve> reserves = reserveRepo.streamByReservedDaysBetween(startDate, endDate)) {
+            Iterator<Reserve> iterator = reserves.iterator();
+            while (iterator.hasNext()) {
+                writeReservation(iterator.next(), writer);
+                if (++count % DETACH_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void writeReservation(Reserve reserve, ReportWriter writer) throws IOException {
+        LocalDate firstNight = reserve.getReservedDays().stream().min(LocalDate::compareTo).orElse(null);
+        LocalDate lastNight = reserve.getReservedDays().stream().max(LocalDate::compareTo).orElse(null);
+        String rooms = reserve.getRooms().stream()
+            .map(Room::getNumber)
+            .filter(Objects::nonNull)
+            .sorted()
+            .map(String::valueOf)
+            .collect(Collectors.joining(" "));
+        writer.row(reserve.getId(), reserve.getReserveStatus(), firstNight,
+            lastNight != null ? lastNight.plusDays(1) : null, reserve.getReservedDays().size(),
+            reserve.getGuest().size(), rooms, reserve.calculateTotalValue(),
+            Boolean.TRUE.equals(reserve.getUseCustomValue()) ? "Sim" : "Não");
+    }
+
+    private void writeArchivedReservation(ArchivedReserve reserve, ReportWriter writer) throws IOException {
+        writer.row(reserve.getId(), reserve.getReserveStatus(), reserve.getFirstNight(), reserve.getLastNight().plusDays(1),
+            reserve.getNights(), reserve.getGuests(), reserve.getRoomNumbers(), reserve.getTotalValue(),
+            Boolean.TRUE.equals(reserve.getUseCustomValue()) ? "Sim" : "Não");
+    }
+
+    private <T> long writeAll(Stream<T> rows, RowConsumer<T> consumer) throws IOException {
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            count++;
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer<T> {
+        void accept(T row) throws IOException;
+    }
+}
@@ -0,0 +1,116 @@
+package com.br.elohostel.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.elohostel.model.ArchivedReserve;
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.repository.ArchivedReserveRepository;
+import com.br.elohostel.repository.FinancialRecordRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+import com.br.elohostel.repository.ReserveRepository;
+
+/**
+ * Arquivamento quente/frio: reservas encerradas saem de TB_RESERVE, das
+ * tabelas de noites e das ocupações e viram uma linha em TB_RESERVE_ARCHIVE.
+ * Encerrada quer dizer todas as noites antes do corte (início da temporada
+ * mantida nas tabelas quentes, limitado ao último mês já consolidado) e todos
+ * os lançamentos do razão já consumidos pelos registros diários. O razão e os
+ * registros financeiros não são tocados, então os números não mudam.
+ */
+@Service
+public class ReservationArchiveService {
+    private static final Logger logger = Logger.getLogger(ReservationArchiveService.class.getName());
+
+    private final ReserveRepository reserveRepo;
+    private final ArchivedReserveRepository archiveRepo;
+    private final FinancialRecordRepository financialRecordRepo;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int hotMonths;
+    private final int batchSize;
+
+    public ReservationArchiveService(ReserveRepository reserveRepo,
+                                     ArchivedReserveRepository archiveRepo,
+                                     FinancialRecordRepository financialRecordRepo,
+                                     ProcessingWatermarkRepository watermarkRepo,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.archive.hot-months:12}") int hotMonths,
+                                     @Value("${app.archive.batch-size:200}") int batchSize) {
+        this.reserveRepo = reserveRepo;
+        this.archiveRepo = archiveRepo;
+        this.financialRecordRepo = financialRecordRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotMonths = Math.max(1, hotMonths);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Primeiro dia que continua nas tabelas quentes: o mais antigo entre o
+     * início da temporada mantida e o mês seguinte ao último mês consolidado.
+     */
+    public LocalDate getCutoff() {
+        LocalDate seasonStart = YearMonth.now().minusMonths(hotMonths).atDay(1);
+        LocalDate closedUntil = financialRecordRepo.findFirstByPeriodTypeOrderByRecordDateDesc(PeriodType.MENSAL)
+            .map(record -> YearMonth.from(record.getRecordDate()).plusMonths(1).atDay(1))
+            .orElse(LocalDate.MIN);
+        return seasonStart.isBefore(closedUntil) ? seasonStart : closedUntil;
+    }
+
+    /**
+     * Move as reservas encerradas em lotes, um lote por transação.
+     * Retorna quantas reservas foram arquivadas.
+     */
+    public int archiveClosedReservations() {
+        LocalDate cutoff = getCutoff();
+        if (cutoff.equals(LocalDate.MIN)) {
+            logger.info("🗄️ Nenhum mês consolidado ainda; nada a arquivar");
+            return 0;
+        }
+        Long processedLedgerId = watermarkRepo.findById(FinancialRecordService.DAILY_RECORDS_WATERMARK)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(0L);
+
+        logger.info("🗄️ Arquivando reservas encerradas antes de " + cutoff + "...");
+        int total = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = reserveRepo.findArchivableIds(cutoff, processedLedgerId, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> archive(ids));
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        logger.info("✅ " + total + " reservas movidas para o arquivo");
+        return total;
+    }
+
+    private void archive(List<Long> ids) {
+        List<Reserve> reserves = reserveRepo.findWithRoomsByIdIn(ids);
+        archiveRepo.saveAll(reserves.stream().map(ArchivedReserve::new).toList());
+
+        archiveRepo.purgeRoomOccupiedDays(ids);
+        archiveRepo.purgeRoomOccupations(ids);
+        archiveRepo.purgeBedOccupiedDays(ids);
+        archiveRepo.purgeBedOccupations(ids);
+        archiveRepo.purgeReserveRooms(ids);
+        archiveRepo.purgeGuestLinks(ids);
+        archiveRepo.purgeReserveDays(ids);
+        archiveRepo.detachAirbnbReservations(ids);
+        archiveRepo.detachBookingReservations(ids);
+        archiveRepo.purgeReserves(ids);
+    }
+}
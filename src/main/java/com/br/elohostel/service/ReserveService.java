@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.br.elohostel.exceptions.ResourceNotFoundException;
@@ -49,15 +50,25 @@ public class ReserveService {
     private final BedRepository bedRepo;
     private final RoomOccupationRepository roomOccupationRepo;
     private final BedOccupationRepository bedOccupationRepo;
+    private final RevenueLedgerService revenueLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventorySnapshot inventorySnapshot;
+    private final BedService bedService;
 
     public ReserveService(ReserveRepository reserveRepo, GuestRepository guestRepo, 
-                         RoomRepository roomRepo, BedRepository bedRepo, RoomOccupationRepository roomOccupationRepo, BedOccupationRepository bedOccupationRepo) {
+                         RoomRepository roomRepo, BedRepository bedRepo, RoomOccupationRepository roomOccupationRepo, BedOccupationRepository bedOccupationRepo,
+                         RevenueLedgerService revenueLedgerService, ApplicationEventPublisher eventPublisher,
+                         InventorySnapshot inventorySnapshot, BedService bedService) {
         this.reserveRepo = reserveRepo;
         this.guestRepo = guestRepo;
         this.roomRepo = roomRepo;
         this.bedRepo = bedRepo;
         this.roomOccupationRepo = roomOccupationRepo;
         this.bedOccupationRepo = bedOccupationRepo;
+        this.revenueLedgerService = revenueLedgerService;
+        this.eventPublisher = eventPublisher;
+        this.inventorySnapshot = inventorySnapshot;
+        this.bedService = bedService;
     }
 
     public List<Reserve> findAll(){
@@ -70,7 +81,9 @@ public class ReserveService {
     }
 
     public Reserve save(Reserve reserve) {
-        return reserveRepo.save(reserve);
+        Reserve savedReserve = reserveRepo.save(reserve);
+        revenueLedgerService.recordReservation(savedReserve);
+        return savedReserve;
     }
 
     @Transactional
@@ -113,6 +126,8 @@ public class ReserveService {
                 guestRepo.save(guest);
             });
 
+            revenueLedgerService.recordReservation(savedReserve);
+
             logger.info("🎉 Reserva criada com sucesso: #" + savedReserve.getId() + 
                     " com " + guests.size() + " hóspedes");
             
@@ -183,8 +198,7 @@ public class ReserveService {
                 throw new IllegalStateException("Quarto " + room.getNumber() + " já está reservado para algumas das datas selecionadas.");
             }
         } else if (room.isSharedRoom()) {
-            long availableBeds = bedRepo.findAll().stream()
-                .filter(b -> b.getRoom().equals(room))
+            long availableBeds = bedsOf(room).stream()
                 .filter(b -> bedOccupationRepo.findConflicts(b, dates).isEmpty())
                 .count();
 
@@ -194,6 +208,22 @@ public class ReserveService {
         }
     }
 
+    /**
+     * Camas vendáveis do quarto pelos ids do snapshot de inventário, em vez de
+     * carregar todas as camas do hostel para filtrar pelo quarto. Cama em
+     * manutenção não recebe ocupação.
+     */
+    private List<Bed> bedsOf(Room room) {
+        InventorySnapshot.Snapshot inventory = inventorySnapshot.current();
+        int index = inventory.indexOfRoomId(room.getId());
+        List<Bed> beds = index < 0
+            ? bedRepo.findByRoomId(room.getId())
+            : bedRepo.findAllById(inventory.bedIds(index));
+        return beds.stream()
+            .filter(b -> b.getBedStatus() != BedStatus.MAINTENANCE)
+            .toList();
+    }
+
     private void createOccupations(Reserve reserve, Room room, Set<LocalDate> dates) {
         if (room.isExclusiveRoom() || room.isSharedBathroom() || room.isStudio() || room.isSuite()) {
             RoomOccupation ro = new RoomOccupation();
@@ -203,8 +233,7 @@ public class ReserveService {
             roomOccupationRepo.save(ro);
             
         } else if (room.isSharedRoom()) {
-            Bed availableBed = bedRepo.findAll().stream()
-                .filter(b -> b.getRoom().equals(room))
+            Bed availableBed = bedsOf(room).stream()
                 .filter(b -> bedOccupationRepo.findConflicts(b, dates).isEmpty())
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("Nenhuma cama disponível no quarto compartilhado " + room.getNumber()));
@@ -254,8 +283,7 @@ public class ReserveService {
         }
 
         if (room.isSharedRoom()) {
-            Bed availableBed = bedRepo.findAll().stream()
-                .filter(b -> b.getRoom().equals(room))
+            Bed availableBed = bedsOf(room).stream()
                 .filter(b -> b.getBedStatus() == BedStatus.VAGUE)
                 .filter(b -> bedOccupationRepo.findConflicts(b, request.dates()).isEmpty())
                 .findFirst()
@@ -270,6 +298,7 @@ public class ReserveService {
 
         guest.getReservation().add(savedReserve);
         guestRepo.save(guest);
+        revenueLedgerService.recordReservation(savedReserve);
 
         return savedReserve;
     }
@@ -312,8 +341,7 @@ public class ReserveService {
             }
 
             if (room.isSharedRoom()) {
-                Bed availableBed = bedRepo.findAll().stream()
-                    .filter(b -> b.getRoom().equals(room))
+                Bed availableBed = bedsOf(room).stream()
                     .filter(b -> bedOccupationRepo.findConflicts(b, request.dates()).isEmpty())
                     .findFirst()
                     .orElseThrow(() -> new IllegalStateException("Nenhuma cama disponível no quarto compartilhado " + room.getNumber()));
@@ -327,6 +355,7 @@ public class ReserveService {
 
             guest.getReservation().add(savedReserve);
             guestRepo.save(guest);
+            revenueLedgerService.recordReservation(savedReserve);
 
             logger.info("🎉 Reserva Airbnb criada com sucesso: #" + savedReserve.getId());
             return savedReserve;
@@ -378,6 +407,7 @@ public class ReserveService {
         
         System.out.println("Guest 2: " + guest);
         reserveRepo.save(reserve);
+        revenueLedgerService.recordReservation(reserve);
         guest.getReservation().add(reserve);
         guestRepo.save(guest);
         return reserve;        
@@ -391,6 +421,7 @@ public class ReserveService {
         BigDecimal newTotal = reserve.calculateTotalValue();
         
         reserveRepo.save(reserve);
+        revenueLedgerService.recordReservation(reserve);
         guest.getReservation().remove(reserve);
         guestRepo.save(guest);
         return reserve;
@@ -403,7 +434,7 @@ public class ReserveService {
         reserve.setCustomValue(customValue);
         reserve.setUseCustomValue(true);
         
-        return reserveRepo.save(reserve);
+        return saveAndRecord(reserve);
     }
 
     public Reserve setAutoValue(Long reserveId) {
@@ -414,7 +445,7 @@ public class ReserveService {
         reserve.setCustomValue(null);
         
         BigDecimal autoValue = reserve.calculateTotalValue();
-        return reserveRepo.save(reserve);
+        return saveAndRecord(reserve);
     }
 
     public Reserve updateExtraGuestFee(Long reserveId, BigDecimal newFee) {
@@ -425,7 +456,7 @@ public class ReserveService {
         
         BigDecimal newTotal = reserve.calculateTotalValue();
         
-        return reserveRepo.save(reserve);
+        return saveAndRecord(reserve);
     }
 
     public Map<String, Object> getValueDetails(Long reserveId) {
@@ -482,7 +513,7 @@ public class ReserveService {
 
         updateOccupations(reserve, newDates);
 
-        return reserveRepo.save(reserve);
+        return saveAndRecord(reserve);
     }
 
     @Transactional
@@ -499,7 +530,7 @@ public class ReserveService {
         }
 
         reserve.setReserveStatus(ReserveStatus.CANCELLED);
-        Reserve cancelledReserve = reserveRepo.save(reserve);
+        Reserve cancelledReserve = saveAndRecord(reserve);
 
         removeOccupations(reserve);
 
@@ -547,7 +578,7 @@ public class ReserveService {
             }
         }
         
-        reserveRepo.save(reserve);
+        saveAndRecord(reserve);
 
         room.getReservation().add(reserve);
     
@@ -573,7 +604,7 @@ public class ReserveService {
             }
         }
         
-        reserveRepo.save(reserve);
+        saveAndRecord(reserve);
 
         room.getReservation().remove(reserve);
         roomRepo.save(room);
@@ -600,7 +631,7 @@ public class ReserveService {
         }
         updateOccupationsForNewDate(reserve, newDate);
 
-        Reserve updatedReserve = reserveRepo.save(reserve);
+        Reserve updatedReserve = saveAndRecord(reserve);
         return updatedReserve;
     }
 
@@ -654,8 +685,7 @@ public class ReserveService {
     }
 
     private void validateSharedRoomAvailability(Room room, LocalDate date, Long currentReserveId) {
-        long availableBeds = bedRepo.findAll().stream()
-                .filter(bed -> bed.getRoom().equals(room))
+        long availableBeds = bedsOf(room).stream()
                 .filter(bed -> isBedAvailableOnDate(bed, date, currentReserveId))
                 .count();
 
@@ -718,8 +748,7 @@ public class ReserveService {
     }
 
     private Bed findAvailableBedForDate(Room room, LocalDate date, Long currentReserveId) {
-        return bedRepo.findAll().stream()
-                .filter(bed -> bed.getRoom().equals(room))
+        return bedsOf(room).stream()
                 .filter(bed -> isBedAvailableOnDate(bed, date, currentReserveId))
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("No available beds found for date: " + date));
@@ -735,7 +764,7 @@ public class ReserveService {
             
         }
         
-        reserveRepo.save(reserve);    
+        saveAndRecord(reserve);
         return reserve;
     }
     
@@ -765,7 +794,7 @@ public class ReserveService {
         for (LocalDate newDate : newDates.dates()) {
             updateOccupationsForNewDate(reserve, newDate);
         }
-        Reserve updatedReserve = reserveRepo.save(reserve);
+        Reserve updatedReserve = saveAndRecord(reserve);
         return updatedReserve;
     }
 
@@ -797,8 +826,7 @@ public class ReserveService {
         }
 
         if (room.isSharedRoom()) {
-            Bed availableBed = bedRepo.findAll().stream()
-                    .filter(b -> b.getRoom().equals(room))
+            Bed availableBed = bedsOf(room).stream()
                     .filter(b -> bedOccupationRepo.findConflicts(b, newDates).isEmpty())
                     .findFirst()
                     .orElseThrow(() -> new IllegalStateException("No available beds in shared room " + room.getNumber() + " for the new dates"));
@@ -822,8 +850,10 @@ public class ReserveService {
                 BedOccupation bedOccupation = bedOccupationRepo.findByReserveAndRoom(reserva, room)
                         .orElseThrow(() -> new IllegalStateException("BedOccupation not found for reserve " + id + " in room " + room.getNumber()));
                 Bed bed = bedOccupation.getBed();
-                bed.setBedStatus(BedStatus.OCCUPIED);
-                bedRepo.save(bed);
+                if (bed.getBedStatus() == BedStatus.MAINTENANCE) {
+                    throw new IllegalStateException("Cama #" + bed.getId() + " está em manutenção; troque a cama da reserva " + id + " antes do check-in");
+                }
+                bedService.changeStatus(bed, BedStatus.OCCUPIED);
 
                 boolean allBedsOccupied = room.getBeds().stream()
                         .allMatch(b -> b.getBedStatus() == BedStatus.OCCUPIED);
@@ -834,6 +864,7 @@ public class ReserveService {
             }
         }
         roomRepo.saveAll(rooms);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent("check-in"));
 
         return reserveRepo.save(reserva);
     }
@@ -850,13 +881,13 @@ public class ReserveService {
             } else if (room.isSharedRoom()) {
                 Bed reservedBed = findBedForReserveInRoom(reserve, room);
                 if (reservedBed != null) {
-                    reservedBed.setBedStatus(BedStatus.VAGUE);
-                    bedRepo.save(reservedBed);
+                    bedService.changeStatus(reservedBed, BedStatus.VAGUE);
                     updateSharedRoomStatus(room);
                 }
             }
         }
         roomRepo.saveAll(rooms);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent("check-out"));
         
         return reserveRepo.save(reserve);
     }
@@ -1021,6 +1052,7 @@ public class ReserveService {
             }
             reserveRepo.saveAndFlush(reserve);
             reserveRepo.delete(reserve);
+            revenueLedgerService.recordRemoval(id);
         } catch (Exception e) {
             throw new RuntimeException("Falha ao excluir reserva: " + e.getMessage(), e);
         }
@@ -1030,7 +1062,20 @@ public class ReserveService {
     public Reserve reserveUpdateExtra(Long id, UpdateDataReserveDTO entity) {
         var obj = reserveRepo.getReferenceById(id);
         updateData(obj, entity);
-        return reserveRepo.save(obj);
+        return saveAndRecord(obj);
+    }
+
+    /**
+     * Relança a reserva no razão de receitas depois que ela foi vinculada a um canal externo.
+     */
+    public void refreshRevenueLedger(Long reserveId) {
+        revenueLedgerService.recordReservation(reserveId);
+    }
+
+    private Reserve saveAndRecord(Reserve reserve) {
+        Reserve savedReserve = reserveRepo.save(reserve);
+        revenueLedgerService.recordReservation(savedReserve);
+        return savedReserve;
     }
 
     private void updateData(Reserve entity, UpdateDataReserveDTO obj) {
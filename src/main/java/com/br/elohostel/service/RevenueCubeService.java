@@ -0,0 +1,204 @@
+package com.br.elohostel.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.br.elohostel.model.dtos.LedgerCubeCell;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+import com.br.elohostel.repository.RevenueLedgerRepository;
+import com.br.elohostel.util.MoneyCents;
+
+/**
+ * Cubo de receitas por ano × tipo de quarto × canal × dia da semana × mês.
+ * É carregado uma vez a partir do razão de receitas e depois mantido com os
+ * lançamentos novos; consultas somam apenas as células em memória.
+ * Lançamentos sem quarto não entram no cubo.
+ */
+@Service
+public class RevenueCubeService {
+    private static final Logger logger = Logger.getLogger(RevenueCubeService.class.getName());
+
+    public static final Set<String> DIMENSIONS = Set.of("roomType", "channel", "weekday", "month");
+
+    private static final int WEEKDAYS = 7;
+    private static final int MONTHS = 12;
+
+    private final RevenueLedgerRepository ledgerRepo;
+    private final RevenueLedgerService revenueLedgerService;
+    private final long rebuildIntervalMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, EnumMap<RoomType, EnumMap<SalesChannel, Accumulator>>> years = new HashMap<>();
+    private long appliedUpToId = -1;
+    private long loadedAt;
+
+    public RevenueCubeService(RevenueLedgerRepository ledgerRepo,
+                              RevenueLedgerService revenueLedgerService,
+                              @Value("${app.financial.cube.rebuild-hours:24}") long rebuildHours) {
+        this.ledgerRepo = ledgerRepo;
+        this.revenueLedgerService = revenueLedgerService;
+        this.rebuildIntervalMillis = rebuildHours * 3_600_000L;
+    }
+
+    public List<Map<String, Object>> query(int year, Set<String> groupBy, RoomType roomTypeFilter, SalesChannel channelFilter) {
+        ensureLoaded();
+
+        Map<List<Object>, long[]> rows = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            EnumMap<RoomType, EnumMap<SalesChannel, Accumulator>> cube = years.get(year);
+            if (cube == null) {
+                return List.of();
+            }
+            for (Map.Entry<RoomType, EnumMap<SalesChannel, Accumulator>> byRoomType : cube.entrySet()) {
+                if (roomTypeFilter != null && byRoomType.getKey() != roomTypeFilter) {
+                    continue;
+                }
+                for (Map.Entry<SalesChannel, Accumulator> byChannel : byRoomType.getValue().entrySet()) {
+                    if (channelFilter != null && byChannel.getKey() != channelFilter) {
+                        continue;
+                    }
+                    Accumulator accumulator = byChannel.getValue();
+                    for (int weekday = 0; weekday < WEEKDAYS; weekday++) {
+                        for (int month = 0; month < MONTHS; month++) {
+                            int cell = weekday * MONTHS + month;
+                            if (accumulator.isEmpty(cell)) {
+                                continue;
+                            }
+                            List<Object> key = new ArrayList<>(4);
+                            if (groupBy.contains("roomType")) key.add(byRoomType.getKey());
+                            if (groupBy.contains("channel")) key.add(byChannel.getKey());
+                            if (groupBy.contains("weekday")) key.add(DayOfWeek.of(weekday + 1));
+                            if (groupBy.contains("month")) key.add(Month.of(month + 1));
+
+                            long[] totals = rows.computeIfAbsent(key, k -> new long[3]);
+                            totals[0] += accumulator.revenueCents[cell];
+                            totals[1] += accumulator.nights[cell];
+                            totals[2] += accumulator.reservations[cell];
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Map.Entry<List<Object>, long[]> row : rows.entrySet()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            int index = 0;
+            for (String dimension : List.of("roomType", "channel", "weekday", "month")) {
+                if (groupBy.contains(dimension)) {
+                    values.put(dimension, row.getKey().get(index++));
+                }
+            }
+            long[] totals = row.getValue();
+            values.put("revenue", MoneyCents.toBigDecimal(totals[0]));
+            values.put("nights", totals[1]);
+            values.put("reservations", totals[2]);
+            values.put("averageDailyRate", MoneyCents.toBigDecimal(MoneyCents.divideHalfUp(totals[0], totals[1])));
+            result.add(values);
+        }
+        return result;
+    }
+
+    /**
+     * O evento só avisa que o razão andou: o cubo lê do banco tudo o que foi
+     * confirmado depois do último lançamento aplicado, até a cabeça do razão.
+     * Os eventos de transações diferentes chegam em qualquer ordem, então
+     * aplicar o conteúdo de cada um perderia os ids menores que chegassem depois.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLedgerPosted(RevenueLedgerPostedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (appliedUpToId < 0) {
+                return; // ainda não carregado: a carga inicial lerá estes lançamentos
+            }
+            Long headId = revenueLedgerService.getLastEntryId();
+            if (headId != null && headId > appliedUpToId) {
+                apply(appliedUpToId, headId);
+                appliedUpToId = headId;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega o cubo do zero a partir dos lançamentos confirmados.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            years.clear();
+            Long headId = revenueLedgerService.getLastEntryId();
+            long upToId = headId != null ? headId : 0L;
+            apply(0L, upToId);
+            appliedUpToId = upToId;
+            loadedAt = System.currentTimeMillis();
+            logger.info("🧊 Cubo de receitas carregado em " + (loadedAt - start) + " ms - " + years.size() + " anos");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        boolean stale;
+        try {
+            stale = appliedUpToId < 0 || System.currentTimeMillis() - loadedAt > rebuildIntervalMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (stale) {
+            reload();
+        }
+    }
+
+    private void apply(long afterId, long upToId) {
+        for (LedgerCubeCell cell : ledgerRepo.sumCubeCellsBetween(afterId, upToId)) {
+            add(cell.nightDate(), cell.roomType(), cell.channel(), MoneyCents.of(cell.revenue()),
+                cell.roomNights().intValue(), cell.reservations().intValue());
+        }
+    }
+
+    private void add(LocalDate night, RoomType roomType, SalesChannel channel, long cents, int nights, int reservations) {
+        SalesChannel resolvedChannel = channel != null ? channel : SalesChannel.DIRECT;
+        Accumulator accumulator = years
+            .computeIfAbsent(night.getYear(), y -> new EnumMap<>(RoomType.class))
+            .computeIfAbsent(roomType, t -> new EnumMap<>(SalesChannel.class))
+            .computeIfAbsent(resolvedChannel, c -> new Accumulator());
+        int cell = (night.getDayOfWeek().getValue() - 1) * MONTHS + (night.getMonthValue() - 1);
+        accumulator.revenueCents[cell] += cents;
+        accumulator.nights[cell] += nights;
+        accumulator.reservations[cell] += reservations;
+    }
+
+    private static final class Accumulator {
+        final long[] revenueCents = new long[WEEKDAYS * MONTHS];
+        final int[] nights = new int[WEEKDAYS * MONTHS];
+        final int[] reservations = new int[WEEKDAYS * MONTHS];
+
+        boolean isEmpty(int cell) {
+            return revenueCents[cell] == 0 && nights[cell] == 0 && reservations[cell] == 0;
+        }
+    }
+}
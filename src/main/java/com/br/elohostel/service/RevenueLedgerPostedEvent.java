@@ -0,0 +1,13 @@
+package com.br.elohostel.service;
+
+import java.util.List;
+
+import com.br.elohostel.model.RevenueLedgerEntry;
+
+/**
+ * Lançamentos recém-gravados no razão de receitas, para quem mantém
+ * agregados incrementais (ex.: o cubo de receitas).
+ */
+public record RevenueLedgerPostedEvent(List<RevenueLedgerEntry> entries) {
+
+}
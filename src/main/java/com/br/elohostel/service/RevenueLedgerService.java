@@ -0,0 +1,413 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.elohostel.model.BedOccupation;
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.RevenueLedgerEntry;
+import com.br.elohostel.model.Room;
+import com.br.elohostel.model.dtos.LedgerNightTotal;
+import com.br.elohostel.model.dtos.LedgerPeriodCount;
+import com.br.elohostel.model.dtos.LedgerPickupTotal;
+import com.br.elohostel.model.dtos.LedgerRoomTypeCount;
+import com.br.elohostel.model.dtos.LedgerRoomTypeTotal;
+import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+import com.br.elohostel.repository.BookingReservationRepository;
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+import com.br.elohostel.repository.ReserveRepository;
+import com.br.elohostel.repository.RevenueLedgerRepository;
+import com.br.elohostel.util.MoneyCents;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+
+/**
+ * Mantém o razão de receitas por noite. Cada alteração de reserva grava apenas
+ * a diferença entre o que a reserva vale agora e o que já foi lançado, então
+ * os totais diários saem de um SUM agrupado em vez de varrer todas as reservas.
+ * Como toda gravação de reserva passa por aqui, é daqui também que avança a
+ * versão do calendário, mesmo quando não há diferença a lançar.
+ */
+@Service
+public class RevenueLedgerService {
+    private static final Logger logger = Logger.getLogger(RevenueLedgerService.class.getName());
+
+    // Último lançamento confirmado; quem consome o razão lê daqui, nunca MAX(id)
+    public static final String LEDGER_HEAD = "revenue-ledger";
+
+    private static final int REBUILD_PAGE_SIZE = 200;
+
+    private final RevenueLedgerRepository ledgerRepo;
+    private final ReserveRepository reserveRepo;
+    private final BookingReservationRepository bookingReservationRepo;
+    private final ProcessingWatermarkRepository watermarkRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheVersionService cacheVersions;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public RevenueLedgerService(RevenueLedgerRepository ledgerRepo, ReserveRepository reserveRepo,
+                                BookingReservationRepository bookingReservationRepo,
+                                ProcessingWatermarkRepository watermarkRepo,
+                                ApplicationEventPublisher eventPublisher,
+                                CacheVersionService cacheVersions,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.ledgerRepo = ledgerRepo;
+        this.reserveRepo = reserveRepo;
+        this.bookingReservationRepo = bookingReservationRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.eventPublisher = eventPublisher;
+        this.cacheVersions = cacheVersions;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void recordReservation(Reserve reserve) {
+        if (reserve == null || reserve.getId() == null) {
+            return;
+        }
+        lockReserve(reserve.getId());
+        appendDifferences(reserve.getId(), expectedPostings(reserve, resolveChannel(reserve)));
+        cacheVersions.advance(CacheVersionService.CALENDAR);
+    }
+
+    /**
+     * Relança uma reserva a partir do banco, por exemplo depois que ela foi
+     * vinculada a uma reserva do Airbnb ou da Booking e mudou de canal.
+     */
+    @Transactional
+    public void recordReservation(Long reserveId) {
+        Reserve reserve = entityManager.find(Reserve.class, reserveId, LockModeType.PESSIMISTIC_WRITE);
+        if (reserve != null) {
+            recordReservation(reserve);
+        }
+    }
+
+    @Transactional
+    public void recordRemoval(Long reserveId) {
+        lockReserve(reserveId);
+        appendDifferences(reserveId, new HashMap<>());
+        cacheVersions.advance(CacheVersionService.CALENDAR);
+    }
+
+    /**
+     * Concilia todas as reservas em páginas, cada uma na sua própria transação:
+     * as travas das reservas e da cabeça do razão duram só uma página, o que já
+     * foi conciliado fica gravado se a reconstrução parar no meio e o contexto
+     * de persistência não cresce com o número de reservas.
+     */
+    public int rebuild() {
+        logger.info("🔄 Reconstruindo razão de receitas a partir das reservas...");
+        int count = 0;
+        Long afterId = 0L;
+        while (afterId != null) {
+            Long currentAfterId = afterId;
+            ReconcileResult result = transactionTemplate.execute(status ->
+                reconcileAfter(currentAfterId, REBUILD_PAGE_SIZE));
+            count += result.reservations();
+            afterId = result.lastReserveId();
+        }
+        logger.info("✅ Razão de receitas conciliado para " + count + " reservas");
+        return count;
+    }
+
+    /**
+     * Concilia a próxima página de reservas (ids maiores que afterId) com o razão.
+     * Os lançamentos e os vínculos com a Booking da página inteira são lidos em
+     * duas consultas e as diferenças gravadas em um único saveAll.
+     * Retorna o último id da página, ou null quando não há mais reservas.
+     */
+    @Transactional
+    public ReconcileResult reconcileAfter(Long afterId, int pageSize) {
+        List<Reserve> reserves = reserveRepo.findByIdGreaterThan(afterId, PageRequest.of(0, pageSize, Sort.by("id")));
+        if (reserves.isEmpty()) {
+            return new ReconcileResult(0, null);
+        }
+
+        List<Long> reserveIds = reserves.stream().map(Reserve::getId).toList();
+        Map<Long, List<RevenueLedgerEntry>> postedByReserve = ledgerRepo.findByReserveIdIn(reserveIds).stream()
+            .collect(Collectors.groupingBy(RevenueLedgerEntry::getReserveId));
+        Set<Long> bookingReserveIds = new HashSet<>(bookingReservationRepo.findReserveIdsIn(reserveIds));
+
+        List<RevenueLedgerEntry> deltas = new ArrayList<>();
+        for (Reserve reserve : reserves) {
+            SalesChannel channel = reserve.getAirbnbReservation() != null ? SalesChannel.AIRBNB
+                : bookingReserveIds.contains(reserve.getId()) ? SalesChannel.BOOKING
+                : SalesChannel.DIRECT;
+            deltas.addAll(computeDifferences(reserve.getId(), expectedPostings(reserve, channel),
+                postedByReserve.getOrDefault(reserve.getId(), List.of())));
+        }
+        if (!deltas.isEmpty()) {
+            append(deltas);
+            cacheVersions.advance(CacheVersionService.CALENDAR);
+            logger.info("📒 " + reserves.size() + " reservas conciliadas: " + deltas.size() + " lançamentos no razão de receitas");
+        }
+
+        Long lastId = reserveIds.get(reserveIds.size() - 1);
+        return new ReconcileResult(reserves.size(), reserves.size() < pageSize ? null : lastId);
+    }
+
+    public LocalDate getFirstNightDate() {
+        return ledgerRepo.findFirstNightDate();
+    }
+
+    public LocalDate getLastNightDate() {
+        return ledgerRepo.findLastNightDate();
+    }
+
+    /**
+     * Último lançamento confirmado no razão. Diferente de MAX(id), nunca passa
+     * de um lançamento de transação ainda aberta: tudo até este id já está
+     * visível, então as marcas d'água podem avançar até ele sem perder nada.
+     */
+    public Long getLastEntryId() {
+        return watermarkRepo.findById(LEDGER_HEAD)
+            .map(ProcessingWatermark::getLastLedgerId)
+            .orElse(null);
+    }
+
+    public List<LocalDate> getNightsPostedBetween(Long afterId, Long upToId) {
+        return ledgerRepo.findNightDatesPostedBetween(afterId, upToId);
+    }
+
+    public List<LedgerPickupTotal> getPickupBetween(Long afterId, Long upToId) {
+        return ledgerRepo.sumPickupBetween(afterId, upToId);
+    }
+
+    public long countReservationsPostedAfter(Long afterId) {
+        return ledgerRepo.countReservationsPostedAfter(afterId);
+    }
+
+    public boolean hasEntriesAfter(Long reserveId, Long afterId) {
+        return ledgerRepo.existsByReserveIdAndIdGreaterThan(reserveId, afterId);
+    }
+
+    /**
+     * Indica se alguma reserva com noites no intervalo mudou depois do lançamento afterId
+     */
+    public boolean hasNightsPostedAfter(Long afterId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null) {
+            return ledgerRepo.existsByIdGreaterThan(afterId);
+        }
+        return ledgerRepo.existsByIdGreaterThanAndNightDateBetween(afterId, startDate, endDate);
+    }
+
+    public boolean isEmpty() {
+        return ledgerRepo.count() == 0;
+    }
+
+    public List<LedgerNightTotal> getNightTotals(LocalDate startDate, LocalDate endDate) {
+        return ledgerRepo.sumByNight(startDate, endDate);
+    }
+
+    public List<LedgerRoomTypeTotal> getRoomTypeTotals(LocalDate startDate, LocalDate endDate) {
+        return ledgerRepo.sumByNightAndRoomType(startDate, endDate);
+    }
+
+    /**
+     * Reservas distintas (e seus hóspedes) com noites no intervalo, para
+     * períodos maiores que um dia, onde somar os dias contaria reserva-noites.
+     */
+    public LedgerPeriodCount countReservations(LocalDate startDate, LocalDate endDate) {
+        return ledgerRepo.countDistinctReservations(startDate, endDate);
+    }
+
+    public List<LedgerRoomTypeCount> countReservationsByRoomType(LocalDate startDate, LocalDate endDate) {
+        return ledgerRepo.countDistinctReservationsByRoomType(startDate, endDate);
+    }
+
+    /**
+     * Receita das reservas que ainda não começaram, lançada em (afterId, upToId]. Com afterId 0 é o
+     * total; com um intervalo é a variação, desde que nenhum lançamento dele mude noites anteriores
+     * a today (ver hasReservationsPostedBefore), porque aí a reserva pode ter deixado de ser futura.
+     */
+    public BigDecimal getUpcomingReservationsRevenue(LocalDate today, Long afterId, Long upToId) {
+        return ledgerRepo.sumUpcomingReservationsRevenue(today, afterId, upToId);
+    }
+
+    public long getReservationsOnNight(LocalDate night, Long afterId, Long upToId) {
+        return ledgerRepo.sumReservationsOnNightBetween(night, afterId, upToId);
+    }
+
+    public boolean hasReservationsPostedBefore(LocalDate before, Long afterId, Long upToId) {
+        return ledgerRepo.existsReservationsPostedBefore(before, afterId, upToId);
+    }
+
+    /**
+     * Trava a reserva até o commit antes de comparar com o razão: duas edições
+     * simultâneas calculariam a mesma diferença e a lançariam duas vezes. A
+     * segunda espera a primeira confirmar e então lê os lançamentos dela.
+     * Reserva já excluída nesta transação não tem o que travar. O flush grava
+     * antes a reserva recém-criada na mesma transação: sem a linha no banco, o
+     * SELECT ... FOR UPDATE não a encontraria.
+     */
+    private void lockReserve(Long reserveId) {
+        entityManager.flush();
+        entityManager.find(Reserve.class, reserveId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private void appendDifferences(Long reserveId, Map<PostingKey, Posting> expected) {
+        List<RevenueLedgerEntry> deltas = computeDifferences(reserveId, expected, ledgerRepo.findByReserveId(reserveId));
+        if (!deltas.isEmpty()) {
+            append(deltas);
+            logger.info("📒 Reserva #" + reserveId + ": " + deltas.size() + " lançamentos no razão de receitas");
+        }
+    }
+
+    /**
+     * Grava os lançamentos com a cabeça do razão travada até o commit. Como toda
+     * gravação passa por aqui, os ids (IDENTITY) saem na ordem de commit e a
+     * cabeça só mostra ids cujas transações já confirmaram.
+     */
+    private void append(List<RevenueLedgerEntry> deltas) {
+        ProcessingWatermark head = watermarkRepo.findForUpdate(LEDGER_HEAD)
+            .orElseGet(() -> new ProcessingWatermark(LEDGER_HEAD));
+        List<RevenueLedgerEntry> savedEntries = ledgerRepo.saveAll(deltas);
+        long lastId = head.getLastLedgerId();
+        for (RevenueLedgerEntry entry : savedEntries) {
+            lastId = Math.max(lastId, entry.getId());
+        }
+        head.setLastLedgerId(lastId);
+        watermarkRepo.save(head);
+        publish(savedEntries);
+    }
+
+    private void publish(List<RevenueLedgerEntry> savedEntries) {
+        eventPublisher.publishEvent(new RevenueLedgerPostedEvent(savedEntries));
+        eventPublisher.publishEvent(new FinancialDataChangedEvent("revenue-ledger"));
+    }
+
+    private List<RevenueLedgerEntry> computeDifferences(Long reserveId, Map<PostingKey, Posting> expected,
+                                                        List<RevenueLedgerEntry> postedEntries) {
+        Map<PostingKey, Posting> posted = new HashMap<>();
+        for (RevenueLedgerEntry entry : postedEntries) {
+            PostingKey key = new PostingKey(entry.getNightDate(), entry.getRoomType(), entry.getChannel());
+            posted.merge(key, new Posting(MoneyCents.of(entry.getRevenue()), entry.getRoomNights(), entry.getGuests(), entry.getReservations()), Posting::plus);
+        }
+
+        Set<PostingKey> keys = new HashSet<>(posted.keySet());
+        keys.addAll(expected.keySet());
+
+        List<RevenueLedgerEntry> deltas = new ArrayList<>();
+        for (PostingKey key : keys) {
+            Posting target = expected.getOrDefault(key, Posting.ZERO);
+            Posting current = posted.getOrDefault(key, Posting.ZERO);
+            Posting delta = target.minus(current);
+            if (!delta.isZero()) {
+                deltas.add(new RevenueLedgerEntry(reserveId, key.nightDate(), key.roomType(), key.channel(),
+                    MoneyCents.toBigDecimal(delta.revenueCents()), delta.roomNights(), delta.guests(), delta.reservations()));
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * O valor total é dividido igualmente entre as noites e, em cada noite, entre
+     * os quartos. Os centavos que sobram vão para as primeiras noites/quartos,
+     * de forma que a soma dos lançamentos bate exatamente com o total da reserva.
+     * Em quarto compartilhado as noites vendidas contam camas, não o quarto.
+     */
+    private Map<PostingKey, Posting> expectedPostings(Reserve reserve, SalesChannel channel) {
+        Map<PostingKey, Posting> postings = new LinkedHashMap<>();
+        if (reserve.getReserveStatus() != ReserveStatus.CONFIRMED
+                || reserve.getReservedDays() == null || reserve.getReservedDays().isEmpty()) {
+            return postings;
+        }
+
+        List<LocalDate> nights = reserve.getReservedDays().stream().sorted().toList();
+        List<Room> rooms = reserve.getRooms().stream()
+            .sorted(Comparator.comparing(Room::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+        int guests = reserve.getGuest().size();
+
+        long[] nightCents = MoneyCents.split(reserve.calculateTotalCents(), nights.size());
+        for (int n = 0; n < nights.size(); n++) {
+            LocalDate night = nights.get(n);
+            if (rooms.isEmpty()) {
+                postings.merge(new PostingKey(night, null, channel),
+                    new Posting(nightCents[n], 0, guests, 1), Posting::plus);
+                continue;
+            }
+            long[] roomCents = MoneyCents.split(nightCents[n], rooms.size());
+            for (int r = 0; r < rooms.size(); r++) {
+                boolean first = r == 0;
+                postings.merge(new PostingKey(night, rooms.get(r).getRoomType(), channel),
+                    new Posting(roomCents[r], soldUnits(reserve, rooms.get(r), night), first ? guests : 0, first ? 1 : 0), Posting::plus);
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Unidades vendidas no quarto naquela noite: 1 para quarto privativo e o
+     * número de camas ocupadas pela reserva em quarto compartilhado.
+     */
+    private int soldUnits(Reserve reserve, Room room, LocalDate night) {
+        if (!room.isSharedRoom()) {
+            return 1;
+        }
+        long beds = reserve.getBedOccupation().stream()
+            .filter(occupation -> occupation.getBed() != null && room.equals(occupation.getBed().getRoom()))
+            .filter(occupation -> occupation.getOccupiedDays().isEmpty() || occupation.getOccupiedDays().contains(night))
+            .map(BedOccupation::getBed)
+            .distinct()
+            .count();
+        return (int) Math.max(1, beds);
+    }
+
+    private SalesChannel resolveChannel(Reserve reserve) {
+        if (reserve.getAirbnbReservation() != null) {
+            return SalesChannel.AIRBNB;
+        }
+        if (bookingReservationRepo.existsByReserveId(reserve.getId())) {
+            return SalesChannel.BOOKING;
+        }
+        return SalesChannel.DIRECT;
+    }
+
+    public record ReconcileResult(int reservations, Long lastReserveId) {}
+
+    private record PostingKey(LocalDate nightDate, RoomType roomType, SalesChannel channel) {}
+
+    private record Posting(long revenueCents, int roomNights, int guests, int reservations) {
+        static final Posting ZERO = new Posting(0L, 0, 0, 0);
+
+        Posting plus(Posting other) {
+            return new Posting(revenueCents + other.revenueCents, roomNights + other.roomNights,
+                guests + other.guests, reservations + other.reservations);
+        }
+
+        Posting minus(Posting other) {
+            return new Posting(revenueCents - other.revenueCents, roomNights - other.roomNights,
+                guests - other.guests, reservations - other.reservations);
+        }
+
+        boolean isZero() {
+            return revenueCents == 0 && roomNights == 0 && guests == 0 && reservations == 0;
+        }
+    }
+}
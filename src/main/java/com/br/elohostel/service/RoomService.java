@@ -13,6 +13,7 @@ import com.br.elohostel.model.Bed;
 import com.br.elohostel.model.BedOccupation;
 import com.br.elohostel.model.Room;
 import com.br.elohostel.model.enums.BedStatus;
+import com.br.elohostel.model.enums.RoomType;
 import com.br.elohostel.repository.BedOccupationRepository;
 import com.br.elohostel.repository.BedRepository;
 import com.br.elohostel.repository.RoomRepository;
@@ -26,11 +27,16 @@ public class RoomService {
     private final RoomRepository repo;
     private final BedRepository bedRepo;
     private final BedOccupationRepository bedOccupationRepo;
+    private final CapacityService capacityService;
+    private final CacheVersionService cacheVersions;
 
-    public RoomService (RoomRepository repo, BedRepository bedRepo, BedOccupationRepository bedOccupationRepo) {
+    public RoomService (RoomRepository repo, BedRepository bedRepo, BedOccupationRepository bedOccupationRepo,
+                        CapacityService capacityService, CacheVersionService cacheVersions) {
         this.repo = repo;
         this.bedRepo = bedRepo;
         this.bedOccupationRepo = bedOccupationRepo;
+        this.capacityService = capacityService;
+        this.cacheVersions = cacheVersions;
     }
 
     public Room findNumber(Integer number) {
@@ -48,14 +54,23 @@ public class RoomService {
         return obj.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
+    @Transactional
     public Room insert (Room entity) {
-        return repo.save(entity);
+        Room saved = repo.save(entity);
+        capacityService.recordRoomAdded(saved);
+        cacheVersions.advance(CacheVersionService.INVENTORY);
+        return saved;
     }
 
+    @Transactional
     public Room insertBed(Long id) {
         var room = repo.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
-        room.getBeds().add(new Bed(BedStatus.VAGUE, room));
-        return repo.save(room);
+        Bed bed = bedRepo.save(new Bed(BedStatus.VAGUE, room));
+        room.getBeds().add(bed);
+        Room saved = repo.save(room);
+        capacityService.recordBedAdded(bed);
+        cacheVersions.advance(CacheVersionService.INVENTORY);
+        return saved;
     }
 
     @Transactional
@@ -94,13 +109,20 @@ public class RoomService {
         }
 
         bedRepo.delete(bedToRemove);
+        capacityService.recordBedRemoved(bedToRemove);
+        cacheVersions.advance(CacheVersionService.INVENTORY);
 
         return room;
     }
 
+    @Transactional
     public void deleteById(Long id) {
+        Room room = repo.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
         try {
-            repo.deleteById(id);
+            capacityService.recordRoomRemoved(room);
+            cacheVersions.advance(CacheVersionService.INVENTORY);
+            repo.delete(room);
+            repo.flush();
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch(DataIntegrityViolationException e) {
@@ -108,12 +130,20 @@ public class RoomService {
         }
     }
 
+    @Transactional
     public Room update(Long id, Room obj) {
         try {
             Room entity = repo.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException(id));
+            RoomType previousType = entity.getRoomType();
             updateData(entity, obj);
-            return repo.save(entity);   
+            Room saved = repo.save(entity);
+            if (previousType != saved.getRoomType()) {
+                capacityService.recordRoomTypeChanged(saved, previousType);
+            }
+            cacheVersions.advance(CacheVersionService.INVENTORY);
+            cacheVersions.advance(CacheVersionService.CALENDAR);
+            return saved;
         } catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException(id);
 		}
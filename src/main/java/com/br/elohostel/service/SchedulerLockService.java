@@ -0,0 +1,91 @@
+package com.br.elohostel.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.elohostel.repository.SchedulerLeaseRepository;
+
+/**
+ * Garante uma única execução por job agendado quando há várias instâncias
+ * usando o mesmo banco. A concessão dura no máximo lockAtMost (se a instância
+ * cair, outra assume depois disso) e no mínimo lockAtLeast, para que a mesma
+ * disparada em outra instância, alguns segundos depois, não rode o job de novo.
+ * Os relógios das instâncias devem estar sincronizados (NTP).
+ */
+@Service
+public class SchedulerLockService {
+    private static final Logger logger = Logger.getLogger(SchedulerLockService.class.getName());
+
+    private final SchedulerLeaseRepository leaseRepo;
+    private final TransactionTemplate requiresNew;
+    private final String instanceId;
+
+    public SchedulerLockService(SchedulerLeaseRepository leaseRepo, PlatformTransactionManager transactionManager) {
+        this.leaseRepo = leaseRepo;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Executa a tarefa se esta instância conseguir a concessão. Retorna false se outra instância está com ela.
+     */
+    public boolean runLocked(String name, Duration lockAtMost, Duration lockAtLeast, Runnable task) {
+        LocalDateTime start = LocalDateTime.now();
+        if (!acquire(name, start, start.plus(lockAtMost))) {
+            logger.info("🔒 Job " + name + " já está com outra instância, pulando");
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            LocalDateTime minimum = start.plus(lockAtLeast);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = now.isAfter(minimum) ? now : minimum;
+            requiresNew.executeWithoutResult(status -> leaseRepo.release(name, instanceId, until));
+        }
+    }
+
+    /**
+     * Se alguma instância está com a concessão agora. Serve só para responder
+     * rápido a um pedido manual; quem garante a exclusão é o runLocked.
+     */
+    public boolean isLocked(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        return leaseRepo.findById(name)
+            .map(lease -> lease.getLockedUntil() != null && lease.getLockedUntil().isAfter(now))
+            .orElse(false);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private boolean acquire(String name, LocalDateTime now, LocalDateTime until) {
+        Integer updated = requiresNew.execute(status -> leaseRepo.acquire(name, instanceId, now, until));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        if (leaseRepo.existsById(name)) {
+            return false;
+        }
+        // Primeira execução do job: cria a linha já expirada e disputa o UPDATE
+        try {
+            requiresNew.executeWithoutResult(status -> leaseRepo.insert(name, now));
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância criou a linha ao mesmo tempo
+        }
+        updated = requiresNew.execute(status -> leaseRepo.acquire(name, instanceId, now, until));
+        return updated != null && updated > 0;
+    }
+}
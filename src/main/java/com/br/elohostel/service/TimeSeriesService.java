@@ -0,0 +1,145 @@
+package com.br.elohostel.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.br.elohostel.model.dtos.FinancialRecordRow;
+import com.br.elohostel.model.dtos.SeriesPoint;
+import com.br.elohostel.model.dtos.TimeSeries;
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.repository.FinancialRecordRepository;
+import com.br.elohostel.util.Lttb;
+import com.br.elohostel.util.MoneyCents;
+
+/**
+ * Séries de receita, ADR, ocupação e RevPAR para gráficos. Os registros diários
+ * são agrupados no servidor na resolução pedida (as razões são recalculadas a
+ * partir das somas de cada bucket) e reduzidos com LTTB até o número de pontos
+ * pedido. O resultado fica em cache até algum dado financeiro mudar.
+ */
+@Service
+public class TimeSeriesService {
+
+    public enum Metric { REVENUE, ADR, OCCUPANCY, REVPAR }
+
+    public enum Resolution { DAY, WEEK, MONTH }
+
+    private final FinancialRecordRepository financialRecordRepo;
+    private final CapacityService capacityService;
+    private final int maxCachedSeries;
+
+    private final Map<SeriesKey, TimeSeries> cache = new ConcurrentHashMap<>();
+
+    public TimeSeriesService(FinancialRecordRepository financialRecordRepo, CapacityService capacityService,
+                             @Value("${app.financial.series.cache-size:256}") int maxCachedSeries) {
+        this.financialRecordRepo = financialRecordRepo;
+        this.capacityService = capacityService;
+        this.maxCachedSeries = maxCachedSeries;
+    }
+
+    public TimeSeries getSeries(Metric metric, LocalDate startDate, LocalDate endDate, Resolution resolution, int maxPoints) {
+        SeriesKey key = new SeriesKey(metric, startDate, endDate, resolution, maxPoints);
+        TimeSeries cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        TimeSeries series = build(key);
+        if (cache.size() >= maxCachedSeries) {
+            cache.clear();
+        }
+        cache.put(key, series);
+        return series;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        cache.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        cache.clear();
+    }
+
+    private TimeSeries build(SeriesKey key) {
+        TreeMap<LocalDate, Bucket> buckets = new TreeMap<>();
+        for (LocalDate date = key.startDate(); !date.isAfter(key.endDate()); date = date.plusDays(1)) {
+            buckets.computeIfAbsent(bucketStart(date, key.resolution()), start -> new Bucket())
+                .capacity += capacityService.getCapacity(date).sellableUnits();
+        }
+        for (FinancialRecordRow row : financialRecordRepo.findRowsByPeriodTypeAndDateRange(
+                PeriodType.DIARIO, key.startDate(), key.endDate())) {
+            Bucket bucket = buckets.get(bucketStart(row.recordDate(), key.resolution()));
+            bucket.revenueCents += MoneyCents.of(row.totalRevenue());
+            bucket.nights += row.totalNights() != null ? row.totalNights() : 0;
+        }
+
+        List<LocalDate> dates = new ArrayList<>(buckets.keySet());
+        double[] x = new double[dates.size()];
+        double[] y = new double[dates.size()];
+        BigDecimal[] values = new BigDecimal[dates.size()];
+        for (int i = 0; i < dates.size(); i++) {
+            values[i] = value(key.metric(), buckets.get(dates.get(i)));
+            x[i] = dates.get(i).toEpochDay();
+            y[i] = values[i].doubleValue();
+        }
+
+        List<SeriesPoint> points = new ArrayList<>();
+        for (int index : Lttb.downsample(x, y, key.maxPoints())) {
+            points.add(new SeriesPoint(dates.get(index), values[index]));
+        }
+        return new TimeSeries(key.metric().name(), key.resolution().name(), key.startDate(), key.endDate(),
+            dates.size(), List.copyOf(points));
+    }
+
+    private BigDecimal value(Metric metric, Bucket bucket) {
+        switch (metric) {
+            case REVENUE:
+                return MoneyCents.toBigDecimal(bucket.revenueCents);
+            case ADR:
+                return MoneyCents.toBigDecimal(MoneyCents.divideHalfUp(bucket.revenueCents, bucket.nights));
+            case OCCUPANCY:
+                if (bucket.capacity == 0) {
+                    return BigDecimal.ZERO;
+                }
+                return BigDecimal.valueOf(bucket.nights * 100L)
+                    .divide(BigDecimal.valueOf(bucket.capacity), 2, RoundingMode.HALF_UP);
+            case REVPAR:
+                return MoneyCents.toBigDecimal(MoneyCents.divideHalfUp(bucket.revenueCents, bucket.capacity));
+            default:
+                throw new IllegalArgumentException("Métrica inválida: " + metric);
+        }
+    }
+
+    private LocalDate bucketStart(LocalDate date, Resolution resolution) {
+        switch (resolution) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    private static final class Bucket {
+        long revenueCents;
+        long nights;
+        long capacity;
+    }
+
+    private record SeriesKey(Metric metric, LocalDate startDate, LocalDate endDate, Resolution resolution, int maxPoints) {}
+}
@@ -1,28 +1,44 @@
 package com.br.elohostel.service.components;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.br.elohostel.config.WorkloadConfig;
 import com.br.elohostel.model.AirbnbSync;
 import com.br.elohostel.repository.AirbnbSyncRepository;
 import com.br.elohostel.service.AirbnbICalService;
+import com.br.elohostel.service.SchedulerLockService;
 
 @Component
 public class AirbnbSyncScheduler {
 
+    private static final Duration SYNC_INTERVAL = Duration.ofMinutes(15);
+
     private final AirbnbICalService airbnbICalService;
     private final AirbnbSyncRepository airbnbSyncRepository;
+    private final SchedulerLockService schedulerLock;
 
     public AirbnbSyncScheduler(AirbnbICalService airbnbICalService, 
-                             AirbnbSyncRepository airbnbSyncRepository) {
+                             AirbnbSyncRepository airbnbSyncRepository,
+                             SchedulerLockService schedulerLock) {
         this.airbnbICalService = airbnbICalService;
         this.airbnbSyncRepository = airbnbSyncRepository;
+        this.schedulerLock = schedulerLock;
     }
 
     @Scheduled(fixedRate = 900000) // A cada 15 minutos
+    @Async(WorkloadConfig.CHANNEL_SYNC_EXECUTOR)
     public void syncActiveAirbnbCalendars() {
+        // Uma execução por intervalo entre todas as instâncias
+        schedulerLock.runLocked("sync:airbnb-calendars", SYNC_INTERVAL, SYNC_INTERVAL.minusMinutes(1),
+            this::syncAll);
+    }
+
+    private void syncAll() {
         List<AirbnbSync> activeSyncs = airbnbSyncRepository.findByIsActiveTrue();
         
         for (AirbnbSync sync : activeSyncs) {
@@ -0,0 +1,99 @@
+package com.br.elohostel.service.components;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.br.elohostel.config.WorkloadConfig;
+import com.br.elohostel.service.BackupService;
+import com.br.elohostel.service.BackupService.BackupFile;
+import com.br.elohostel.service.BackupService.VerifyResult;
+import com.br.elohostel.service.SchedulerLockService;
+
+@Component
+public class BackupScheduler {
+    private static final Logger logger = Logger.getLogger(BackupScheduler.class.getName());
+
+    private static final String LOCK_NAME = "backup:database";
+    private static final Duration LOCK_AT_MOST = Duration.ofHours(1);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(2);
+
+    private final BackupService backupService;
+    private final SchedulerLockService schedulerLock;
+    private final ThreadPoolTaskExecutor backupExecutor;
+    private final boolean verifyAfterBackup;
+    // Cópia em andamento nesta instância, noturna ou manual
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BackupScheduler(BackupService backupService,
+                           SchedulerLockService schedulerLock,
+                           @Qualifier(WorkloadConfig.BACKUP_EXECUTOR) ThreadPoolTaskExecutor backupExecutor,
+                           @Value("${app.backup.verify:true}") boolean verifyAfterBackup) {
+        this.backupService = backupService;
+        this.schedulerLock = schedulerLock;
+        this.backupExecutor = backupExecutor;
+        this.verifyAfterBackup = verifyAfterBackup;
+    }
+
+    // Todas as noites às 02:30, no executor de cópias (prioridade mínima)
+    @Scheduled(cron = "${app.backup.cron:0 30 2 * * ?}")
+    @Async(WorkloadConfig.BACKUP_EXECUTOR)
+    public void nightlyBackup() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("⏭️ Cópia noturna pulada: outra cópia em andamento");
+            return;
+        }
+        try {
+            schedulerLock.runLocked(LOCK_NAME, LOCK_AT_MOST, LOCK_AT_LEAST, () -> backupAndVerify("noturna"));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Cópia pedida pela API: roda no mesmo executor e sob a mesma concessão da
+     * noturna, fora da thread da requisição. Retorna false se já há uma cópia
+     * em andamento, nesta ou em outra instância.
+     */
+    public boolean requestBackup() {
+        if (schedulerLock.isLocked(LOCK_NAME) || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backupExecutor.execute(() -> {
+                try {
+                    schedulerLock.runLocked(LOCK_NAME, LOCK_AT_MOST, Duration.ZERO, () -> backupAndVerify("manual"));
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    private void backupAndVerify(String kind) {
+        try {
+            BackupFile backup = backupService.backup();
+            if (verifyAfterBackup) {
+                VerifyResult result = backupService.verify(backup.name());
+                if (!result.restored()) {
+                    logger.severe("❌ Cópia " + kind + " " + backup.name() + " falhou na verificação: " + result.message());
+                }
+            }
+        } catch (IOException e) {
+            logger.severe("❌ Cópia de segurança " + kind + " falhou: " + e.getMessage());
+        }
+    }
+}
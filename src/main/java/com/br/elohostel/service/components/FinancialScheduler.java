@@ -1,220 +1,163 @@
 package com.br.elohostel.service.components;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.logging.Logger;
+import java.util.List;
 
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.br.elohostel.config.WorkloadConfig;
 import com.br.elohostel.service.FinancialRecordService;
-
+import com.br.elohostel.service.JobOrchestrator;
+import com.br.elohostel.service.JobOrchestrator.Window;
+import com.br.elohostel.service.PaceService;
+import com.br.elohostel.service.SchedulerLockService;
+
+/**
+ * Declara os jobs financeiros no orquestrador e dispara cada um no seu horário.
+ * Jobs que recalculam a mesma janela são pulados quando nenhuma reserva dela
+ * mudou desde a última execução. Com várias instâncias, só a que obtiver a
+ * concessão do job executa cada disparo; todos passam antes pela concessão dos
+ * registros financeiros, então um disparo durante um reprocessamento é pulado.
+ */
 @Component
 public class FinancialScheduler {
 
-    private static final Logger logger = Logger.getLogger(FinancialScheduler.class.getName());
-    
-    private final FinancialRecordService financialRecordService;
+    public static final String PENDING_NIGHTS = "pending-nights";
+    public static final String DAILY_RECORD = "daily-record";
+    public static final String RECHECK_YESTERDAY = "recheck-yesterday";
+    public static final String WEEK_FORECAST = "week-forecast";
+    public static final String LAST_WEEK = "last-week";
+    public static final String NEXT_MONTH_FORECAST = "next-month-forecast";
+    public static final String MONTHLY_ROLLUP = "monthly-rollup";
+    public static final String ANNUAL_ROLLUP = "annual-rollup";
+    public static final String BOOKING_PICKUP = "booking-pickup";
+
+    // Disparos cron coincidem entre instâncias; a concessão mínima só precisa cobrir a diferença de relógio
+    private static final Duration LOCK_AT_MOST = Duration.ofHours(1);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(2);
+
+    private final JobOrchestrator orchestrator;
+    private final SchedulerLockService schedulerLock;
+
+    public FinancialScheduler(JobOrchestrator orchestrator,
+                              SchedulerLockService schedulerLock,
+                              FinancialRecordService financialRecordService,
+                              PaceService paceService) {
+        this.orchestrator = orchestrator;
+        this.schedulerLock = schedulerLock;
+
+        // Noites com lançamentos novos no razão; base para todos os outros jobs
+        orchestrator.register(PENDING_NIGHTS, List.of(), today -> Window.ALL,
+            financialRecordService::processPendingNights);
+
+        orchestrator.register(DAILY_RECORD, List.of(PENDING_NIGHTS), Window::of,
+            () -> financialRecordService.processDailyRecord(LocalDate.now()));
+
+        // Reprocessa ontem caso algum lançamento tenha chegado depois do fechamento
+        orchestrator.register(RECHECK_YESTERDAY, List.of(PENDING_NIGHTS), today -> Window.of(today.minusDays(1)),
+            () -> financialRecordService.forceProcessDate(LocalDate.now().minusDays(1)));
+
+        orchestrator.register(WEEK_FORECAST, List.of(PENDING_NIGHTS), today -> new Window(today, today.plusWeeks(1)),
+            () -> {
+                LocalDate today = LocalDate.now();
+                financialRecordService.processForecastPeriod(today, today.plusWeeks(1));
+            });
+
+        orchestrator.register(LAST_WEEK, List.of(PENDING_NIGHTS), today -> new Window(today.minusDays(7), today.minusDays(1)),
+            () -> {
+                LocalDate yesterday = LocalDate.now().minusDays(1);
+                financialRecordService.processForecastPeriod(yesterday.minusDays(6), yesterday);
+            });
+
+        orchestrator.register(NEXT_MONTH_FORECAST, List.of(PENDING_NIGHTS), today -> monthWindow(YearMonth.from(today).plusMonths(1)),
+            () -> {
+                YearMonth nextMonth = YearMonth.now().plusMonths(1);
+                financialRecordService.processForecastPeriod(nextMonth.atDay(1), nextMonth.atEndOfMonth());
+            });
+
+        orchestrator.register(MONTHLY_ROLLUP, List.of(PENDING_NIGHTS), today -> monthWindow(YearMonth.from(today).minusMonths(1)),
+            () -> financialRecordService.processMonthlyRecord(LocalDate.now().minusMonths(1)));
+
+        orchestrator.register(ANNUAL_ROLLUP, List.of(MONTHLY_ROLLUP),
+            today -> new Window(LocalDate.of(today.getYear() - 1, 1, 1), LocalDate.of(today.getYear() - 1, 12, 31)),
+            () -> financialRecordService.processAnnualRecord(LocalDate.now().getYear() - 1));
+
+        orchestrator.register(BOOKING_PICKUP, List.of(), today -> Window.ALL, paceService::recordPickup);
+    }
+
+    private void runJob(String name) {
+        schedulerLock.runLocked(FinancialRecordService.RECORDS_LOCK, LOCK_AT_MOST, Duration.ZERO, () ->
+            schedulerLock.runLocked("financial:" + name, LOCK_AT_MOST, LOCK_AT_LEAST, () -> orchestrator.run(name)));
+    }
 
-    public FinancialScheduler(FinancialRecordService financialRecordService) {
-        this.financialRecordService = financialRecordService;
+    private static Window monthWindow(YearMonth month) {
+        return new Window(month.atDay(1), month.atEndOfMonth());
     }
 
-    // ✅ CORREÇÃO: Executa todos os dias às 23:55 para processar o registro diário
+    // Registro do dia às 23:55
     @Scheduled(cron = "0 55 23 * * ?")
-    @Transactional
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void processDailyFinancialRecord() {
-        try {
-            logger.info("🔄 Agendador diário executando...");
-            financialRecordService.processFinancialRecords();
-            logger.info("✅ Agendador diário concluído");
-        } catch (Exception e) {
-            // Log do erro, mas não quebra a aplicação
-            logger.severe("❌ Erro no agendamento financeiro diário: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(DAILY_RECORD);
+    }
+
+    // Pickup diário da carteira: consome só os lançamentos novos do razão (23:58)
+    @Scheduled(cron = "0 58 23 * * ?")
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
+    public void recordDailyPickup() {
+        runJob(BOOKING_PICKUP);
     }
 
-    // ✅ CORREÇÃO: Executa no primeiro dia de cada mês às 00:05 para processar o mês anterior
+    // Primeiro dia de cada mês às 00:05: consolida o mês anterior
     @Scheduled(cron = "0 5 0 1 * ?")
-    @Transactional
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void processMonthlyFinancialRecord() {
-        try {
-            logger.info("🔄 Agendador mensal executando...");
-            LocalDate lastMonth = LocalDate.now().minusMonths(1);
-            financialRecordService.processMonthlyRecord(lastMonth);
-            logger.info("✅ Agendador mensal concluído para: " + YearMonth.from(lastMonth));
-        } catch (Exception e) {
-            logger.severe("❌ Erro no agendamento mensal financeiro: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(MONTHLY_ROLLUP);
     }
 
-    // ✅ CORREÇÃO: Executa no primeiro dia do ano às 00:10 para processar o ano anterior
+    // Primeiro dia do ano às 00:10: consolida o ano anterior
     @Scheduled(cron = "0 10 0 1 1 ?")
-    @Transactional
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void processAnnualFinancialRecord() {
-        try {
-            logger.info("🔄 Agendador anual executando...");
-            int lastYear = LocalDate.now().getYear() - 1;
-            financialRecordService.processAnnualRecord(lastYear);
-            logger.info("✅ Agendador anual concluído para: " + lastYear);
-        } catch (Exception e) {
-            logger.severe("❌ Erro no agendamento anual financeiro: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(ANNUAL_ROLLUP);
     }
 
-    // ✅ NOVO: Agendamento para debug/teste (executa a cada hora para desenvolvimento)
-    @Scheduled(cron = "0 0 * * * ?") // A cada hora
-    @Transactional
-    public void hourlyDebug() {
-        try {
-            logger.info("🐛 Agendador de debug executando...");
-            // Log rápido do status atual
-            LocalDate today = LocalDate.now();
-            logger.info("📊 Debug - Data atual: " + today);
-            
-            // Você pode adicionar chamadas de debug aqui se necessário
-            // financialRecordService.debugReservations();
-            
-            logger.info("✅ Agendador de debug concluído");
-        } catch (Exception e) {
-            logger.severe("❌ Erro no agendamento de debug: " + e.getMessage());
-            e.printStackTrace();
-        }
+    // Todos os dias às 6:30, só se ontem recebeu lançamentos depois da última verificação
+    @Scheduled(cron = "0 30 6 * * ?")
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
+    public void recheckYesterday() {
+        runJob(RECHECK_YESTERDAY);
     }
 
-    // ✅ NOVO: Agendamento para forçar processamento em caso de falha
-    @Scheduled(cron = "0 30 6 * * ?") // Todos os dias às 6:30
-    @Transactional
-    public void forceProcessIfNeeded() {
-        try {
-            logger.info("⚡ Verificando necessidade de processamento forçado...");
-            LocalDate yesterday = LocalDate.now().minusDays(1);
-            
-            // Forçar processamento do dia anterior como fallback
-            financialRecordService.forceProcessDate(yesterday);
-            logger.info("✅ Processamento forçado concluído para: " + yesterday);
-        } catch (Exception e) {
-            logger.severe("❌ Erro no processamento forçado: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    // ✅ NOVO: Agendamento para previsão financeira (executa diariamente às 08:00)
-    @Scheduled(cron = "0 0 8 * * ?") // Todos os dias às 8:00
-    @Transactional
+    // Todos os dias às 8:00: previsão da próxima semana
+    @Scheduled(cron = "0 0 8 * * ?")
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void processFinancialForecast() {
-        try {
-            logger.info("🔮 Agendador de previsão executando...");
-            LocalDate today = LocalDate.now();
-            LocalDate nextWeek = today.plusWeeks(1);
-            
-            // Processar previsão para a próxima semana
-            financialRecordService.processForecastPeriod(today, nextWeek);
-            logger.info("✅ Previsão financeira concluída para: " + today + " a " + nextWeek);
-        } catch (Exception e) {
-            logger.severe("❌ Erro no agendamento de previsão: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(WEEK_FORECAST);
     }
 
-    // ✅ NOVO: Agendamento para processar reservas pendentes (executa a cada 30 minutos durante o horário comercial)
-    @Scheduled(cron = "0 0/30 9-18 * * ?") // A cada 30 minutos, das 9h às 18h
-    @Transactional
+    // A cada 30 minutos, das 9h às 18h
+    @Scheduled(cron = "0 0/30 9-18 * * ?")
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void processPendingReservations() {
-        try {
-            logger.info("⏰ Agendador de reservas pendentes executando...");
-            LocalDate today = LocalDate.now();
-            
-            // Processar apenas reservas não processadas de hoje
-            financialRecordService.processDailyRecord(today);
-            logger.info("✅ Processamento de reservas pendentes concluído para: " + today);
-        } catch (Exception e) {
-            logger.severe("❌ Erro no processamento de reservas pendentes: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(PENDING_NIGHTS);
     }
 
-    // ✅ NOVO: Agendamento para estatísticas (executa todo domingo às 03:00)
+    // Todo domingo às 03:00: semana anterior
     @Scheduled(cron = "0 0 3 * * SUN")
-    @Transactional
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
     public void weeklyStatistics() {
-        try {
-            logger.info("📈 Agendador de estatísticas semanais executando...");
-            
-            // Processar todas as reservas da semana anterior
-            LocalDate endOfLastWeek = LocalDate.now().minusDays(1);
-            LocalDate startOfLastWeek = endOfLastWeek.minusDays(6);
-            
-            financialRecordService.processForecastPeriod(startOfLastWeek, endOfLastWeek);
-            logger.info("✅ Estatísticas semanais concluídas para: " + startOfLastWeek + " a " + endOfLastWeek);
-        } catch (Exception e) {
-            logger.severe("❌ Erro nas estatísticas semanais: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    // ✅ NOVO: Agendamento para limpeza/manutenção (executa todo domingo às 02:00)
-    @Scheduled(cron = "0 0 2 * * SUN")
-    @Transactional
-    public void weeklyMaintenance() {
-        try {
-            logger.info("🧹 Executando manutenção semanal...");
-            
-            // Aqui você pode adicionar tarefas de limpeza ou otimização se necessário
-            // Exemplo: remover registros financeiros muito antigos
-            // financialRecordService.cleanOldRecords();
-            
-            logger.info("✅ Manutenção semanal concluída");
-        } catch (Exception e) {
-            logger.severe("❌ Erro na manutenção semanal: " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJob(LAST_WEEK);
     }
 
-    // ✅ NOVO: Agendamento para backup de dados (executa no primeiro dia de cada mês às 01:00)
+    // Primeiro dia de cada mês às 01:00: previsão do próximo mês
     @Scheduled(cron = "0 0 1 1 * ?")
-    @Transactional
-    public void monthlyBackup() {
-        try {
-            logger.info("💾 Executando backup mensal...");
-            
-            // Processar previsão para o próximo mês
-            LocalDate firstDayNextMonth = LocalDate.now().plusMonths(1).withDayOfMonth(1);
-            LocalDate lastDayNextMonth = firstDayNextMonth.withDayOfMonth(firstDayNextMonth.lengthOfMonth());
-            
-            financialRecordService.processForecastPeriod(firstDayNextMonth, lastDayNextMonth);
-            logger.info("✅ Backup mensal concluído - Previsão para: " + firstDayNextMonth + " a " + lastDayNextMonth);
-        } catch (Exception e) {
-            logger.severe("❌ Erro no backup mensal: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    // ✅ NOVO: Agendamento para teste do sistema (executa aos sábados às 10:00)
-    @Scheduled(cron = "0 0 10 * * SAT")
-    @Transactional
-    public void systemTest() {
-        try {
-            logger.info("🧪 Executando teste do sistema...");
-            
-            // Testar processamento de datas específicas
-            LocalDate testDate1 = LocalDate.now().plusDays(1);
-            LocalDate testDate2 = LocalDate.now().plusDays(7);
-            
-            financialRecordService.processForecast(testDate1);
-            financialRecordService.processForecast(testDate2);
-            
-            // Executar debug para verificar status
-            financialRecordService.debugReservations();
-            
-            logger.info("✅ Teste do sistema concluído");
-        } catch (Exception e) {
-            logger.severe("❌ Erro no teste do sistema: " + e.getMessage());
-            e.printStackTrace();
-        }
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
+    public void nextMonthForecast() {
+        runJob(NEXT_MONTH_FORECAST);
     }
-}
\ No newline at end of file
+}
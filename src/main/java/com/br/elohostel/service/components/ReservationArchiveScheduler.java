@@ -0,0 +1,35 @@
+package com.br.elohostel.service.components;
+
+import java.time.Duration;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.br.elohostel.config.WorkloadConfig;
+import com.br.elohostel.service.ReservationArchiveService;
+import com.br.elohostel.service.SchedulerLockService;
+
+@Component
+public class ReservationArchiveScheduler {
+
+    private static final Duration LOCK_AT_MOST = Duration.ofHours(2);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(2);
+
+    private final ReservationArchiveService reservationArchiveService;
+    private final SchedulerLockService schedulerLock;
+
+    public ReservationArchiveScheduler(ReservationArchiveService reservationArchiveService,
+                                       SchedulerLockService schedulerLock) {
+        this.reservationArchiveService = reservationArchiveService;
+        this.schedulerLock = schedulerLock;
+    }
+
+    // Dia 2 de cada mês às 03:00, depois da consolidação do mês anterior
+    @Scheduled(cron = "0 0 3 2 * ?")
+    @Async(WorkloadConfig.FINANCIAL_BATCH_EXECUTOR)
+    public void archiveClosedReservations() {
+        schedulerLock.runLocked("archive:reservations", LOCK_AT_MOST, LOCK_AT_LEAST,
+            reservationArchiveService::archiveClosedReservations);
+    }
+}
@@ -0,0 +1,37 @@
+package com.br.elohostel.service.components;
+
+import java.util.logging.Logger;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.br.elohostel.service.RevenueLedgerService;
+
+/**
+ * Popula o razão de receitas na primeira subida após a sua introdução,
+ * lançando as reservas já existentes no banco. O canal dos lançamentos antigos
+ * é preenchido uma única vez pela migração V7.
+ */
+@Component
+public class RevenueLedgerBootstrap {
+
+    private static final Logger logger = Logger.getLogger(RevenueLedgerBootstrap.class.getName());
+
+    private final RevenueLedgerService revenueLedgerService;
+
+    public RevenueLedgerBootstrap(RevenueLedgerService revenueLedgerService) {
+        this.revenueLedgerService = revenueLedgerService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedLedger() {
+        try {
+            if (revenueLedgerService.isEmpty()) {
+                revenueLedgerService.rebuild();
+            }
+        } catch (Exception e) {
+            logger.severe("❌ Erro ao popular o razão de receitas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.br.elohostel.util;
+
+/**
+ * Largest-Triangle-Three-Buckets: reduz uma série a no máximo {@code threshold}
+ * pontos preservando picos e vales. O primeiro e o último ponto são mantidos;
+ * cada bucket intermediário escolhe o ponto que forma o maior triângulo com o
+ * ponto escolhido antes e a média do bucket seguinte.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Índices dos pontos escolhidos, em ordem crescente. Os valores de x devem
+     * estar ordenados.
+     */
+    public static int[] downsample(double[] x, double[] y, int threshold) {
+        int length = x.length;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = Math.max(nextEnd - nextStart, 1);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            a = chosen;
+        }
+
+        selected[threshold - 1] = length - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,61 @@
+package com.br.elohostel.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de dinheiro em centavos (long) para os laços de agregação.
+ *
+ * Regras de arredondamento:
+ * - entrada (BigDecimal → centavos): HALF_UP na segunda casa decimal;
+ * - divisão de um valor em partes: divisão inteira, e os centavos que sobram
+ *   vão um a um para as primeiras partes, então a soma das partes é exata;
+ * - médias (ADR, RevPAR): HALF_UP no centavo.
+ * A conversão de volta para BigDecimal (escala 2) só acontece ao persistir
+ * ou responder a API.
+ */
+public final class MoneyCents {
+
+    private MoneyCents() {}
+
+    public static long of(BigDecimal value) {
+        if (value == null) {
+            return 0L;
+        }
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long times(long cents, long factor) {
+        return Math.multiplyExact(cents, factor);
+    }
+
+    public static long[] split(long cents, int parts) {
+        long[] shares = new long[parts];
+        long base = Math.floorDiv(cents, parts);
+        long remainder = Math.floorMod(cents, parts);
+        for (int i = 0; i < parts; i++) {
+            shares[i] = base + (i < remainder ? 1 : 0);
+        }
+        return shares;
+    }
+
+    public static long share(long cents, int parts, int index) {
+        return Math.floorDiv(cents, parts) + (index < Math.floorMod(cents, parts) ? 1 : 0);
+    }
+
+    public static long divideHalfUp(long cents, long divisor) {
+        if (divisor == 0) {
+            return 0L;
+        }
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(cents) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
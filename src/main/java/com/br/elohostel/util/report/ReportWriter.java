@@ -0,0 +1,43 @@
+package com.br.elohostel.util.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escreve um relatório tabular linha a linha direto no stream de saída, sem
+ * manter as linhas em memória.
+ */
+public interface ReportWriter extends AutoCloseable {
+
+    void header(String... columns) throws IOException;
+
+    void row(Object... values) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    enum Format {
+        CSV("text/csv; charset=utf-8", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public ReportWriter open(OutputStream out, String sheetName) throws IOException {
+            return this == XLSX ? new XlsxReportWriter(out, sheetName) : new CsvReportWriter(out);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Sequências com incremento 50 (otimizador pooled do Hibernate) para as
+ * tabelas de maior volume, para que os INSERTs possam ir em lote. Cada
+ * sequência começa acima do maior id existente na tabela. O razão de receitas
+ * continua com IDENTITY: as marcas d'água dependem de ids crescentes na ordem
+ * de inserção.
+ */
+public class V3__pooled_id_sequences extends BaseJavaMigration {
+
+    // Mesmo valor do allocationSize nas entidades
+    private static final int INCREMENT = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "reserve_seq", "TB_RESERVE",
+        "guest_seq", "TB_GUEST",
+        "room_occupation_seq", "TB_ROOM_OCCUPATION",
+        "bed_occupation_seq", "TB_BED_OCCUPATION",
+        "airbnb_reservation_seq", "TB_AIRBNB_RESERVATION",
+        "booking_reservation_seq", "TB_BOOKING_RESERVATION",
+        "financial_record_seq", "TB_FINANCIAL_RECORD",
+        "booking_pickup_seq", "TB_BOOKING_PICKUP");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                long start = maxId(statement, sequence.getValue()) + INCREMENT + 1;
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence.getKey() +
+                    " START WITH " + start + " INCREMENT BY " + INCREMENT);
+            }
+        }
+    }
+
+    private long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Chaves naturais já tratadas como únicas pelo código (findBy... retornando
+ * Optional). Antes das restrições, as reservas importadas repetidas e ainda
+ * sem reserva interna são descartadas: fica a cópia ligada a uma reserva ou,
+ * se nenhuma estiver, a de menor id. Duplicatas que não dá para resolver
+ * sozinho (quartos com o mesmo número, duas cópias ligadas a reservas
+ * diferentes) abortam a migração com a lista para correção manual.
+ */
+public class V8__unique_natural_keys extends BaseJavaMigration {
+
+    private static final String[][] IMPORTED = {
+        {"TB_AIRBNB_RESERVATION", "airbnb_reservation_id", "uk_airbnb_reservation_external"},
+        {"TB_BOOKING_RESERVATION", "booking_reservation_id", "uk_booking_reservation_external"}};
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String[] imported : IMPORTED) {
+                statement.executeUpdate("DELETE FROM " + imported[0] + " r WHERE r.reserve_id IS NULL AND EXISTS (" +
+                    "SELECT 1 FROM " + imported[0] + " o WHERE o." + imported[1] + " = r." + imported[1] +
+                    " AND (o.reserve_id IS NOT NULL OR o.id < r.id))");
+            }
+
+            List<String> duplicates = new ArrayList<>();
+            duplicates.addAll(duplicates(statement, "TB_ROOM", "number", "quarto número"));
+            for (String[] imported : IMPORTED) {
+                duplicates.addAll(duplicates(statement, imported[0], imported[1], imported[0] + "." + imported[1]));
+            }
+            if (!duplicates.isEmpty()) {
+                throw new IllegalStateException("Chaves naturais repetidas, corrija antes de migrar: "
+                    + String.join("; ", duplicates));
+            }
+
+            statement.execute("ALTER TABLE TB_ROOM ADD CONSTRAINT IF NOT EXISTS uk_room_number UNIQUE (number)");
+            for (String[] imported : IMPORTED) {
+                statement.execute("ALTER TABLE " + imported[0] + " ADD CONSTRAINT IF NOT EXISTS " + imported[2] +
+                    " UNIQUE (" + imported[1] + ")");
+            }
+        }
+    }
+
+    private List<String> duplicates(Statement statement, String table, String column, String label) throws SQLException {
+        List<String> found = new ArrayList<>();
+        try (ResultSet result = statement.executeQuery("SELECT " + column + ", LISTAGG(CAST(id AS VARCHAR), ',') " +
+                "WITHIN GROUP (ORDER BY id) FROM " + table + " WHERE " + column + " IS NOT NULL " +
+                "GROUP BY " + column + " HAVING COUNT(*) > 1")) {
+            while (result.next()) {
+                found.add(label + " " + result.getString(1) + " (ids " + result.getString(2) + ")");
+            }
+        }
+        return found;
+    }
+}
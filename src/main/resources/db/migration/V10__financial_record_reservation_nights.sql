@@ -0,0 +1,5 @@
+-- Reserva-noites em coluna própria: total_reservations dos registros mensais e anuais passa a contar
+-- reservas distintas. Os consolidados antigos somavam reserva-noites, que é o valor copiado aqui;
+-- a próxima consolidação de cada mês/ano recalcula as reservas distintas.
+ALTER TABLE TB_FINANCIAL_RECORD ADD COLUMN IF NOT EXISTS reservation_nights INTEGER DEFAULT 0;
+UPDATE TB_FINANCIAL_RECORD SET reservation_nights = COALESCE(total_reservations, 0);
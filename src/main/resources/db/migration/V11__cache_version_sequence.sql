@@ -0,0 +1,3 @@
+-- Versões dos caches em memória (linhas de TB_PROCESSING_WATERMARK avançadas junto com cada mudança).
+-- Os valores saem de uma sequence para que a versão de uma transação desfeita nunca seja reaproveitada.
+CREATE SEQUENCE IF NOT EXISTS SEQ_CACHE_VERSION START WITH 1 INCREMENT BY 1;
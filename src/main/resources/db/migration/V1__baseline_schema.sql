@@ -0,0 +1,283 @@
+-- Esquema base, equivalente ao que o ddl-auto=update gerava.
+-- IF NOT EXISTS: bancos já existentes (baseline na versão 0) só ganham as tabelas que faltarem.
+
+CREATE TABLE IF NOT EXISTS TB_ROOM (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    number INTEGER,
+    room_status INTEGER,
+    room_type INTEGER,
+    price NUMERIC(38, 2)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BEDS (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status INTEGER,
+    room_id BIGINT,
+    CONSTRAINT fk_beds_room FOREIGN KEY (room_id) REFERENCES TB_ROOM (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_RESERVE (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reserve_status INTEGER,
+    check_in TIMESTAMP(6) ARRAY,
+    check_out TIMESTAMP(6) ARRAY,
+    initital_value NUMERIC(38, 2),
+    custom_value NUMERIC(38, 2),
+    use_custom_value BOOLEAN,
+    extra_guest_fee NUMERIC(38, 2)
+);
+
+CREATE TABLE IF NOT EXISTS reserve_days (
+    reserve_id BIGINT NOT NULL,
+    reserved_day DATE NOT NULL,
+    PRIMARY KEY (reserve_id, reserved_day),
+    CONSTRAINT fk_reserve_days_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_RESERVATIONS_ROOMS (
+    reserve_id BIGINT NOT NULL,
+    rooms_id BIGINT NOT NULL,
+    PRIMARY KEY (reserve_id, rooms_id),
+    CONSTRAINT fk_reservations_rooms_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id),
+    CONSTRAINT fk_reservations_rooms_room FOREIGN KEY (rooms_id) REFERENCES TB_ROOM (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_GUEST (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    rg VARCHAR(255),
+    phone VARCHAR(255),
+    email VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS TB_GUEST_RESERVE (
+    guest_id BIGINT NOT NULL,
+    reserve_id BIGINT NOT NULL,
+    CONSTRAINT fk_guest_reserve_guest FOREIGN KEY (guest_id) REFERENCES TB_GUEST (id),
+    CONSTRAINT fk_guest_reserve_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_ROOM_OCCUPATION (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id BIGINT,
+    reserve_id BIGINT,
+    CONSTRAINT fk_room_occupation_room FOREIGN KEY (room_id) REFERENCES TB_ROOM (id),
+    CONSTRAINT fk_room_occupation_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS room_occupied_days (
+    room_occupation_id BIGINT NOT NULL,
+    occupied_day DATE NOT NULL,
+    PRIMARY KEY (room_occupation_id, occupied_day),
+    CONSTRAINT fk_room_occupied_days_occupation FOREIGN KEY (room_occupation_id) REFERENCES TB_ROOM_OCCUPATION (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BED_OCCUPATION (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bed_id BIGINT,
+    reserve_id BIGINT,
+    CONSTRAINT fk_bed_occupation_bed FOREIGN KEY (bed_id) REFERENCES TB_BEDS (id),
+    CONSTRAINT fk_bed_occupation_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS bed_occupied_days (
+    bed_occupation_id BIGINT NOT NULL,
+    occupied_day DATE NOT NULL,
+    PRIMARY KEY (bed_occupation_id, occupied_day),
+    CONSTRAINT fk_bed_occupied_days_occupation FOREIGN KEY (bed_occupation_id) REFERENCES TB_BED_OCCUPATION (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_ROLES (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    role_status INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS TB_USERS (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    phone VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS TB_USERS_ROLES (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_users_roles_user FOREIGN KEY (user_id) REFERENCES TB_USERS (id),
+    CONSTRAINT fk_users_roles_role FOREIGN KEY (role_id) REFERENCES TB_ROLES (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_AIRBNB_SYNC (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ical_url VARCHAR(500),
+    export_ical_url VARCHAR(500),
+    property_id VARCHAR(255),
+    property_name VARCHAR(255),
+    calendar_name VARCHAR(255),
+    room_number INTEGER,
+    room_id BIGINT,
+    sync_direction VARCHAR(32),
+    last_sync TIMESTAMP(6),
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6),
+    CONSTRAINT fk_airbnb_sync_room FOREIGN KEY (room_id) REFERENCES TB_ROOM (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_AIRBNB_RESERVATION (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    airbnb_reservation_id VARCHAR(255),
+    guest_name VARCHAR(255),
+    guest_email VARCHAR(255),
+    guest_phone VARCHAR(255),
+    check_in DATE,
+    check_out DATE,
+    status VARCHAR(255),
+    last_modified TIMESTAMP(6),
+    is_processed BOOLEAN,
+    airbnb_sync_id BIGINT,
+    reserve_id BIGINT UNIQUE,
+    CONSTRAINT fk_airbnb_reservation_sync FOREIGN KEY (airbnb_sync_id) REFERENCES TB_AIRBNB_SYNC (id),
+    CONSTRAINT fk_airbnb_reservation_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BOOKING_SYNC (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ical_url VARCHAR(500),
+    export_ical_url VARCHAR(500),
+    property_id VARCHAR(255),
+    property_name VARCHAR(255),
+    calendar_name VARCHAR(255),
+    room_number INTEGER,
+    sync_direction VARCHAR(32),
+    last_sync TIMESTAMP(6),
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BOOKING_RESERVATION (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_reservation_id VARCHAR(255),
+    guest_name VARCHAR(255),
+    guest_email VARCHAR(255),
+    check_in DATE,
+    check_out DATE,
+    status VARCHAR(255),
+    last_modified TIMESTAMP(6),
+    is_processed BOOLEAN,
+    booking_sync_id BIGINT,
+    reserve_id BIGINT,
+    CONSTRAINT fk_booking_reservation_sync FOREIGN KEY (booking_sync_id) REFERENCES TB_BOOKING_SYNC (id),
+    CONSTRAINT fk_booking_reservation_reserve FOREIGN KEY (reserve_id) REFERENCES TB_RESERVE (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_FINANCIAL_RECORD (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    record_date DATE NOT NULL,
+    period_type INTEGER NOT NULL,
+    total_revenue NUMERIC(10, 2) NOT NULL,
+    average_daily_rate NUMERIC(10, 2),
+    occupancy_rate NUMERIC(5, 2),
+    total_reservations INTEGER,
+    total_guests INTEGER,
+    total_nights INTEGER,
+    revenue_per_available_room NUMERIC(10, 2),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS financial_record_room_types (
+    financial_record_id BIGINT NOT NULL,
+    room_type INTEGER,
+    reservations_count INTEGER,
+    nights_count INTEGER,
+    revenue NUMERIC(38, 2),
+    CONSTRAINT fk_financial_record_room_types_record FOREIGN KEY (financial_record_id) REFERENCES TB_FINANCIAL_RECORD (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BACKFILL_CHECKPOINT (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_type VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    chunk_days INTEGER NOT NULL,
+    status VARCHAR(32),
+    last_error VARCHAR(1000),
+    started_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    finished_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS backfill_completed_chunks (
+    checkpoint_id BIGINT NOT NULL,
+    chunk_start DATE NOT NULL,
+    PRIMARY KEY (checkpoint_id, chunk_start),
+    CONSTRAINT fk_backfill_completed_chunks_checkpoint FOREIGN KEY (checkpoint_id) REFERENCES TB_BACKFILL_CHECKPOINT (id)
+);
+
+CREATE TABLE IF NOT EXISTS TB_REVENUE_LEDGER (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reserve_id BIGINT NOT NULL,
+    night_date DATE NOT NULL,
+    room_type INTEGER,
+    channel INTEGER,
+    revenue NUMERIC(12, 2) NOT NULL,
+    room_nights INTEGER NOT NULL,
+    guests INTEGER NOT NULL,
+    reservations INTEGER NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_revenue_ledger_night ON TB_REVENUE_LEDGER (night_date);
+CREATE INDEX IF NOT EXISTS idx_revenue_ledger_reserve ON TB_REVENUE_LEDGER (reserve_id);
+
+CREATE TABLE IF NOT EXISTS TB_INVENTORY_CHANGE (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    effective_date DATE NOT NULL,
+    room_id BIGINT,
+    bed_id BIGINT,
+    reason VARCHAR(32) NOT NULL,
+    rooms_delta INTEGER NOT NULL,
+    beds_delta INTEGER NOT NULL,
+    units_delta INTEGER NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_inventory_change_date ON TB_INVENTORY_CHANGE (effective_date);
+
+CREATE TABLE IF NOT EXISTS TB_PROCESSING_WATERMARK (
+    name VARCHAR(64) PRIMARY KEY,
+    last_ledger_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS TB_BOOKING_PICKUP (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    stay_date DATE NOT NULL,
+    room_nights INTEGER NOT NULL,
+    revenue NUMERIC(12, 2) NOT NULL,
+    reservations INTEGER NOT NULL,
+    CONSTRAINT uk_booking_pickup_stay_snapshot UNIQUE (stay_date, snapshot_date)
+);
+CREATE INDEX IF NOT EXISTS idx_booking_pickup_snapshot ON TB_BOOKING_PICKUP (snapshot_date);
+
+CREATE TABLE IF NOT EXISTS TB_JOB_RUN (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    ledger_mark BIGINT NOT NULL,
+    started_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6),
+    duration_millis BIGINT,
+    message VARCHAR(1000)
+);
+CREATE INDEX IF NOT EXISTS idx_job_run_name ON TB_JOB_RUN (job_name, id);
+
+CREATE TABLE IF NOT EXISTS TB_SCHEDULER_LEASE (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP(6) NOT NULL,
+    locked_at TIMESTAMP(6) NOT NULL,
+    locked_by VARCHAR(128) NOT NULL
+);
@@ -0,0 +1,24 @@
+-- Índices das consultas quentes que o ddl-auto nunca criou.
+
+-- Noites reservadas / ocupadas por data (MEMBER OF, BETWEEN): a PK começa pelo dono, não pela data
+CREATE INDEX IF NOT EXISTS idx_reserve_days_day ON reserve_days (reserved_day, reserve_id);
+CREATE INDEX IF NOT EXISTS idx_room_occupied_days_day ON room_occupied_days (occupied_day, room_occupation_id);
+CREATE INDEX IF NOT EXISTS idx_bed_occupied_days_day ON bed_occupied_days (occupied_day, bed_occupation_id);
+
+CREATE INDEX IF NOT EXISTS idx_reserve_status ON TB_RESERVE (reserve_status);
+CREATE INDEX IF NOT EXISTS idx_room_occupation_room ON TB_ROOM_OCCUPATION (room_id);
+CREATE INDEX IF NOT EXISTS idx_room_occupation_reserve ON TB_ROOM_OCCUPATION (reserve_id);
+CREATE INDEX IF NOT EXISTS idx_bed_occupation_bed ON TB_BED_OCCUPATION (bed_id);
+CREATE INDEX IF NOT EXISTS idx_bed_occupation_reserve ON TB_BED_OCCUPATION (reserve_id);
+CREATE INDEX IF NOT EXISTS idx_booking_reservation_reserve ON TB_BOOKING_RESERVATION (reserve_id);
+
+-- Registros financeiros: um por (período, data). Duplicatas antigas são derivadas e podem ser descartadas.
+DELETE FROM financial_record_room_types WHERE financial_record_id IN (
+    SELECT f.id FROM TB_FINANCIAL_RECORD f WHERE EXISTS (
+        SELECT 1 FROM TB_FINANCIAL_RECORD o
+        WHERE o.period_type = f.period_type AND o.record_date = f.record_date AND o.id < f.id));
+DELETE FROM TB_FINANCIAL_RECORD f WHERE EXISTS (
+    SELECT 1 FROM TB_FINANCIAL_RECORD o
+    WHERE o.period_type = f.period_type AND o.record_date = f.record_date AND o.id < f.id);
+ALTER TABLE TB_FINANCIAL_RECORD ADD CONSTRAINT IF NOT EXISTS uk_financial_record_period_date UNIQUE (period_type, record_date);
+CREATE INDEX IF NOT EXISTS idx_financial_record_room_types_record ON financial_record_room_types (financial_record_id);
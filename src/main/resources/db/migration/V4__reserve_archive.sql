@@ -0,0 +1,19 @@
+-- Arquivo frio das reservas encerradas: uma linha por reserva, com o que o registro de
+-- reservas e as contagens precisam. O id é o da reserva original; o razão de receitas
+-- continua apontando para ele.
+CREATE TABLE IF NOT EXISTS TB_RESERVE_ARCHIVE (
+    id BIGINT PRIMARY KEY,
+    reserve_status INTEGER,
+    first_night DATE NOT NULL,
+    last_night DATE NOT NULL,
+    nights INTEGER NOT NULL,
+    reserved_days DATE ARRAY,
+    guests INTEGER NOT NULL,
+    guest_ids VARCHAR(1000),
+    room_numbers VARCHAR(255),
+    bed_ids VARCHAR(255),
+    total_value NUMERIC(12, 2),
+    use_custom_value BOOLEAN,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_reserve_archive_nights ON TB_RESERVE_ARCHIVE (first_night, last_night);
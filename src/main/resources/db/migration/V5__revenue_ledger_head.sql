@@ -0,0 +1,4 @@
+-- Cabeça do razão de receitas: último lançamento confirmado. Daqui em diante quem grava no
+-- razão avança esta linha na mesma transação, e os consumidores leem a cabeça em vez de MAX(id).
+INSERT INTO TB_PROCESSING_WATERMARK (name, last_ledger_id, updated_at)
+SELECT 'revenue-ledger', COALESCE(MAX(id), 0), LOCALTIMESTAMP FROM TB_REVENUE_LEDGER;
@@ -0,0 +1,7 @@
+-- Cabeça das mudanças de inventário (mesmo esquema da cabeça do razão) e a marca de inventário
+-- de cada execução de job. Execuções antigas ficam com 0: cada job roda uma vez a mais e passa a
+-- refletir a capacidade atual.
+INSERT INTO TB_PROCESSING_WATERMARK (name, last_ledger_id, updated_at)
+SELECT 'inventory-changes', COALESCE(MAX(id), 0), LOCALTIMESTAMP FROM TB_INVENTORY_CHANGE;
+
+ALTER TABLE TB_JOB_RUN ADD COLUMN IF NOT EXISTS inventory_mark BIGINT DEFAULT 0 NOT NULL;
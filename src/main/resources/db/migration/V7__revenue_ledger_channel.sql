@@ -0,0 +1,8 @@
+-- Canal dos lançamentos gravados antes de o razão registrar o canal de venda (e dos estornos
+-- deles, que herdavam o canal nulo). Valores ordinais de SalesChannel: 0 DIRECT, 1 AIRBNB, 2 BOOKING.
+-- O canal é o atual da reserva, o mesmo que a conciliação usa, então os saldos por reserva não mudam.
+UPDATE TB_REVENUE_LEDGER e SET channel = CASE
+    WHEN EXISTS (SELECT 1 FROM TB_AIRBNB_RESERVATION a WHERE a.reserve_id = e.reserve_id) THEN 1
+    WHEN EXISTS (SELECT 1 FROM TB_BOOKING_RESERVATION b WHERE b.reserve_id = e.reserve_id) THEN 2
+    ELSE 0 END
+WHERE e.channel IS NULL;
@@ -0,0 +1,3 @@
+-- Noites de uma reserva no razão (NOT EXISTS da previsão do painel); substitui o índice só por reserva
+CREATE INDEX IF NOT EXISTS idx_revenue_ledger_reserve_night ON TB_REVENUE_LEDGER (reserve_id, night_date);
+DROP INDEX IF EXISTS idx_revenue_ledger_reserve;
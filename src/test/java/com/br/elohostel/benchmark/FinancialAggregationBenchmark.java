@@ -0,0 +1,99 @@
+package com.br.elohostel.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.util.MoneyCents;
+
+/**
+ * Compara a agregação diária em BigDecimal (como era feita em calculateMetrics)
+ * com a agregação em centavos, sobre um ano de noites.
+ *
+ * Rodar pelo main (IDE ou classpath de teste); o profiler de GC mostra a
+ * diferença de alocação por operação (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinancialAggregationBenchmark {
+
+    private static final int RESERVATIONS_PER_DAY = 12;
+    private static final int NIGHTS_PER_RESERVATION = 3;
+
+    private List<Reserve> reservations;
+
+    @Setup
+    public void setUp() {
+        reservations = new ArrayList<>();
+        LocalDate firstDay = LocalDate.of(2025, 1, 1);
+        for (int day = 0; day < 365; day++) {
+            for (int i = 0; i < RESERVATIONS_PER_DAY / NIGHTS_PER_RESERVATION; i++) {
+                Reserve reserve = new Reserve();
+                Set<LocalDate> nights = new HashSet<>();
+                for (int n = 0; n < NIGHTS_PER_RESERVATION; n++) {
+                    nights.add(firstDay.plusDays(day + n));
+                }
+                reserve.setReservedDays(nights);
+                reserve.setInitialValue(new BigDecimal("89.90").add(BigDecimal.valueOf(i * 10)));
+                reservations.add(reserve);
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalPerNight() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Reserve reserve : reservations) {
+            BigDecimal reserveTotal = reserve.calculateTotalValue();
+            int nights = reserve.getNumberOfDays();
+            for (int n = 0; n < nights; n++) {
+                total = total.add(reserveTotal.divide(BigDecimal.valueOf(nights), 2, RoundingMode.HALF_UP));
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long centsPerNight() {
+        long total = 0L;
+        for (Reserve reserve : reservations) {
+            long reserveTotal = reserve.calculateTotalCents();
+            int nights = reserve.getNumberOfDays();
+            for (int n = 0; n < nights; n++) {
+                total += MoneyCents.share(reserveTotal, nights, n);
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FinancialAggregationBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.br.elohostel.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.br.elohostel.model.Guest;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.enums.ReserveStatus;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Com ids de sequência pooled, os INSERTs saem em lotes JDBC: o número de
+ * statements preparados fica na casa das unidades em vez de um por linha.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchInsertStatementCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void guestsAreInsertedInBatches() {
+        for (int i = 0; i < 100; i++) {
+            entityManager.persist(new Guest("Hóspede " + i, "RG" + i, "1199999" + i, "guest" + i + "@test.com"));
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        // 2 lotes de INSERT + chamadas à sequência (uma a cada 50 ids)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void reservationsAndTheirNightsAreInsertedInBatches() {
+        LocalDate start = LocalDate.of(2025, 3, 1);
+        for (int i = 0; i < 40; i++) {
+            Reserve reserve = new Reserve();
+            reserve.setReserveStatus(ReserveStatus.CONFIRMED);
+            for (int night = 0; night < 5; night++) {
+                reserve.getReservedDays().add(start.plusDays(i + night));
+            }
+            entityManager.persist(reserve);
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        assertThat(statistics.getCollectionRecreateCount()).isEqualTo(40);
+        // 1 lote de reservas + 4 lotes de noites (200 linhas) + sequência, contra 240 sem lotes
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,122 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.elohostel.exceptions.ResourceNotFoundException;
+import com.br.elohostel.service.BackupService.BackupFile;
+import com.br.elohostel.service.BackupService.Mode;
+import com.br.elohostel.service.BackupService.VerifyResult;
+
+/**
+ * BACKUP TO só funciona com banco em arquivo, então o teste troca o H2 em
+ * memória por um arquivo temporário migrado pelo Flyway. Cada cópia gerada
+ * tem que voltar na verificação com a mesma versão de esquema do banco em uso.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BackupServiceTest {
+
+    private static final List<String> VERIFIED_TABLES = List.of(
+        "TB_ROOM", "TB_BEDS", "TB_GUEST", "TB_RESERVE", "TB_RESERVE_ARCHIVE", "TB_REVENUE_LEDGER", "TB_FINANCIAL_RECORD");
+
+    @TempDir
+    static Path databaseDir;
+
+    @TempDir
+    Path backupDir;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + databaseDir.resolve("elohostel") + ";DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void backupArchiveIsRestoredWithTheCurrentSchema() throws Exception {
+        assertRoundTrip(service(Mode.BACKUP, 7, 6), ".zip");
+    }
+
+    @Test
+    void scriptDumpIsRestoredWithTheCurrentSchema() throws Exception {
+        assertRoundTrip(service(Mode.SCRIPT, 7, 6), ".sql.gz");
+    }
+
+    @Test
+    void rotationKeepsTheLatestCopiesAndOnePerMonth() throws Exception {
+        BackupService backupService = service(Mode.BACKUP, 2, 3);
+        for (String stamp : List.of("20250320-023000", "20250310-023000", "20250301-023000",
+                                    "20250215-023000", "20250201-023000", "20250110-023000", "20241205-023000")) {
+            Files.writeString(backupDir.resolve("elohostel-" + stamp + ".zip"), stamp);
+        }
+        Files.writeString(backupDir.resolve("notas.txt"), "fora do padrão, não é tocado");
+
+        // 2 mais recentes (20/03, 10/03) + a última de fevereiro e de janeiro; dezembro passa do limite de meses
+        assertThat(backupService.rotate()).isEqualTo(3);
+        assertThat(backupService.listBackups()).extracting(BackupFile::name).containsExactly(
+            "elohostel-20250320-023000.zip", "elohostel-20250310-023000.zip",
+            "elohostel-20250215-023000.zip", "elohostel-20250110-023000.zip");
+        assertThat(backupDir.resolve("notas.txt")).exists();
+    }
+
+    @Test
+    void unreadableCopyFailsVerificationWithoutThrowing() throws Exception {
+        BackupService backupService = service(Mode.BACKUP, 7, 6);
+        Files.writeString(backupDir.resolve("elohostel-20250101-023000.zip"), "não é um zip");
+
+        VerifyResult result = backupService.verify("elohostel-20250101-023000.zip");
+
+        assertThat(result.restored()).isFalse();
+        assertThat(result.rowCounts()).isEmpty();
+        assertThat(result.message()).isNotBlank();
+    }
+
+    @Test
+    void verifyOnlyOpensCopiesInsideTheBackupDirectory() throws Exception {
+        BackupService backupService = service(Mode.BACKUP, 7, 6);
+        Files.writeString(backupDir.getParent().resolve("elohostel-20250101-023000.zip"), "fora do diretório");
+
+        assertThatThrownBy(() -> backupService.verify("elohostel-20250102-023000.zip"))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> backupService.verify("../elohostel-20250101-023000.zip"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private BackupService service(Mode mode, int keepLast, int keepMonthly) {
+        return new BackupService(dataSource, backupDir.toString(), mode, keepLast, keepMonthly);
+    }
+
+    private void assertRoundTrip(BackupService backupService, String extension) throws Exception {
+        BackupFile backup = backupService.backup();
+
+        assertThat(backup.name()).startsWith("elohostel-").endsWith(extension);
+        assertThat(backupDir.resolve(backup.name())).exists();
+        assertThat(backupDir.resolve(backup.name() + ".part")).doesNotExist();
+        assertThat(backup.sizeBytes()).isPositive();
+
+        VerifyResult result = backupService.verify(backup.name());
+
+        assertThat(result.restored()).as(result.message()).isTrue();
+        assertThat(result.schemaVersion()).isNotNull().isEqualTo(result.currentSchemaVersion());
+        assertThat(result.rowCounts()).containsOnlyKeys(VERIFIED_TABLES);
+    }
+}
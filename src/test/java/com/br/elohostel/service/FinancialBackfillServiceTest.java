@@ -0,0 +1,147 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.elohostel.config.WorkloadConfig;
+import com.br.elohostel.model.BackfillCheckpoint;
+import com.br.elohostel.repository.BackfillCheckpointRepository;
+import com.br.elohostel.repository.SchedulerLeaseRepository;
+
+/**
+ * Blocos concluídos ficam no checkpoint: um job que falhou ou foi
+ * interrompido é retomado processando só o que faltou. Sem transação do teste,
+ * porque os blocos rodam em outras threads e precisam ver o checkpoint gravado.
+ */
+@DataJpaTest(properties = "app.financial.backfill.chunk-days=31")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FinancialBackfillService.class, SchedulerLockService.class, FinancialBackfillServiceTest.ExecutorConfig.class})
+class FinancialBackfillServiceTest {
+
+    // 31 dias por bloco: 01/01-31/01, 01/02-03/03, 04/03-31/03
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate MAR_3 = LocalDate.of(2025, 3, 3);
+    private static final LocalDate MAR_4 = LocalDate.of(2025, 3, 4);
+    private static final LocalDate MAR_31 = LocalDate.of(2025, 3, 31);
+
+    @TestConfiguration
+    static class ExecutorConfig {
+        @Bean(name = WorkloadConfig.BACKFILL_EXECUTOR)
+        ThreadPoolTaskExecutor backfillExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.setThreadNamePrefix("test-backfill-");
+            return executor;
+        }
+    }
+
+    @Autowired
+    private FinancialBackfillService backfillService;
+
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepo;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepo;
+
+    @Autowired
+    private SchedulerLockService schedulerLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private FinancialRecordService financialRecordService;
+
+    @MockitoBean
+    private RevenueLedgerService revenueLedgerService;
+
+    @AfterEach
+    void deleteCheckpointsAndLeases() {
+        checkpointRepo.deleteAll();
+        leaseRepo.deleteAll();
+    }
+
+    @Test
+    void resumeProcessesOnlyThePendingChunks() {
+        BackfillCheckpoint interrupted = new BackfillCheckpoint(FinancialBackfillService.JOB_REPROCESS, JAN_1, MAR_31, 31);
+        interrupted.setStatus(BackfillCheckpoint.Status.INTERRUPTED);
+        interrupted.getCompletedChunks().add(JAN_1);
+        checkpointRepo.save(interrupted);
+
+        BackfillCheckpoint finished = backfillService.resume();
+
+        verify(financialRecordService, never()).rebuildDailyRecords(JAN_1, JAN_31);
+        verify(financialRecordService).rebuildDailyRecords(FEB_1, MAR_3);
+        verify(financialRecordService).rebuildDailyRecords(MAR_4, MAR_31);
+        verify(financialRecordService).rollUpRange(JAN_1, MAR_31);
+        assertThat(finished.getStatus()).isEqualTo(BackfillCheckpoint.Status.COMPLETED);
+        assertThat(checkpointRepo.findById(finished.getId()).orElseThrow().getCompletedChunks())
+            .containsExactlyInAnyOrder(JAN_1, FEB_1, MAR_4);
+    }
+
+    @Test
+    void failedChunkIsTheOnlyOneRedoneOnResume() {
+        doThrow(new IllegalStateException("falha simulada"))
+            .when(financialRecordService).rebuildDailyRecords(FEB_1, MAR_3);
+
+        assertThatThrownBy(() -> backfillService.backfill(FinancialBackfillService.JOB_REPROCESS, JAN_1, MAR_31))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("falha simulada");
+
+        BackfillCheckpoint failed = checkpointRepo.findFirstByOrderByStartedAtDesc().orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(BackfillCheckpoint.Status.FAILED);
+        assertThat(failed.getCompletedChunks()).containsExactlyInAnyOrder(JAN_1, MAR_4);
+        verify(financialRecordService, never()).rollUpRange(any(), any());
+
+        doReturn(List.of()).when(financialRecordService).rebuildDailyRecords(FEB_1, MAR_3);
+        clearInvocations(financialRecordService);
+
+        BackfillCheckpoint resumed = backfillService.resume();
+
+        assertThat(resumed.getId()).isEqualTo(failed.getId());
+        assertThat(resumed.getStatus()).isEqualTo(BackfillCheckpoint.Status.COMPLETED);
+        verify(financialRecordService, times(1)).rebuildDailyRecords(any(), any());
+        verify(financialRecordService).rebuildDailyRecords(FEB_1, MAR_3);
+    }
+
+    @Test
+    void backfillIsRefusedWhileAScheduledFinancialJobHoldsTheRecords() {
+        // Outra instância da aplicação, no meio de um job agendado
+        SchedulerLockService otherInstance = new SchedulerLockService(leaseRepo, transactionManager);
+
+        otherInstance.runLocked(FinancialRecordService.RECORDS_LOCK, Duration.ofMinutes(10), Duration.ZERO, () ->
+            assertThatThrownBy(() -> backfillService.backfill(FinancialBackfillService.JOB_REPROCESS, JAN_1, MAR_31))
+                .isInstanceOf(IllegalStateException.class));
+
+        verify(financialRecordService, never()).rebuildDailyRecords(any(), any());
+        assertThat(checkpointRepo.count()).isZero();
+        assertThat(schedulerLock.isLocked(FinancialRecordService.RECORDS_LOCK)).isFalse();
+    }
+}
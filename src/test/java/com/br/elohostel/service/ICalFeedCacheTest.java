@@ -0,0 +1,79 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.elohostel.repository.ProcessingWatermarkRepository;
+import com.br.elohostel.service.ICalFeedCache.ICalFeed;
+
+/**
+ * Dois caches sobre o mesmo banco fazem o papel de duas instâncias: a versão
+ * do calendário avançada por uma vale para a outra. A versão é gravada em
+ * transação própria, então o teste roda sem transação e limpa a linha no fim.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CacheVersionService.class)
+class ICalFeedCacheTest {
+
+    private static final String FEED = "calendar";
+
+    @Autowired
+    private CacheVersionService cacheVersions;
+
+    @Autowired
+    private ProcessingWatermarkRepository watermarkRepo;
+
+    private ICalFeedCache instanceA;
+    private ICalFeedCache instanceB;
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void startInstances() {
+        instanceA = new ICalFeedCache(60, cacheVersions);
+        instanceB = new ICalFeedCache(60, cacheVersions);
+    }
+
+    @AfterEach
+    void deleteVersion() {
+        watermarkRepo.deleteById(CacheVersionService.CALENDAR);
+    }
+
+    @Test
+    void feedIsRenderedOnceWhileNothingChanges() {
+        ICalFeed first = instanceA.get(FEED, this::render);
+        ICalFeed second = instanceA.get(FEED, this::render);
+
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void changeCommittedByAnotherInstanceIsSeenOnTheNextRequest() {
+        instanceA.get(FEED, this::render);
+        instanceB.get(FEED, this::render);
+        assertThat(renders).hasValue(2);
+
+        // Reserva alterada pela instância B
+        cacheVersions.advance(CacheVersionService.CALENDAR);
+
+        ICalFeed renderedAgain = instanceA.get(FEED, this::render);
+
+        assertThat(renders).hasValue(3);
+        assertThat(renderedAgain.dataVersion()).isEqualTo(cacheVersions.current(CacheVersionService.CALENDAR));
+    }
+
+    private String render() {
+        return "BEGIN:VCALENDAR\r\nX-RENDER:" + renders.incrementAndGet() + "\r\nEND:VCALENDAR\r\n";
+    }
+}
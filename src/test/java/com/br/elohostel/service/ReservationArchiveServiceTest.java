@@ -0,0 +1,136 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.br.elohostel.model.ArchivedReserve;
+import com.br.elohostel.model.FinancialRecord;
+import com.br.elohostel.model.Guest;
+import com.br.elohostel.model.ProcessingWatermark;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.RevenueLedgerEntry;
+import com.br.elohostel.model.Room;
+import com.br.elohostel.model.enums.PeriodType;
+import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.model.enums.RoomStatus;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+import com.br.elohostel.repository.ArchivedReserveRepository;
+import com.br.elohostel.repository.ReserveRepository;
+import com.br.elohostel.repository.RevenueLedgerRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Só saem das tabelas quentes as reservas com todas as noites antes do corte
+ * e com os lançamentos já consumidos pelos registros diários; o razão fica.
+ */
+@DataJpaTest
+@Import(ReservationArchiveService.class)
+class ReservationArchiveServiceTest {
+
+    // Mês consolidado bem antes da temporada mantida: o corte fica em 01/02/2020
+    private static final LocalDate CLOSED_MONTH = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private ReservationArchiveService archiveService;
+
+    @Autowired
+    private ReserveRepository reserveRepo;
+
+    @Autowired
+    private ArchivedReserveRepository archiveRepo;
+
+    @Autowired
+    private RevenueLedgerRepository ledgerRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int nextRoomNumber = 301;
+
+    @Test
+    void nothingIsArchivedBeforeAnyMonthIsClosed() {
+        Reserve old = reserve(LocalDate.of(2020, 1, 10), 3);
+        processLedgerUpTo(post(old));
+
+        assertThat(archiveService.archiveClosedReservations()).isZero();
+        assertThat(reserveRepo.existsById(old.getId())).isTrue();
+    }
+
+    @Test
+    void closedAndProcessedReservationsMoveToTheArchive() {
+        closeMonth(CLOSED_MONTH);
+        Reserve closed = reserve(LocalDate.of(2020, 1, 10), 3);
+        Reserve unprocessed = reserve(LocalDate.of(2020, 1, 20), 2);
+        Reserve afterCutoff = reserve(LocalDate.of(2020, 2, 5), 2);
+        processLedgerUpTo(post(closed));
+        post(unprocessed);
+        post(afterCutoff);
+
+        assertThat(archiveService.getCutoff()).isEqualTo(LocalDate.of(2020, 2, 1));
+        assertThat(archiveService.archiveClosedReservations()).isEqualTo(1);
+
+        assertThat(reserveRepo.existsById(closed.getId())).isFalse();
+        assertThat(reserveRepo.existsById(unprocessed.getId())).isTrue();
+        assertThat(reserveRepo.existsById(afterCutoff.getId())).isTrue();
+
+        ArchivedReserve archived = archiveRepo.findById(closed.getId()).orElseThrow();
+        assertThat(archived.getFirstNight()).isEqualTo(LocalDate.of(2020, 1, 10));
+        assertThat(archived.getLastNight()).isEqualTo(LocalDate.of(2020, 1, 12));
+        assertThat(archived.getNights()).isEqualTo(3);
+        assertThat(archived.getGuests()).isEqualTo(1);
+        assertThat(archived.getRoomNumbers()).isEqualTo(String.valueOf(closed.getRooms().iterator().next().getNumber()));
+        assertThat(archived.getTotalValue()).isEqualByComparingTo("300.00");
+        // O razão continua com os lançamentos da reserva arquivada
+        assertThat(ledgerRepo.findByReserveId(closed.getId())).hasSize(1);
+    }
+
+    private Reserve reserve(LocalDate firstNight, int nights) {
+        Room room = new Room(nextRoomNumber++, RoomStatus.VAGUE, RoomType.EXCLUSIVE, new BigDecimal("100.00"));
+        entityManager.persist(room);
+
+        Reserve reserve = new Reserve();
+        reserve.setReserveStatus(ReserveStatus.CONFIRMED);
+        reserve.setInitialValue(new BigDecimal("100.00"));
+        for (int night = 0; night < nights; night++) {
+            reserve.getReservedDays().add(firstNight.plusDays(night));
+        }
+        reserve.getRooms().add(room);
+        entityManager.persist(reserve);
+
+        Guest guest = new Guest("Hóspede " + firstNight, "RG" + firstNight, "11999990000", "guest@test.com");
+        guest.getReservation().add(reserve);
+        reserve.getGuest().add(guest);
+        entityManager.persist(guest);
+        return reserve;
+    }
+
+    private Long post(Reserve reserve) {
+        RevenueLedgerEntry entry = new RevenueLedgerEntry(reserve.getId(), reserve.getCheckInDate(), RoomType.EXCLUSIVE,
+            SalesChannel.DIRECT, reserve.calculateTotalValue(), reserve.getNumberOfDays(), 1, 1);
+        entityManager.persist(entry);
+        return entry.getId();
+    }
+
+    private void processLedgerUpTo(Long ledgerId) {
+        ProcessingWatermark watermark = entityManager.find(ProcessingWatermark.class, FinancialRecordService.DAILY_RECORDS_WATERMARK);
+        if (watermark == null) {
+            watermark = new ProcessingWatermark(FinancialRecordService.DAILY_RECORDS_WATERMARK);
+            entityManager.persist(watermark);
+        }
+        watermark.setLastLedgerId(ledgerId);
+        entityManager.flush();
+    }
+
+    private void closeMonth(LocalDate firstDay) {
+        entityManager.persist(new FinancialRecord(firstDay, PeriodType.MENSAL));
+    }
+}
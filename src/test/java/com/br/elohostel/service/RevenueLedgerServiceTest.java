@@ -0,0 +1,213 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.br.elohostel.model.Bed;
+import com.br.elohostel.model.BedOccupation;
+import com.br.elohostel.model.BookingReservation;
+import com.br.elohostel.model.Guest;
+import com.br.elohostel.model.Reserve;
+import com.br.elohostel.model.RevenueLedgerEntry;
+import com.br.elohostel.model.Room;
+import com.br.elohostel.model.enums.BedStatus;
+import com.br.elohostel.model.enums.ReserveStatus;
+import com.br.elohostel.model.enums.RoomStatus;
+import com.br.elohostel.model.enums.RoomType;
+import com.br.elohostel.model.enums.SalesChannel;
+import com.br.elohostel.repository.RevenueLedgerRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * O razão guarda só diferenças: a soma dos lançamentos de uma reserva tem que
+ * bater com o que ela vale agora, por noite, tipo de quarto e canal.
+ */
+@DataJpaTest
+@Import({RevenueLedgerService.class, CacheVersionService.class})
+class RevenueLedgerServiceTest {
+
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+
+    @Autowired
+    private RevenueLedgerRepository ledgerRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void centsLeftOverGoToTheFirstNightsAndSumToTheTotal() {
+        Reserve reserve = reserve(customValue("100.00"), 3, room(101, RoomType.EXCLUSIVE));
+
+        revenueLedgerService.recordReservation(reserve);
+
+        Map<LocalDate, BigDecimal> revenueByNight = revenueByNight(reserve);
+        assertThat(revenueByNight.values()).containsExactly(
+            new BigDecimal("33.34"), new BigDecimal("33.33"), new BigDecimal("33.33"));
+        assertThat(totalRevenue(reserve)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void cancellationPostsReversalsThatZeroTheReservation() {
+        Reserve reserve = reserve(customValue("300.00"), 3, room(102, RoomType.EXCLUSIVE));
+        revenueLedgerService.recordReservation(reserve);
+
+        reserve.setReserveStatus(ReserveStatus.CANCELLED);
+        revenueLedgerService.recordReservation(reserve);
+
+        List<RevenueLedgerEntry> entries = ledgerRepo.findByReserveId(reserve.getId());
+        assertThat(entries).hasSize(6);
+        assertThat(totalRevenue(reserve)).isEqualByComparingTo("0.00");
+        assertThat(entries.stream().mapToInt(RevenueLedgerEntry::getReservations).sum()).isZero();
+        assertThat(entries.stream().mapToInt(RevenueLedgerEntry::getRoomNights).sum()).isZero();
+    }
+
+    @Test
+    void editPostsOnlyTheDifference() {
+        Reserve reserve = reserve(dailyRate("100.00"), 2, room(103, RoomType.EXCLUSIVE));
+        revenueLedgerService.recordReservation(reserve);
+
+        reserve.getReservedDays().add(FIRST_NIGHT.plusDays(2));
+        revenueLedgerService.recordReservation(reserve);
+
+        // 2 noites originais + 1 noite nova; as noites que não mudaram não recebem lançamento
+        assertThat(ledgerRepo.findByReserveId(reserve.getId())).hasSize(3);
+        assertThat(revenueByNight(reserve).values()).allSatisfy(revenue -> assertThat(revenue).isEqualByComparingTo("100.00"));
+        assertThat(totalRevenue(reserve)).isEqualByComparingTo("300.00");
+    }
+
+    @Test
+    void sharedRoomCountsOneRoomNightPerBed() {
+        Room dorm = room(201, RoomType.SHARED);
+        Reserve reserve = reserve(customValue("120.00"), 2, dorm);
+        addGuest(reserve, "Ana");
+        addGuest(reserve, "Bia");
+        occupyBed(reserve, bed(dorm));
+        occupyBed(reserve, bed(dorm));
+
+        revenueLedgerService.recordReservation(reserve);
+
+        List<RevenueLedgerEntry> entries = ledgerRepo.findByReserveId(reserve.getId());
+        assertThat(entries).hasSize(2).allSatisfy(entry -> {
+            assertThat(entry.getRoomNights()).isEqualTo(2);
+            assertThat(entry.getGuests()).isEqualTo(2);
+            assertThat(entry.getReservations()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void reconcilingAnUnchangedReservationPostsNothing() {
+        Reserve reserve = reserve(customValue("250.00"), 2, room(104, RoomType.SUITE));
+        revenueLedgerService.recordReservation(reserve);
+        int posted = ledgerRepo.findByReserveId(reserve.getId()).size();
+        entityManager.flush();
+        entityManager.clear();
+
+        revenueLedgerService.reconcileAfter(reserve.getId() - 1, 10);
+        revenueLedgerService.reconcileAfter(reserve.getId() - 1, 10);
+
+        assertThat(ledgerRepo.findByReserveId(reserve.getId())).hasSize(posted);
+        assertThat(totalRevenue(reserve)).isEqualByComparingTo("250.00");
+    }
+
+    @Test
+    void linkingToBookingMovesTheRevenueToTheBookingChannel() {
+        Reserve reserve = reserve(customValue("180.00"), 2, room(105, RoomType.EXCLUSIVE));
+        revenueLedgerService.recordReservation(reserve);
+
+        BookingReservation booking = new BookingReservation("BK-1", "Hóspede", FIRST_NIGHT, FIRST_NIGHT.plusDays(2));
+        booking.setReserve(reserve);
+        entityManager.persist(booking);
+        entityManager.flush();
+        revenueLedgerService.recordReservation(reserve.getId());
+
+        List<RevenueLedgerEntry> entries = ledgerRepo.findByReserveId(reserve.getId());
+        assertThat(revenueOf(entries, SalesChannel.DIRECT)).isEqualByComparingTo("0.00");
+        assertThat(revenueOf(entries, SalesChannel.BOOKING)).isEqualByComparingTo("180.00");
+    }
+
+    private Room room(int number, RoomType roomType) {
+        Room room = new Room(number, RoomStatus.VAGUE, roomType, new BigDecimal("100.00"));
+        entityManager.persist(room);
+        return room;
+    }
+
+    private Bed bed(Room room) {
+        Bed bed = new Bed(BedStatus.VAGUE, room);
+        entityManager.persist(bed);
+        room.getBeds().add(bed);
+        return bed;
+    }
+
+    private Reserve customValue(String value) {
+        Reserve reserve = new Reserve();
+        reserve.setUseCustomValue(true);
+        reserve.setCustomValue(new BigDecimal(value));
+        return reserve;
+    }
+
+    private Reserve dailyRate(String value) {
+        Reserve reserve = new Reserve();
+        reserve.setInitialValue(new BigDecimal(value));
+        return reserve;
+    }
+
+    private Reserve reserve(Reserve reserve, int nights, Room room) {
+        reserve.setReserveStatus(ReserveStatus.CONFIRMED);
+        for (int night = 0; night < nights; night++) {
+            reserve.getReservedDays().add(FIRST_NIGHT.plusDays(night));
+        }
+        reserve.getRooms().add(room);
+        entityManager.persist(reserve);
+        return reserve;
+    }
+
+    private void addGuest(Reserve reserve, String name) {
+        Guest guest = new Guest(name, "RG-" + name, "11999990000", name + "@test.com");
+        guest.getReservation().add(reserve);
+        reserve.getGuest().add(guest);
+        entityManager.persist(guest);
+    }
+
+    private void occupyBed(Reserve reserve, Bed bed) {
+        BedOccupation occupation = new BedOccupation();
+        occupation.setBed(bed);
+        occupation.setReserve(reserve);
+        entityManager.persist(occupation);
+        reserve.getBedOccupation().add(occupation);
+    }
+
+    private Map<LocalDate, BigDecimal> revenueByNight(Reserve reserve) {
+        Map<LocalDate, BigDecimal> revenueByNight = new TreeMap<>();
+        for (RevenueLedgerEntry entry : ledgerRepo.findByReserveId(reserve.getId())) {
+            revenueByNight.merge(entry.getNightDate(), entry.getRevenue(), BigDecimal::add);
+        }
+        return revenueByNight;
+    }
+
+    private BigDecimal totalRevenue(Reserve reserve) {
+        return ledgerRepo.findByReserveId(reserve.getId()).stream()
+            .map(RevenueLedgerEntry::getRevenue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BigDecimal revenueOf(List<RevenueLedgerEntry> entries, SalesChannel channel) {
+        return entries.stream()
+            .filter(entry -> entry.getChannel() == channel)
+            .map(RevenueLedgerEntry::getRevenue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,98 @@
+package com.br.elohostel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.elohostel.model.SchedulerLease;
+import com.br.elohostel.repository.SchedulerLeaseRepository;
+
+/**
+ * Duas instâncias do serviço sobre o mesmo banco fazem o papel de duas
+ * instâncias da aplicação. As concessões são gravadas em transações próprias,
+ * então o teste roda sem transação e limpa a tabela no fim.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLockServiceTest {
+
+    private static final Duration TEN_MINUTES = Duration.ofMinutes(10);
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerLockService instanceA;
+    private SchedulerLockService instanceB;
+
+    @BeforeEach
+    void startInstances() {
+        instanceA = new SchedulerLockService(leaseRepo, transactionManager);
+        instanceB = new SchedulerLockService(leaseRepo, transactionManager);
+    }
+
+    @AfterEach
+    void deleteLeases() {
+        leaseRepo.deleteAll();
+    }
+
+    @Test
+    void firstRunCreatesTheLeaseAndRunsTheJob() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(instanceA.runLocked("daily", TEN_MINUTES, Duration.ZERO, runs::incrementAndGet)).isTrue();
+
+        assertThat(runs).hasValue(1);
+        SchedulerLease lease = leaseRepo.findById("daily").orElseThrow();
+        assertThat(lease.getLockedBy()).isEqualTo(instanceA.getInstanceId());
+    }
+
+    @Test
+    void otherInstanceSkipsWhileTheJobIsRunning() {
+        AtomicBoolean ranOnB = new AtomicBoolean();
+        AtomicBoolean acquiredOnB = new AtomicBoolean(true);
+
+        instanceA.runLocked("sync", TEN_MINUTES, Duration.ZERO, () ->
+            acquiredOnB.set(instanceB.runLocked("sync", TEN_MINUTES, Duration.ZERO, () -> ranOnB.set(true))));
+
+        assertThat(acquiredOnB).isFalse();
+        assertThat(ranOnB).isFalse();
+    }
+
+    @Test
+    void lockAtLeastKeepsTheSameTriggerFromRunningTwice() {
+        AtomicInteger runs = new AtomicInteger();
+
+        instanceA.runLocked("nightly", TEN_MINUTES, Duration.ofMinutes(5), runs::incrementAndGet);
+        boolean ranAgain = instanceB.runLocked("nightly", TEN_MINUTES, Duration.ofMinutes(5), runs::incrementAndGet);
+
+        assertThat(ranAgain).isFalse();
+        assertThat(runs).hasValue(1);
+        assertThat(leaseRepo.findById("nightly").orElseThrow().getLockedUntil()).isAfter(LocalDateTime.now().plusMinutes(4));
+    }
+
+    @Test
+    void releasedOrExpiredLeaseIsTakenOverByAnotherInstance() {
+        instanceA.runLocked("hourly", TEN_MINUTES, Duration.ZERO, () -> {});
+
+        AtomicInteger runs = new AtomicInteger();
+        assertThat(instanceB.runLocked("hourly", TEN_MINUTES, Duration.ZERO, runs::incrementAndGet)).isTrue();
+
+        assertThat(runs).hasValue(1);
+        assertThat(leaseRepo.findById("hourly").orElseThrow().getLockedBy()).isEqualTo(instanceB.getInstanceId());
+    }
+}